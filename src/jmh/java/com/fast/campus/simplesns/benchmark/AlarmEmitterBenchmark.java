@@ -0,0 +1,82 @@
+package com.fast.campus.simplesns.benchmark;
+
+import com.fast.campus.simplesns.service.AlarmEmitterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 구독자 수에 따른 알람 전달 지연과 구독자당 메모리.
+ * 소켓 쓰기 비용을 빼고 registry 조회 + fan-out executor 를 거쳐 emitter.send 가 호출될 때까지를 잰다.
+ * 메모리는 setup 에서 등록 전후 heap 사용량 차이로 출력한다 (emitter 와 registry 항목만, tomcat 의 소켓 버퍼는 제외).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlarmEmitterBenchmark {
+
+    @Param({"10000", "100000"})
+    private int subscribers;
+
+    private AlarmEmitterRegistry registry;
+
+    private static volatile CountDownLatch delivered = new CountDownLatch(0);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeap();
+        // heartbeat 이 측정에 섞이지 않도록 주기를 길게 두고, 밀린 전송으로 구독자가 끊기지 않도록 write timeout 과 대기 한도를 넉넉히 둔다
+        registry = new AlarmEmitterRegistry(16, TimeUnit.HOURS.toMillis(1), TimeUnit.HOURS.toMillis(1),
+                TimeUnit.HOURS.toMillis(1), 1024, 4, subscribers);
+        for (int userId = 0; userId < subscribers; userId++) {
+            registry.register(userId, new CountingEmitter());
+        }
+        long after = usedHeap();
+        System.out.printf("%nsubscribers=%d, heap per subscriber ~%d bytes%n", subscribers, (after - before) / subscribers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        registry.close();
+    }
+
+    // 한 유저에게 알람 하나가 전달되기까지
+    @Benchmark
+    public void deliverToOne() throws InterruptedException {
+        delivered = new CountDownLatch(1);
+        registry.send(ThreadLocalRandom.current().nextInt(subscribers), "alarm");
+        delivered.await();
+    }
+
+    // 모든 구독자에게 각자의 알람을 하나씩 보내고 마지막 전달까지
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void deliverToEverySubscriber() throws InterruptedException {
+        delivered = new CountDownLatch(subscribers);
+        for (int userId = 0; userId < subscribers; userId++) {
+            registry.send(userId, "alarm");
+        }
+        delivered.await();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static class CountingEmitter extends SseEmitter {
+        @Override
+        public void send(SseEventBuilder builder) {
+            delivered.countDown();
+        }
+    }
+}
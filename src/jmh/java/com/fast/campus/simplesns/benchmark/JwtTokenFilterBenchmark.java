@@ -0,0 +1,70 @@
+package com.fast.campus.simplesns.benchmark;
+
+import com.fast.campus.simplesns.config.filter.JwtTokenFilter;
+import com.fast.campus.simplesns.model.User;
+import com.fast.campus.simplesns.model.UserRole;
+import com.fast.campus.simplesns.repository.InMemoryCredentialRevocationRepository;
+import com.fast.campus.simplesns.service.CredentialVersionCache;
+import com.fast.campus.simplesns.utils.JwtTokenUtils;
+import com.fast.campus.simplesns.utils.JwtTokenVerifier;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인증된 요청 하나가 JwtTokenFilter 를 지나 SecurityContext 에 principal 이 채워지기까지.
+ * 운영 설정 (stateless-principal) 대로 claim 에서 principal 을 만들고, credential version 은 이미 확인된 상태라 DB 를 조회하지 않는다.
+ * cachedToken 은 같은 토큰이 반복되는 경우 (검증 캐시 적중), freshToken 은 캐시 크기 0 으로 매번 서명을 검증하는 경우.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenFilterBenchmark {
+
+    private static final String KEY = "fast-campus.simple_sns_2022_secret_key";
+
+    private JwtTokenFilter cachedFilter;
+    private JwtTokenFilter uncachedFilter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        User user = User.fromClaims(1, "userName", UserRole.USER, 0);
+        authorization = "Bearer " + JwtTokenUtils.generateToken(user, KEY, TimeUnit.DAYS.toMillis(1));
+        CredentialVersionCache credentialVersionCache = new CredentialVersionCache(new InMemoryCredentialRevocationRepository(), 10_000, TimeUnit.DAYS.toMillis(1));
+        credentialVersionCache.update(user.getId(), user.getCredentialVersion());
+        // 이 경로에서는 UserService 를 부르지 않는다
+        cachedFilter = new JwtTokenFilter(new JwtTokenVerifier(KEY, 10_000), null, credentialVersionCache, true);
+        uncachedFilter = new JwtTokenFilter(new JwtTokenVerifier(KEY, 0), null, credentialVersionCache, true);
+    }
+
+    @Benchmark
+    public Authentication cachedToken() throws Exception {
+        return filter(cachedFilter);
+    }
+
+    @Benchmark
+    public Authentication freshToken() throws Exception {
+        return filter(uncachedFilter);
+    }
+
+    private Authentication filter(JwtTokenFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/posts");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.fast.campus.simplesns.benchmark;
+
+import com.fast.campus.simplesns.model.User;
+import com.fast.campus.simplesns.model.UserRole;
+import com.fast.campus.simplesns.utils.JwtClaims;
+import com.fast.campus.simplesns.utils.JwtTokenUtils;
+import com.fast.campus.simplesns.utils.JwtTokenVerifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 한 번에 필요한 토큰 검증 비용 비교.
+ * static 헬퍼는 isExpired + getUserName 으로 토큰을 두 번 검증하고, JwtTokenVerifier 는 한 번 (캐시 적중 시 0 번) 검증한다.
+ * 로그인 응답에서 토큰을 만드는 비용 (generateToken) 도 함께 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String KEY = "fast-campus.simple_sns_2022_secret_key";
+
+    private User user;
+    private String token;
+    private JwtTokenVerifier cachedVerifier;
+    private JwtTokenVerifier uncachedVerifier;
+
+    @Setup
+    public void setUp() {
+        user = User.fromClaims(1, "userName", UserRole.USER, 0);
+        token = JwtTokenUtils.generateToken(user, KEY, TimeUnit.DAYS.toMillis(1));
+        cachedVerifier = new JwtTokenVerifier(KEY, 10_000);
+        // 크기 0 캐시는 매번 검증하므로 parser 재사용 효과만 측정
+        uncachedVerifier = new JwtTokenVerifier(KEY, 0);
+    }
+
+    @Benchmark
+    public String staticHelpers() {
+        if (JwtTokenUtils.isExpired(token, KEY)) {
+            return null;
+        }
+        return JwtTokenUtils.getUserName(token, KEY);
+    }
+
+    @Benchmark
+    public JwtClaims verifierWithoutCache() {
+        return uncachedVerifier.verify(token);
+    }
+
+    @Benchmark
+    public JwtClaims verifierWithCache() {
+        return cachedVerifier.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return JwtTokenUtils.generateToken(user, KEY, TimeUnit.DAYS.toMillis(1));
+    }
+}
@@ -0,0 +1,58 @@
+package com.fast.campus.simplesns.benchmark;
+
+import com.fast.campus.simplesns.service.InMemoryLoginAttemptLimiter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메모리 로그인 제한 확인 비용과, 그것이 막아주는 bcrypt 비교 비용.
+ * 유저 1만 명 / ip 1천 개 사이에서 무작위로 고른다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginAttemptLimiterBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int IPS = 1_000;
+
+    private String[] userNames;
+    private String[] ips;
+    private InMemoryLoginAttemptLimiter limiter;
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        userNames = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userNames[i] = "user" + i;
+        }
+        ips = new String[IPS];
+        for (int i = 0; i < IPS; i++) {
+            ips[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+        // 측정 중 bucket 이 비어 거절되는 경로와 통과 경로가 섞이도록 기본 설정 그대로 둔다
+        limiter = new InMemoryLoginAttemptLimiter(5, 5, 50, 50);
+        encoder = new BCryptPasswordEncoder(10);
+        hash = encoder.encode("password");
+    }
+
+    @Benchmark
+    public boolean inMemoryTryAcquire() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return limiter.tryAcquire(userNames[random.nextInt(USERS)], ips[random.nextInt(IPS)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean bcryptMatches() {
+        return encoder.matches("password", hash);
+    }
+}
@@ -0,0 +1,84 @@
+package com.fast.campus.simplesns.benchmark;
+
+import com.fast.campus.simplesns.controller.response.PostResponse;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fast.campus.simplesns.service.PasswordHasher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 로그인이 몰릴 때 같은 프로세스의 피드 요청 처리량.
+ * direct 는 지금처럼 요청 스레드에서 bcrypt 를 돌리고, bounded 는 PasswordHasher (전용 스레드 + 대기열 제한) 를 거친다.
+ * 피드 요청은 PostResponse 20 개를 JSON 으로 직렬화하는 것으로 대신한다 (HTTP/DB 제외).
+ * 그룹별로 login / feed 스레드의 ops/s 를 비교한다. bounded 의 login 처리량에는 429 로 바로 돌려보낸 요청도 포함된다.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class LoginMixedTrafficBenchmark {
+
+    private static final String PASSWORD = "password";
+
+    private BCryptPasswordEncoder encoder;
+    private PasswordHasher hasher;
+    private String hash;
+    private ObjectMapper objectMapper;
+    private List<PostResponse> feed;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(10);
+        hasher = new PasswordHasher(encoder, 10, 0, 16, 3000);
+        hash = encoder.encode(PASSWORD);
+        objectMapper = new ObjectMapper();
+        Timestamp now = Timestamp.from(Instant.now());
+        feed = IntStream.range(0, 20)
+                .mapToObj(i -> PostResponse.fromSummary(new PostSummary(i, "title" + i, "body " + i, i, "user" + i, now, now)))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @Group("direct")
+    @GroupThreads(6)
+    public boolean directLogin() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    @Group("direct")
+    @GroupThreads(2)
+    public byte[] directFeed() throws Exception {
+        return objectMapper.writeValueAsBytes(feed);
+    }
+
+    @Benchmark
+    @Group("bounded")
+    @GroupThreads(6)
+    public void boundedLogin(Blackhole blackhole) {
+        try {
+            blackhole.consume(hasher.matches(PASSWORD, hash));
+        } catch (SnsApplicationException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    @Group("bounded")
+    @GroupThreads(2)
+    public byte[] boundedFeed() throws Exception {
+        return objectMapper.writeValueAsBytes(feed);
+    }
+}
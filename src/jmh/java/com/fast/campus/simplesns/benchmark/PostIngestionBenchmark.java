@@ -0,0 +1,66 @@
+package com.fast.campus.simplesns.benchmark;
+
+import com.fast.campus.simplesns.SimpleSnsApplication;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import com.fast.campus.simplesns.service.PostService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 커넥션 4 개로 post 작성 처리량 (posts/s) 비교. 16 개 스레드가 동시에 PostService.create 를 호출한다.
+ * direct 는 요청마다 insert 하고 커밋, write-behind 는 PostIngestionQueue 가 모아서 batch insert 후 커밋한다.
+ * H2 메모리 DB 라 왕복 비용이 거의 없으므로, 네트워크 너머의 DB 에서는 차이가 더 커진다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(16)
+@Fork(1)
+public class PostIngestionBenchmark {
+
+    @Param({"direct", "write-behind"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private String userName;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SimpleSnsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:ingestion-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.hikari.maximum-pool-size=4",
+                        "--spring.jpa.database=h2",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.kafka.listener.auto-startup=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.apache.kafka=OFF",
+                        "--sns.post.ingestion.mode=" + mode);
+        postService = context.getBean(PostService.class);
+        userName = context.getBean(UserEntityRepository.class)
+                .save(UserEntity.of("ingestion", "password", 10)).getUserName();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer create() {
+        return postService.create("title", "body", userName);
+    }
+}
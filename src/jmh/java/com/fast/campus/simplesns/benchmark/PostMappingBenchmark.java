@@ -0,0 +1,51 @@
+package com.fast.campus.simplesns.benchmark;
+
+import com.fast.campus.simplesns.controller.response.PostResponse;
+import com.fast.campus.simplesns.model.Post;
+import com.fast.campus.simplesns.model.entity.PostEntity;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 엔티티 목록을 PostEntity → Post → PostResponse 로 바꾸는 비용 (post 수정 응답, 엔티티로 읽는 목록 경로).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostMappingBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private List<PostEntity> entities;
+
+    @Setup
+    public void setUp() {
+        UserEntity user = UserEntity.of("userName", "password", 10);
+        user.setId(1);
+        entities = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            PostEntity entity = PostEntity.of("title " + i, "body ".repeat(100), user);
+            entity.setId(i);
+            entity.setRegisteredAt(new Timestamp(System.currentTimeMillis()));
+            entities.add(entity);
+        }
+    }
+
+    @Benchmark
+    public List<PostResponse> fromEntity() {
+        List<PostResponse> responses = new ArrayList<>(entities.size());
+        for (PostEntity entity : entities) {
+            responses.add(PostResponse.fromPost(Post.fromEntity(entity)));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,85 @@
+package com.fast.campus.simplesns.benchmark;
+
+import com.fast.campus.simplesns.model.SearchHit;
+import com.fast.campus.simplesns.repository.InMemoryPostSearchRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메모리 검색 색인의 질의 지연시간. 단어 빈도가 Zipf 분포를 따르는 post (제목 3 단어, 본문 30 단어) 를 docs 개 색인해 두고 측정한다.
+ * 교집합은 가장 짧은 posting list 길이에 비례하므로, 흔한 단어끼리의 질의가 가장 느리다.
+ * post 수를 늘릴 때는 -jvmArgs -Xmx 도 함께 늘린다 (post 당 약 300 byte).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class PostSearchBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+
+    @Param({"1000000"})
+    private int docs;
+
+    private InMemoryPostSearchRepository repository;
+    private int[] zipf;
+
+    @Setup
+    public void setUp() {
+        repository = new InMemoryPostSearchRepository(null, false);
+        zipf = zipfTable();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int postId = 1; postId <= docs; postId++) {
+            repository.index(postId, words(random, 3), words(random, 30));
+        }
+    }
+
+    // 상위 10 위 안의 흔한 단어 하나 (수십만 건 매치)
+    @Benchmark
+    public List<SearchHit> commonWord() {
+        return repository.search("w3", null, 20);
+    }
+
+    // 흔한 단어 두 개의 교집합
+    @Benchmark
+    public List<SearchHit> twoCommonWords() {
+        return repository.search("w2 w5", null, 20);
+    }
+
+    // 드문 단어가 섞이면 그 list 만 따라간다
+    @Benchmark
+    public List<SearchHit> rareAndCommonWords() {
+        return repository.search("w2 w4000", null, 20);
+    }
+
+    private String words(SplittableRandom random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append('w').append(zipf[random.nextInt(zipf.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    // 순위 r 의 단어가 1/r 에 비례해서 뽑히도록 펼친 표
+    private static int[] zipfTable() {
+        double harmonic = 0;
+        for (int rank = 1; rank <= VOCABULARY; rank++) {
+            harmonic += 1.0 / rank;
+        }
+        int size = 1 << 20;
+        int[] table = new int[size];
+        int index = 0;
+        for (int rank = 1; rank <= VOCABULARY && index < size; rank++) {
+            int count = (int) Math.ceil(size / (rank * harmonic));
+            for (int i = 0; i < count && index < size; i++) {
+                table[index++] = rank;
+            }
+        }
+        return table;
+    }
+}
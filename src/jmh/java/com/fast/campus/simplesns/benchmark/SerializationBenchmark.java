@@ -0,0 +1,121 @@
+package com.fast.campus.simplesns.benchmark;
+
+import com.fast.campus.simplesns.controller.response.PostResponse;
+import com.fast.campus.simplesns.controller.response.Response;
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response<Page<PostResponse>> 한 페이지를 byte[] 로 만드는 시간.
+ * - iso: 이전 설정 (spring boot 기본값, 날짜는 ISO 문자열)
+ * - json: epoch millis 날짜 + Blackbird
+ * - smile, cbor: json 과 같은 설정의 바이너리
+ * 포맷별 크기와 gzip 후 크기는 setup 에서 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100", "500"})
+    private int pageSize;
+
+    @Param({"iso", "json", "smile", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private Response<Page<PostResponse>> response;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = mapper(format);
+        response = Response.success(page(pageSize));
+        byte[] bytes = serialize();
+        System.out.printf("%n%s page %d: %d bytes, gzip %d bytes%n", format, pageSize, bytes.length, gzip(bytes).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    private static ObjectMapper mapper(String format) {
+        switch (format) {
+            case "iso":
+                return Jackson2ObjectMapperBuilder.json()
+                        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .build();
+            case "json":
+                return Jackson2ObjectMapperBuilder.json()
+                        .modulesToInstall(new BlackbirdModule())
+                        .build();
+            case "smile":
+                return Jackson2ObjectMapperBuilder.json()
+                        .factory(new SmileFactory())
+                        .modulesToInstall(new BlackbirdModule())
+                        .build();
+            case "cbor":
+                return Jackson2ObjectMapperBuilder.json()
+                        .factory(new CBORFactory())
+                        .modulesToInstall(new BlackbirdModule())
+                        .build();
+            default:
+                throw new IllegalArgumentException(format);
+        }
+    }
+
+    // 제목 20~60 자, 본문 100~1000 자, 수정된 post 는 절반
+    private static Page<PostResponse> page(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        long now = System.currentTimeMillis();
+        List<PostResponse> posts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Timestamp registeredAt = new Timestamp(now - random.nextLong(30L * 24 * 3600 * 1000));
+            Timestamp updatedAt = random.nextBoolean() ? new Timestamp(registeredAt.getTime() + 60_000) : null;
+            PostSummary post = new PostSummary(100_000 - i, text(random, 20, 60), text(random, 100, 1000),
+                    random.nextInt(1, 10_000), "user" + random.nextInt(10_000), registeredAt, updatedAt);
+            post.setLikeCount(random.nextInt(500));
+            post.setCommentCount(random.nextInt(50));
+            posts.add(PostResponse.fromSummary(post));
+        }
+        return new PageImpl<>(posts, PageRequest.of(0, size), 1_000_000);
+    }
+
+    private static String text(SplittableRandom random, int min, int max) {
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(min, max);
+        while (text.length() < length) {
+            text.append("word").append(random.nextInt(5_000)).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,63 @@
+package com.fast.campus.simplesns.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * endpoint 하나의 지연시간 기록 (microsecond 단위, 유효숫자 3 자리).
+ * responseTime 은 요청을 보냈어야 할 시각 (schedule) 부터 응답까지라서, 서버가 멈춘 동안 밀린 요청의 대기도 포함한다 (coordinated omission 보정).
+ * serviceTime 은 실제로 보낸 시각부터 응답까지라서 보정 전 값이다. 둘의 차이가 클수록 부하기가 밀려 있었다는 뜻이다.
+ */
+public class EndpointStats {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Recorder responseTime = new Recorder(HIGHEST_MICROS, 3);
+    private final Recorder serviceTime = new Recorder(HIGHEST_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    // 여러 client 스레드가 동시에 부른다 (Recorder 는 여러 writer 를 lock 없이 받는다)
+    public void record(long intendedNanos, long sentNanos, long doneNanos, boolean success) {
+        responseTime.recordValue(micros(doneNanos - intendedNanos));
+        serviceTime.recordValue(micros(doneNanos - sentNanos));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(responseTime.getIntervalHistogram(), serviceTime.getIntervalHistogram(), errors.sumThenReset());
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(HIGHEST_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    public static class Snapshot {
+
+        private final Histogram responseTime;
+        private final Histogram serviceTime;
+        private final long errors;
+
+        Snapshot(Histogram responseTime, Histogram serviceTime, long errors) {
+            this.responseTime = responseTime;
+            this.serviceTime = serviceTime;
+            this.errors = errors;
+        }
+
+        public Histogram getResponseTime() {
+            return responseTime;
+        }
+
+        public Histogram getServiceTime() {
+            return serviceTime;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.fast.campus.simplesns.loadtest;
+
+import com.fast.campus.simplesns.SimpleSnsApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 업그레이드 전에 로컬에서 운영 부하를 재현하는 부하기. H2 로 애플리케이션을 띄우고 실제 API 로 유저와 post 를 seed 한 뒤
+ * clients 개 스레드가 합쳐서 초당 rate 개의 요청을 mix 비율대로 보낸다.
+ *
+ * 요청은 응답을 기다렸다가 다음을 보내는 방식이 아니라 정해진 간격의 schedule 을 따른다 (open loop).
+ * 응답이 늦어 schedule 보다 밀리면 다음 요청은 쉬지 않고 바로 나가고, 지연시간은 원래 보냈어야 할 시각부터 잰다.
+ * 그래서 서버가 잠깐 멈춰도 그동안 보내지 못한 요청들이 긴 지연으로 기록된다 (coordinated omission 보정).
+ *
+ * 실행: ./gradlew loadTest -PloadTestArgs="--rate=400 --duration=120 --mix=login:1,list:9"
+ * endpoint 별 처리량과 p50/p99/p99.9 를 출력하고, report-dir 에 HdrHistogram 분포 (.hgrm) 를 남긴다.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SimpleSnsApplication.class)
+                .run(options.applicationArgs());
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            SnsClient client = new SnsClient("http://localhost:" + port, context.getBean(ObjectMapper.class));
+            Workload workload = seed(client, options);
+            Map<Operation, EndpointStats.Snapshot> snapshots = run(client, workload, options);
+            report(snapshots, options);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Workload seed(SnsClient client, LoadTestOptions options) throws Exception {
+        String runId = "load-" + Long.toString(System.currentTimeMillis(), 36);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(options.getClients(), 8));
+        try {
+            List<Future<String>> logins = new ArrayList<>();
+            List<String> userNames = new ArrayList<>();
+            for (int i = 0; i < options.getUsers(); i++) {
+                String userName = runId + "-seed-" + i;
+                userNames.add(userName);
+                logins.add(executor.submit(() -> client.joinAndLogin(userName, Workload.PASSWORD)));
+            }
+            List<String> tokens = new ArrayList<>();
+            for (Future<String> login : logins) {
+                tokens.add(login.get());
+            }
+
+            String body = "b".repeat(options.getBodySize());
+            List<Future<?>> posts = new ArrayList<>();
+            for (int i = 0; i < options.getPosts(); i++) {
+                String token = tokens.get(i % tokens.size());
+                String title = "seed " + i;
+                posts.add(executor.submit(() -> {
+                    client.createPost(title, body, token);
+                    return null;
+                }));
+            }
+            for (Future<?> post : posts) {
+                post.get();
+            }
+            System.out.printf("seeded %d users and %d posts%n", options.getUsers(), options.getPosts());
+            return new Workload(runId, options.getMix(), userNames, tokens, options.getPosts(), options.getBodySize());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Map<Operation, EndpointStats.Snapshot> run(SnsClient client, Workload workload, LoadTestOptions options) throws InterruptedException {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        int clients = options.getClients();
+        // client 하나가 요청을 보내는 간격. 시작 시각을 조금씩 어긋나게 해서 전체로는 고르게 나간다
+        long intervalNanos = TimeUnit.SECONDS.toNanos(clients) / options.getRate();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            long first = start + intervalNanos * i / clients;
+            SplittableRandom random = new SplittableRandom(i);
+            executor.execute(() -> drive(client, workload, stats, random, first, intervalNanos, measureFrom, end));
+        }
+        System.out.printf("warming up for %d s%n", options.getWarmupSeconds());
+        sleepUntil(measureFrom);
+        System.out.printf("measuring for %d s at %d req/s with %d clients%n", options.getDurationSeconds(), options.getRate(), clients);
+
+        executor.shutdown();
+        if (!executor.awaitTermination(options.getDurationSeconds() + 60L, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        Map<Operation, EndpointStats.Snapshot> snapshots = new EnumMap<>(Operation.class);
+        stats.forEach((operation, endpoint) -> snapshots.put(operation, endpoint.snapshot()));
+        return snapshots;
+    }
+
+    private static void drive(SnsClient client, Workload workload, Map<Operation, EndpointStats> stats,
+                              SplittableRandom random, long first, long intervalNanos, long measureFrom, long end) {
+        for (long intended = first; intended < end; intended += intervalNanos) {
+            sleepUntil(intended);
+            Operation operation = workload.pick(random);
+            long sent = System.nanoTime();
+            boolean success;
+            try {
+                success = operation.call(client, workload, random) == 200;
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // warmup 에 잡힌 요청은 measurement 구간에 늦게 끝나더라도 세지 않는다
+            if (intended >= measureFrom) {
+                stats.get(operation).record(intended, sent, System.nanoTime(), success);
+            }
+        }
+    }
+
+    private static void report(Map<Operation, EndpointStats.Snapshot> snapshots, LoadTestOptions options) throws IOException {
+        double seconds = options.getDurationSeconds();
+        long total = snapshots.values().stream().mapToLong(snapshot -> snapshot.getResponseTime().getTotalCount()).sum();
+        System.out.printf("%ntarget %d req/s, achieved %.1f req/s%n", options.getRate(), total / seconds);
+        if (total / seconds < options.getRate() * 0.95) {
+            // 서버가 못 따라오면 요청이 밀리고, 밀린 시간은 response time 에 들어가 있다
+            System.out.println("the server could not keep up with the target rate; response times include the backlog");
+        }
+        System.out.printf("%-8s %8s %7s %9s %9s %9s %9s %9s %12s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "service p99");
+
+        Path reportDir = Path.of(options.getReportDir());
+        Files.createDirectories(reportDir);
+        List<Operation> operations = new ArrayList<>(snapshots.keySet());
+        Collections.sort(operations);
+        for (Operation operation : operations) {
+            EndpointStats.Snapshot snapshot = snapshots.get(operation);
+            Histogram response = snapshot.getResponseTime();
+            if (response.getTotalCount() == 0) {
+                continue;
+            }
+            System.out.printf("%-8s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                    operation.getKey(), response.getTotalCount(), snapshot.getErrors(), response.getTotalCount() / seconds,
+                    millis(response, 50), millis(response, 99), millis(response, 99.9), response.getMaxValue() / 1000.0,
+                    millis(snapshot.getServiceTime(), 99));
+            write(reportDir.resolve(operation.getKey() + ".hgrm"), response);
+            write(reportDir.resolve(operation.getKey() + "-service.hgrm"), snapshot.getServiceTime());
+        }
+        System.out.printf("%nhistograms written to %s%n", reportDir.toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    // HdrHistogram plotter 로 볼 수 있는 형식 (단위 ms)
+    private static void write(Path path, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(path))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.fast.campus.simplesns.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 명령행 옵션. --rate=400 --mix=login:1,list:9 처럼 받고, 모르는 --key=value 는 애플리케이션 설정으로 넘긴다
+ * (예: --sns.post.ingestion.mode=write-behind, --spring.datasource.hikari.maximum-pool-size=8).
+ */
+public class LoadTestOptions {
+
+    // 운영 트래픽 비율을 대략 따른 기본 mix. join/login 은 bcrypt 라 요청당 비용이 가장 크다
+    private static final String DEFAULT_MIX = "join:1,login:4,create:10,list:60,my:25";
+
+    private int rate = 200;
+    private int clients = 32;
+    private int warmupSeconds = 10;
+    private int durationSeconds = 60;
+    private int users = 50;
+    private int posts = 1000;
+    private int bodySize = 500;
+    private String reportDir = "build/reports/loadtest";
+    private Map<Operation, Integer> mix = parseMix(DEFAULT_MIX);
+    private final Map<String, String> applicationProperties = new LinkedHashMap<>();
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException(String.format("expected --key=value but was %s", arg));
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "rate": options.rate = positive(key, value); break;
+                case "clients": options.clients = positive(key, value); break;
+                case "warmup": options.warmupSeconds = Integer.parseInt(value); break;
+                case "duration": options.durationSeconds = positive(key, value); break;
+                case "users": options.users = positive(key, value); break;
+                case "posts": options.posts = Integer.parseInt(value); break;
+                case "body-size": options.bodySize = positive(key, value); break;
+                case "report-dir": options.reportDir = value; break;
+                case "mix": options.mix = parseMix(value); break;
+                default: options.applicationProperties.put(key, value);
+            }
+        }
+        return options;
+    }
+
+    // H2 메모리 DB 로 띄우고, 부하기가 한 IP 에서 같은 유저로 계속 로그인하므로 로그인 제한은 사실상 끈다
+    public String[] applicationArgs() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.database", "h2");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.kafka.listener.auto-startup", "false");
+        properties.put("sns.login-limit.user.capacity", "1000000");
+        properties.put("sns.login-limit.user.refill-per-minute", "1000000");
+        properties.put("sns.login-limit.ip.capacity", "1000000");
+        properties.put("sns.login-limit.ip.refill-per-minute", "1000000");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.apache.kafka", "OFF");
+        // join/login 요청마다 남는 Authorization 헤더 없음 로그
+        properties.put("logging.level.com.fast.campus.simplesns.config.filter.JwtTokenFilter", "OFF");
+        properties.putAll(applicationProperties);
+
+        List<String> args = new ArrayList<>();
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+        return args.toArray(new String[0]);
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException(String.format("expected operation:weight but was %s", entry));
+            }
+            mix.merge(Operation.fromKey(pair[0].trim()), Integer.parseInt(pair[1].trim()), Integer::sum);
+        }
+        return mix;
+    }
+
+    private static int positive(String key, String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed <= 0) {
+            throw new IllegalArgumentException(String.format("%s must be positive but was %s", key, value));
+        }
+        return parsed;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public int getClients() {
+        return clients;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getPosts() {
+        return posts;
+    }
+
+    public int getBodySize() {
+        return bodySize;
+    }
+
+    public String getReportDir() {
+        return reportDir;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+}
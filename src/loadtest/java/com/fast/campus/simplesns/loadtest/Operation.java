@@ -0,0 +1,67 @@
+package com.fast.campus.simplesns.loadtest;
+
+import com.fast.campus.simplesns.controller.request.PostCreateRequest;
+import com.fast.campus.simplesns.controller.request.UserJoinRequest;
+import com.fast.campus.simplesns.controller.request.UserLoginRequest;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * 부하 mix 를 구성하는 요청 종류. 각각 실제 UserController / PostController API 를 한 번 호출하고 HTTP status 를 돌려준다.
+ */
+public enum Operation {
+
+    JOIN("join") {
+        @Override
+        int call(SnsClient client, Workload workload, SplittableRandom random) throws IOException, InterruptedException {
+            return client.post("/api/v1/users/join", new UserJoinRequest(workload.newUserName(), Workload.PASSWORD), null);
+        }
+    },
+    LOGIN("login") {
+        @Override
+        int call(SnsClient client, Workload workload, SplittableRandom random) throws IOException, InterruptedException {
+            return client.post("/api/v1/users/login", new UserLoginRequest(workload.userName(random), Workload.PASSWORD), null);
+        }
+    },
+    CREATE("create") {
+        @Override
+        int call(SnsClient client, Workload workload, SplittableRandom random) throws IOException, InterruptedException {
+            return client.post("/api/v1/posts", new PostCreateRequest("load test", workload.body()), workload.token(random));
+        }
+    },
+    LIST("list") {
+        @Override
+        int call(SnsClient client, Workload workload, SplittableRandom random) throws IOException, InterruptedException {
+            return client.get("/api/v1/posts?size=20&page=" + random.nextInt(workload.listPages()), workload.token(random));
+        }
+    },
+    MY("my") {
+        @Override
+        int call(SnsClient client, Workload workload, SplittableRandom random) throws IOException, InterruptedException {
+            return client.get("/api/v1/posts/my?size=20&page=0", workload.token(random));
+        }
+    };
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    abstract int call(SnsClient client, Workload workload, SplittableRandom random) throws IOException, InterruptedException;
+
+    public static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("unknown operation %s (one of %s)", key,
+                        Arrays.stream(values()).map(Operation::getKey).collect(Collectors.joining(",")))));
+    }
+}
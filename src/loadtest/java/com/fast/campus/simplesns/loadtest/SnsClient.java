@@ -0,0 +1,80 @@
+package com.fast.campus.simplesns.loadtest;
+
+import com.fast.campus.simplesns.controller.request.PostCreateRequest;
+import com.fast.campus.simplesns.controller.request.UserJoinRequest;
+import com.fast.campus.simplesns.controller.request.UserLoginRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * 부하 client 들이 같이 쓰는 HTTP client. 응답 본문은 읽어서 버리고 status 만 돌려준다 (seed 단계의 로그인만 token 을 꺼낸다).
+ */
+public class SnsClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+
+    public SnsClient(String baseUrl, ObjectMapper objectMapper) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+    }
+
+    public int get(String path, String token) throws IOException, InterruptedException {
+        return send(request(path, token).GET().build()).statusCode();
+    }
+
+    public int post(String path, Object body, String token) throws IOException, InterruptedException {
+        return send(request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build()).statusCode();
+    }
+
+    // seed 용. 실패하면 부하를 걸 의미가 없으므로 바로 멈춘다
+    public String joinAndLogin(String userName, String password) throws IOException, InterruptedException {
+        expectOk(post("/api/v1/users/join", new UserJoinRequest(userName, password), null), "join " + userName);
+        HttpResponse<String> response = send(request("/api/v1/users/login", null)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(new UserLoginRequest(userName, password))))
+                .build());
+        expectOk(response.statusCode(), "login " + userName);
+        JsonNode result = objectMapper.readTree(response.body()).path("result");
+        return result.path("token").asText();
+    }
+
+    public void createPost(String title, String body, String token) throws IOException, InterruptedException {
+        expectOk(post("/api/v1/posts", new PostCreateRequest(title, body), token), "create post");
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void expectOk(int status, String what) {
+        if (status != 200) {
+            throw new IllegalStateException(String.format("%s failed with status %d", what, status));
+        }
+    }
+}
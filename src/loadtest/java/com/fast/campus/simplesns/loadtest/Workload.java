@@ -0,0 +1,71 @@
+package com.fast.campus.simplesns.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * seed 된 유저/토큰과 요청 mix. client 스레드들이 같이 읽기만 하고, join 이름 번호만 공유해서 올린다.
+ */
+public class Workload {
+
+    static final String PASSWORD = "load-test-password";
+
+    private final String runId;
+    private final Operation[] picks;
+    private final List<String> userNames;
+    private final List<String> tokens;
+    private final int listPages;
+    private final String body;
+    private final AtomicInteger joined = new AtomicInteger();
+
+    public Workload(String runId, Map<Operation, Integer> mix, List<String> userNames, List<String> tokens, int posts, int bodySize) {
+        this.runId = runId;
+        this.picks = table(mix);
+        this.userNames = List.copyOf(userNames);
+        this.tokens = List.copyOf(tokens);
+        // seed 된 post 가 있는 페이지 안에서만 고른다
+        this.listPages = Math.max(1, Math.min(50, posts / 20));
+        this.body = "b".repeat(bodySize);
+    }
+
+    public Operation pick(SplittableRandom random) {
+        return picks[random.nextInt(picks.length)];
+    }
+
+    String newUserName() {
+        return runId + "-join-" + joined.incrementAndGet();
+    }
+
+    String userName(SplittableRandom random) {
+        return userNames.get(random.nextInt(userNames.size()));
+    }
+
+    String token(SplittableRandom random) {
+        return tokens.get(random.nextInt(tokens.size()));
+    }
+
+    int listPages() {
+        return listPages;
+    }
+
+    String body() {
+        return body;
+    }
+
+    // 가중치만큼 같은 operation 을 넣어 둔 표 (가중치 합이 크지 않으므로)
+    private static Operation[] table(Map<Operation, Integer> mix) {
+        List<Operation> table = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        });
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("mix has no operation with a positive weight");
+        }
+        return table.toArray(new Operation[0]);
+    }
+}
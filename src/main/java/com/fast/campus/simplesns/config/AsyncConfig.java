@@ -0,0 +1,56 @@
+package com.fast.campus.simplesns.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * @Async 용 executor.
+ * - alarmProducerExecutor: 알람 kafka 전송. 브로커가 내려가면 전송마다 max.block.ms 동안 막히므로 스레드와 대기열을 제한하고,
+ *   넘치는 전송은 버리면서 sns.alarm.produce.dropped 로 센다. 알람은 kafka 를 거쳐 AlarmConsumer 가 저장하므로 버린 알람은 다시 볼 수 없다
+ *   (좋아요는 DB 에 batch 로 늦게 쓰므로 알람을 같은 트랜잭션에 저장할 곳이 없다. 알람은 유실을 허용한다)
+ * - applicationTaskExecutor: executor bean 을 직접 만들면 spring boot 가 기본 executor 를 만들지 않으므로
+ *   MVC 비동기 요청 (StreamingResponseBody 등) 이 쓰는 기본 executor 를 같은 설정 (spring.task.execution) 으로 다시 등록한다
+ */
+@Slf4j
+@Configuration
+public class AsyncConfig {
+
+    public static final String ALARM_PRODUCER_EXECUTOR = "alarmProducerExecutor";
+
+    @Lazy
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(ALARM_PRODUCER_EXECUTOR)
+    public ThreadPoolTaskExecutor alarmProducerExecutor(@Value("${sns.alarm.producer.threads:2}") int threads,
+                                                        @Value("${sns.alarm.producer.queue-size:1000}") int queueSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueSize);
+        executor.setThreadNamePrefix("alarm-producer-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            alarmDropped("rejected").increment();
+            log.warn("알람 전송 대기열이 가득 차서 알람을 보내지 못했습니다.");
+        });
+        // 종료할 때 대기열에 남은 전송을 잠깐 기다린다
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    public static Counter alarmDropped(String reason) {
+        return Counter.builder("sns.alarm.produce.dropped")
+                .tag("reason", reason)
+                .register(Metrics.globalRegistry);
+    }
+}
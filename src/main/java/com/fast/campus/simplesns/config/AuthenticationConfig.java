@@ -2,7 +2,10 @@ package com.fast.campus.simplesns.config;
 
 import com.fast.campus.simplesns.config.filter.JwtTokenFilter;
 import com.fast.campus.simplesns.exception.CustomAuthenticationEntryPoint;
+import com.fast.campus.simplesns.model.UserRole;
+import com.fast.campus.simplesns.service.CredentialVersionCache;
 import com.fast.campus.simplesns.service.UserService;
+import com.fast.campus.simplesns.utils.JwtTokenVerifier;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
@@ -18,8 +21,10 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class AuthenticationConfig extends WebSecurityConfigurerAdapter {
 
     private final UserService userService;
-    @Value("{jwt.secret.key}")
-    private String key;
+    private final CredentialVersionCache credentialVersionCache;
+    private final JwtTokenVerifier jwtTokenVerifier;
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
@@ -27,12 +32,15 @@ public class AuthenticationConfig extends WebSecurityConfigurerAdapter {
                 .authorizeRequests()
                 .antMatchers("/api/*/users/join", "/api/*/users/login").permitAll()
                 .antMatchers("/api/**").authenticated()
+                // prometheus 등 관리 endpoint 는 health 를 빼고 ADMIN 만 본다
+                .antMatchers("/actuator/health/**").permitAll()
+                .antMatchers("/actuator/**").hasAuthority(UserRole.ADMIN.name())
                 .anyRequest().permitAll()
                 .and()
                 .sessionManagement()
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
-                .addFilterBefore(new JwtTokenFilter(key, userService), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtTokenFilter(jwtTokenVerifier, userService, credentialVersionCache, statelessPrincipal), UsernamePasswordAuthenticationFilter.class)
                 .exceptionHandling()
                 .authenticationEntryPoint(new CustomAuthenticationEntryPoint());
         ;
@@ -0,0 +1,66 @@
+package com.fast.campus.simplesns.config;
+
+import com.fast.campus.simplesns.config.datasource.ReadYourWritesTracker;
+import com.fast.campus.simplesns.config.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+// sns.datasource.routing=true 일 때만 사용. 아니면 spring.datasource 하나로 기존처럼 동작한다
+@Configuration
+@ConditionalOnProperty(prefix = "sns.datasource", name = "routing", havingValue = "true")
+public class DataSourceConfig {
+
+    // 트랜잭션이 요청 스레드 밖에서 커밋되는 쓰기 (write-behind post 등) 는 서비스가 직접 기록한다
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(@Value("${sns.datasource.read-your-writes-ms:3000}") long readYourWritesMs,
+                                                       @Value("${sns.datasource.read-your-writes-max-users:100000}") long maxUsers) {
+        return new ReadYourWritesTracker(Duration.ofMillis(readYourWritesMs), maxUsers);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties, Environment environment,
+                                                             ReadYourWritesTracker readYourWritesTracker) {
+        Binder binder = Binder.get(environment);
+
+        // primary 는 spring.datasource 와 spring.datasource.hikari 설정을 그대로 사용
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        // replica 는 항목마다 jdbc-url, username, password 와 hikari 설정(maximum-pool-size 등)을 받는다
+        List<HikariDataSource> replicas = binder.bind("sns.datasource.replicas", Bindable.listOf(HikariDataSource.class))
+                .orElse(List.of());
+        for (int i = 0; i < replicas.size(); i++) {
+            replicas.get(i).setPoolName("replica-" + i);
+            replicas.get(i).setReadOnly(true);
+        }
+
+        // routing 뒤의 pool 은 bean 이 아니라서 actuator 가 찾지 못하므로 직접 연결한다 (hikaricp.* 지표, pool 태그로 구분)
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(Metrics.globalRegistry);
+        primary.setMetricsTrackerFactory(metrics);
+        replicas.forEach(replica -> replica.setMetricsTrackerFactory(metrics));
+
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWritesTracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
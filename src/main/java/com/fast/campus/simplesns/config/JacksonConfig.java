@@ -0,0 +1,38 @@
+package com.fast.campus.simplesns.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * 응답 직렬화 설정.
+ * - Blackbird: getter 호출을 reflection 대신 LambdaMetafactory 로 만든 함수로 바꿔 DTO 마다 한 번만 준비해 둔다
+ * - Accept: application/x-jackson-smile 또는 application/cbor 이면 같은 설정 (모듈, epoch millis 날짜) 의 바이너리로 내려준다
+ * 큰 응답의 gzip 은 server.compression 에서 켠다.
+ */
+@Configuration
+public class JacksonConfig {
+
+    // Module bean 은 spring boot 가 ObjectMapper 와 아래 builder 에 등록한다
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // Jackson2ObjectMapperBuilder 는 prototype 이라 주입받을 때마다 새로 만들어진다
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
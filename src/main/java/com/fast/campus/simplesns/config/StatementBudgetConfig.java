@@ -0,0 +1,56 @@
+package com.fast.campus.simplesns.config;
+
+import com.fast.campus.simplesns.config.datasource.StatementBudget;
+import com.fast.campus.simplesns.config.datasource.StatementBudgetAspect;
+import com.fast.campus.simplesns.config.datasource.StatementCountingDataSource;
+import com.fast.campus.simplesns.config.filter.StatementBudgetFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+// SQL 로그 없이도 요청/트랜잭션마다 statement 수를 확인한다. sns.statement-budget.enabled=false 이면 DataSource 를 감싸지 않는다
+@Configuration
+@ConditionalOnProperty(prefix = "sns.statement-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StatementBudgetConfig {
+
+    // JPA 가 쓰는 DataSource 만 감싼다 (routing 이면 LazyConnectionDataSourceProxy, 안쪽 pool 은 감싸지 않아 두 번 세지 않음)
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public StatementBudget statementBudget(@Value("${sns.statement-budget.per-request:20}") int perRequest,
+                                           @Value("${sns.statement-budget.per-transaction:10}") int perTransaction,
+                                           @Value("${sns.statement-budget.repeat-threshold:5}") int repeatThreshold,
+                                           @Value("${sns.statement-budget.action:log}") String action) {
+        return new StatementBudget(perRequest, perTransaction, repeatThreshold, StatementBudget.Action.valueOf(action.toUpperCase()));
+    }
+
+    @Bean
+    public StatementBudgetAspect statementBudgetAspect(StatementBudget statementBudget) {
+        return new StatementBudgetAspect(statementBudget);
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilter(StatementBudget statementBudget) {
+        FilterRegistrationBean<StatementBudgetFilter> registration = new FilterRegistrationBean<>(new StatementBudgetFilter(statementBudget));
+        // Spring Security filter chain (-100) 보다 먼저
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,31 @@
+package com.fast.campus.simplesns.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * 최근에 쓰기 트랜잭션을 커밋한 유저를 window 동안 기억한다.
+ * 이 유저의 읽기는 replica 가 따라잡기 전이라도 자기 글이 보이도록 primary 로 보낸다.
+ * 노드 로컬이므로 다른 노드로 간 요청은 replica 를 읽을 수 있다.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public void recordWrite(String userName) {
+        recentWriters.put(userName, Boolean.TRUE);
+    }
+
+    public boolean isWithinWindow(String userName) {
+        return recentWriters.getIfPresent(userName) != null;
+    }
+}
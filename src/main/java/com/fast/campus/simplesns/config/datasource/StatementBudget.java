@@ -0,0 +1,69 @@
+package com.fast.campus.simplesns.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 닫히는 StatementScope 가 statement 수 한도를 넘었거나 같은 SQL 을 repeat-threshold 번 이상 반복했는지 확인한다.
+ * log 이면 경고 로그와 sns.statement.budget.exceeded 지표만 남기고, fail 이면 IllegalStateException 을 던진다 (테스트/CI 용).
+ */
+@Slf4j
+public class StatementBudget {
+
+    public enum Action {
+        LOG, FAIL
+    }
+
+    public enum Kind {
+        REQUEST("request"), TRANSACTION("transaction");
+
+        private final String tag;
+
+        Kind(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final int perRequest;
+    private final int perTransaction;
+    private final int repeatThreshold;
+    private final Action action;
+
+    public StatementBudget(int perRequest, int perTransaction, int repeatThreshold, Action action) {
+        this.perRequest = perRequest;
+        this.perTransaction = perTransaction;
+        this.repeatThreshold = repeatThreshold;
+        this.action = action;
+    }
+
+    public void check(StatementScope scope, Kind kind) {
+        int budget = kind == Kind.REQUEST ? perRequest : perTransaction;
+        if (scope.getCount() > budget) {
+            violated(kind, "budget", String.format("%s %s ran %d statements (budget %d)",
+                    kind.tag, scope.getName(), scope.getCount(), budget));
+        }
+        Map<String, Integer> repeated = scope.getRepeated(repeatThreshold);
+        if (!repeated.isEmpty()) {
+            violated(kind, "repeat", String.format("%s %s repeated the same statement (possible N+1): %s",
+                    kind.tag, scope.getName(), repeated.entrySet().stream()
+                            .map(entry -> entry.getValue() + "x " + entry.getKey())
+                            .collect(Collectors.joining(", "))));
+        }
+    }
+
+    private void violated(Kind kind, String reason, String message) {
+        Counter.builder("sns.statement.budget.exceeded")
+                .tag("scope", kind.tag)
+                .tag("reason", reason)
+                .register(Metrics.globalRegistry)
+                .increment();
+        if (action == Action.FAIL) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+}
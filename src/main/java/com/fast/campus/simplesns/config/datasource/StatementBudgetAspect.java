@@ -0,0 +1,35 @@
+package com.fast.campus.simplesns.config.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * 이 애플리케이션의 @Transactional 메서드마다 statement 를 센다 (Spring Data repository 의 메서드는 제외).
+ * 예외로 끝난 호출은 한도를 확인하지 않는다.
+ * 트랜잭션 advisor (LOWEST_PRECEDENCE) 바깥에서 돌아야 커밋할 때 flush 되는 insert/update 까지 센다.
+ */
+@Aspect
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class StatementBudgetAspect {
+
+    private final StatementBudget statementBudget;
+
+    @Around("within(com.fast.campus.simplesns..*) && (@annotation(org.springframework.transaction.annotation.Transactional)"
+            + " || @within(org.springframework.transaction.annotation.Transactional))")
+    public Object count(ProceedingJoinPoint joinPoint) throws Throwable {
+        StatementScope scope = StatementCounter.open(joinPoint.getSignature().toShortString());
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } finally {
+            scope.close();
+        }
+        statementBudget.check(scope, StatementBudget.Kind.TRANSACTION);
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package com.fast.campus.simplesns.config.datasource;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.regex.Pattern;
+
+/**
+ * 스레드마다 열려 있는 StatementScope 들. StatementCountingDataSource 가 statement 를 만들 때마다 열린 scope 모두에 기록한다.
+ * 바깥 scope (요청) 는 안쪽 scope (트랜잭션 메서드) 의 statement 까지 포함해서 센다.
+ * 열린 scope 가 없는 스레드 (스케줄러, Kafka consumer 등) 의 statement 는 세지 않는다.
+ */
+public final class StatementCounter {
+
+    // Statement.execute(sql) 처럼 값이 SQL 에 박혀 있는 경우 같은 모양끼리 묶이도록 literal 을 ? 로 바꾼다
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+
+    private static final ThreadLocal<Deque<StatementScope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private StatementCounter() {
+    }
+
+    public static StatementScope open(String name) {
+        StatementScope scope = new StatementScope(name);
+        SCOPES.get().push(scope);
+        return scope;
+    }
+
+    static void close(StatementScope scope) {
+        Deque<StatementScope> scopes = SCOPES.get();
+        scopes.remove(scope);
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+    }
+
+    static void recordPrepared(String sql) {
+        Deque<StatementScope> scopes = SCOPES.get();
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+            return;
+        }
+        for (StatementScope scope : scopes) {
+            scope.record(sql);
+        }
+    }
+
+    static void recordLiteral(String sql) {
+        if (!SCOPES.get().isEmpty()) {
+            recordPrepared(NUMBER_LITERAL.matcher(STRING_LITERAL.matcher(sql).replaceAll("?")).replaceAll("?"));
+        } else {
+            SCOPES.remove();
+        }
+    }
+}
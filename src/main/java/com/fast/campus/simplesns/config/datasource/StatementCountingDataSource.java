@@ -0,0 +1,108 @@
+package com.fast.campus.simplesns.config.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * 커넥션에서 만들어지는 statement 를 StatementCounter 에 기록하는 DataSource.
+ * PreparedStatement 는 prepare 할 때 한 번 센다. Hibernate 는 실행할 때마다 새로 prepare 하므로 실행 횟수와 같고,
+ * JDBC batch insert 는 addBatch 가 몇 번이든 한 번으로 센다.
+ * 감싼 bean 이 DataSource 를 대신하므로 종료할 때 close 를 안쪽 pool 에 넘긴다.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource implements Closeable {
+
+    private static final Set<String> PREPARE_METHODS = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws IOException {
+        DataSource target = obtainTargetDataSource();
+        if (target instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static Connection countingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        // proxy 끼리 비교할 때 target 과 proxy 를 비교하지 않도록
+        if ("equals".equals(method.getName()) && args != null && args.length == 1) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(method.getName()) && (args == null || args.length == 0)) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (PREPARE_METHODS.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+                StatementCounter.recordPrepared(sql);
+            }
+            Object result = StatementCountingDataSource.invoke(proxy, target, method, args);
+            if ("createStatement".equals(method.getName())) {
+                return Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                        new Class<?>[]{Statement.class}, new StatementHandler((Statement) result));
+            }
+            return result;
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+
+        StatementHandler(Statement target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (EXECUTE_METHODS.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+                StatementCounter.recordLiteral(sql);
+            }
+            return StatementCountingDataSource.invoke(proxy, target, method, args);
+        }
+    }
+}
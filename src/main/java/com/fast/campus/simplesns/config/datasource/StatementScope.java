@@ -0,0 +1,61 @@
+package com.fast.campus.simplesns.config.datasource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HTTP 요청 하나, @Transactional 메서드 하나처럼 statement 를 세는 구간. StatementCounter.open 으로 열고 close 로 닫는다.
+ * SQL 문자열별 실행 횟수도 남기므로 같은 SQL 이 파라미터만 바뀌어 반복된 경우 (N+1) 를 찾을 수 있다.
+ */
+public class StatementScope implements AutoCloseable {
+
+    private final String name;
+    private final Map<String, Integer> counts = new LinkedHashMap<>();
+    private int total;
+    private boolean closed;
+
+    StatementScope(String name) {
+        this.name = name;
+    }
+
+    void record(String sql) {
+        total++;
+        counts.merge(sql, 1, Integer::sum);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCount() {
+        return total;
+    }
+
+    public int getCount(String sql) {
+        return counts.getOrDefault(sql, 0);
+    }
+
+    // threshold 번 이상 실행된 SQL 과 횟수
+    public Map<String, Integer> getRepeated(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        counts.forEach((sql, count) -> {
+            if (count >= threshold) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            StatementCounter.close(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + total + " statements)";
+    }
+}
@@ -1,8 +1,12 @@
 package com.fast.campus.simplesns.config.filter;
 
 import com.fast.campus.simplesns.model.User;
+import com.fast.campus.simplesns.service.CredentialVersionCache;
 import com.fast.campus.simplesns.service.UserService;
-import com.fast.campus.simplesns.utils.JwtTokenUtils;
+import com.fast.campus.simplesns.utils.JwtClaims;
+import com.fast.campus.simplesns.utils.JwtTokenVerifier;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -16,39 +20,48 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @RequiredArgsConstructor
 public class JwtTokenFilter extends OncePerRequestFilter {
 
-    private final String key;
+    // 토큰 서명/만료 검증 시간 (검증 캐시 적중 포함). actuator 가 있으면 global registry 를 통해 노출된다
+    private static final Timer VERIFIED = verificationTimer("verified");
+    private static final Timer REJECTED = verificationTimer("rejected");
+    // EventSource 는 Authorization 헤더를 보낼 수 없어서 이 경로에 한해 ?token= 을 받는다
+    private static final String SUBSCRIBE_PATH = "/api/v1/users/alarm/subscribe";
+
+    private final JwtTokenVerifier jwtTokenVerifier;
     private final UserService userService;
+    private final CredentialVersionCache credentialVersionCache;
+
+    // true 이면 토큰 claim 만으로 principal 을 만들고, credential version 이 바뀐 경우에만 DB 를 조회
+    private final boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 
-        // get header
-        final String header = request.getHeader(HttpHeaders.AUTHORIZATION);
-
-        // 무기명으로 시작하지 않는다면
-        if (header == null || header.startsWith("Bearer ")) {
+        final String token = resolveToken(request);
+        if (token == null) {
             log.error("헤더를 가져오는 동안 에러가 발생 했습니다. 헤더가 null이거나 유효하지 않습니다.");
             filterChain.doFilter(request, response);
             return;
         }
 
         try {
-            final String token = header.split(" ")[1].trim();
 
-            if (JwtTokenUtils.isExpired(token, key)) {
-                log.error("키가 만료 되었습니다.");
+            // 서명/만료 검증은 한 번만 수행 (만료되었거나 유효하지 않으면 예외)
+            JwtClaims claims = verify(token);
+
+            User user = statelessPrincipal ? loadUserFromClaims(claims) : loadUser(claims.getUserName());
+            if (user == null) {
+                log.error("토큰의 credential version 이 최신이 아닙니다.");
                 filterChain.doFilter(request, response);
                 return;
             }
 
-            String userName = JwtTokenUtils.getUserName(token, key);
-            User user = userService.loadUserByUserName(userName);
-
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                     user, null, user.getAuthorities());
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -61,4 +74,63 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private JwtClaims verify(String token) {
+        long started = System.nanoTime();
+        try {
+            JwtClaims claims = jwtTokenVerifier.verify(token);
+            VERIFIED.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (RuntimeException e) {
+            REJECTED.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private static Timer verificationTimer(String result) {
+        return Timer.builder("sns.jwt.verification")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
+    private static String resolveToken(HttpServletRequest request) {
+        // get header
+        final String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        // 무기명으로 시작한다면
+        if (header != null && header.startsWith("Bearer ")) {
+            return header.split(" ")[1].trim();
+        }
+        if (SUBSCRIBE_PATH.equals(request.getRequestURI())) {
+            String token = request.getParameter("token");
+            return token == null || token.isBlank() ? null : token.trim();
+        }
+        return null;
+    }
+
+    private User loadUserFromClaims(JwtClaims claims) {
+        User principal = claims.toUser();
+        // userId 가 없는 예전 토큰은 이름으로 조회
+        if (principal == null) {
+            return loadUser(claims.getUserName());
+        }
+        if (credentialVersionCache.isCurrent(principal.getId(), principal.getCredentialVersion())) {
+            return principal;
+        }
+
+        // 처음 보는 유저이거나 version 이 달라진 경우에만 DB 에서 다시 확인
+        User user = loadUser(principal.getUsername());
+        if (!Objects.equals(user.getId(), principal.getId())
+                || !Objects.equals(user.getCredentialVersion(), principal.getCredentialVersion())) {
+            return null;
+        }
+        return principal;
+    }
+
+    private User loadUser(String userName) {
+        User user = userService.loadUserByUserName(userName);
+        credentialVersionCache.update(user.getId(), user.getCredentialVersion());
+        return user;
+    }
+}
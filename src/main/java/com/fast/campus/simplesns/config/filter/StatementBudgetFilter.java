@@ -0,0 +1,34 @@
+package com.fast.campus.simplesns.config.filter;
+
+import com.fast.campus.simplesns.config.datasource.StatementBudget;
+import com.fast.campus.simplesns.config.datasource.StatementCounter;
+import com.fast.campus.simplesns.config.datasource.StatementScope;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * HTTP 요청 하나에서 실행된 statement 를 센다. 인증 필터의 user 조회까지 포함되도록 security filter 보다 먼저 둔다.
+ * StreamingResponseBody 처럼 다른 스레드에서 쓰는 응답 본문의 statement 는 들어가지 않는다.
+ */
+@RequiredArgsConstructor
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    private final StatementBudget statementBudget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        StatementScope scope = StatementCounter.open(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+        }
+        statementBudget.check(scope, StatementBudget.Kind.REQUEST);
+    }
+}
@@ -0,0 +1,67 @@
+package com.fast.campus.simplesns.consumer;
+
+import com.fast.campus.simplesns.controller.response.AlarmResponse;
+import com.fast.campus.simplesns.model.event.AlarmEvent;
+import com.fast.campus.simplesns.service.AlarmEmitterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * poll 한 번에 받은 알람들을 JDBC batch insert 한 번으로 저장한다.
+ * 저장이 실패하면 예외를 던져 offset 을 커밋하지 않고 container 의 error handler 가 다시 시도한다.
+ * offset 커밋 전에 rebalance 가 일어나면 같은 레코드가 다시 오므로, event_id 가 이미 있는 알람은 건너뛴다
+ * (동시에 두 consumer 가 넣으면 unique 제약에 걸린 batch 가 다시 시도되면서 건너뛴다).
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class AlarmConsumer {
+
+    // ON CONFLICT DO NOTHING 은 H2 에 없으므로 NOT EXISTS 로 같은 효과를 낸다
+    private static final String INSERT_SQL = "INSERT INTO \"alarm\" (event_id, user_id, alarm_type, from_user_id, target_id, registered_at) " +
+            "SELECT ?, ?, ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM \"alarm\" WHERE event_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AlarmEmitterRegistry alarmEmitterRegistry;
+
+    @KafkaListener(topics = "${sns.alarm.topic}", autoStartup = "${sns.alarm.consumer.auto-startup:true}")
+    public void consume(List<AlarmEvent> events) {
+        // 역직렬화에 실패한 레코드는 null 로 들어온다 (ErrorHandlingDeserializer)
+        List<Object[]> rows = events.stream()
+                .filter(Objects::nonNull)
+                .map(event -> new Object[]{
+                        event.getEventId(),
+                        event.getReceiverUserId(),
+                        event.getAlarmType().name(),
+                        event.getArgs().getFromUserId(),
+                        event.getArgs().getTargetId(),
+                        event.getOccurredAt(),
+                        event.getEventId()})
+                .collect(Collectors.toList());
+        if (rows.size() < events.size()) {
+            log.error("읽을 수 없는 알람 {} 건을 건너뜁니다.", events.size() - rows.size());
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    // 저장은 consumer group 하나가 나눠서 하지만, SSE 연결은 어느 노드에 붙어있을지 모르므로
+    // 노드마다 별도 group 으로 모든 알람을 받아 자기 노드에 연결된 유저에게만 보낸다
+    @KafkaListener(topics = "${sns.alarm.topic}",
+            groupId = "#{'alarm-delivery-' + T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest",
+            autoStartup = "${sns.alarm.consumer.auto-startup:true}")
+    public void deliver(List<AlarmEvent> events) {
+        events.stream()
+                .filter(Objects::nonNull)
+                .forEach(event -> alarmEmitterRegistry.send(event.getReceiverUserId(), AlarmResponse.fromEvent(event)));
+    }
+}
@@ -0,0 +1,50 @@
+package com.fast.campus.simplesns.controller;
+
+import com.fast.campus.simplesns.controller.request.CommentCreateRequest;
+import com.fast.campus.simplesns.controller.response.CommentResponse;
+import com.fast.campus.simplesns.controller.response.Response;
+import com.fast.campus.simplesns.model.CommentCursor;
+import com.fast.campus.simplesns.model.CursorPage;
+import com.fast.campus.simplesns.service.CommentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RequestMapping("/api/v1/posts/{postId}/comments")
+@RequiredArgsConstructor
+@RestController
+public class CommentController {
+
+	private static final int MAX_COMMENT_SIZE = 100;
+
+	private final CommentService commentService;
+
+	@PostMapping
+	public Response<Void> create(@PathVariable Integer postId, @RequestBody CommentCreateRequest request, Authentication authentication) {
+		commentService.create(postId, authentication.getName(), request.getComment());
+		return Response.success();
+	}
+
+	@DeleteMapping("/{commentId}")
+	public Response<Void> delete(@PathVariable Integer postId, @PathVariable Integer commentId, Authentication authentication) {
+		commentService.delete(postId, commentId, authentication.getName());
+		return Response.success();
+	}
+
+	@GetMapping
+	public Response<Page<CommentResponse>> list(@PathVariable Integer postId, Pageable pageable, Authentication authentication) {
+		return Response.success(commentService.list(postId, pageable).map(CommentResponse::fromComment));
+	}
+
+	// ?mode=cursor : offset 과 count 쿼리 없이 마지막으로 받은 댓글 다음부터 읽는다
+	@GetMapping(params = "mode=cursor")
+	public Response<CursorPage<CommentResponse>> cursor(@PathVariable Integer postId,
+														@RequestParam(required = false) String after,
+														@RequestParam(defaultValue = "20") int size,
+														Authentication authentication) {
+		int limit = Math.max(1, Math.min(size, MAX_COMMENT_SIZE));
+		return Response.success(commentService.list(postId, CommentCursor.decode(after), limit).map(CommentResponse::fromComment));
+	}
+}
@@ -2,22 +2,62 @@ package com.fast.campus.simplesns.controller;
 
 import com.fast.campus.simplesns.controller.request.PostCreateRequest;
 import com.fast.campus.simplesns.controller.request.PostModifyRequest;
+import com.fast.campus.simplesns.controller.response.PostExportResponse;
 import com.fast.campus.simplesns.controller.response.PostResponse;
 import com.fast.campus.simplesns.controller.response.Response;
+import com.fast.campus.simplesns.controller.response.SliceResponse;
+import com.fast.campus.simplesns.model.CursorPage;
+import com.fast.campus.simplesns.model.ImportProgress;
 import com.fast.campus.simplesns.model.Post;
+import com.fast.campus.simplesns.model.PostCursor;
+import com.fast.campus.simplesns.model.PostFields;
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fast.campus.simplesns.model.SearchCursor;
+import com.fast.campus.simplesns.model.User;
+import com.fast.campus.simplesns.model.UserRole;
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.service.LikeService;
+import com.fast.campus.simplesns.service.PostImportService;
+import com.fast.campus.simplesns.service.PostSearchService;
 import com.fast.campus.simplesns.service.PostService;
+import com.fast.campus.simplesns.service.PostVersionTracker;
+import com.fast.campus.simplesns.service.TimelineService;
+import com.fast.campus.simplesns.utils.ClassUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@Slf4j
 @RequestMapping("/api/v1/posts")
 @RequiredArgsConstructor
 @RestController
 public class PostController {
 
+	private static final int MAX_FEED_SIZE = 100;
+
 	private final PostService postService;
+	private final TimelineService timelineService;
+	private final LikeService likeService;
+	private final PostImportService postImportService;
+	private final PostSearchService postSearchService;
+	private final PostVersionTracker postVersionTracker;
+	private final ObjectMapper objectMapper;
 
 	@PostMapping
 	public Response<Void> create(@RequestBody PostCreateRequest request, Authentication authentication) {
@@ -25,6 +65,28 @@ public class PostController {
 		return Response.success();
 	}
 
+	// ADMIN 전용. 한 줄에 {"userName", "title", "body"} 인 NDJSON 을 읽으면서 저장하고, chunk 가 커밋될 때마다 진행 상황을 한 줄씩 내려준다
+	@PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public void importPosts(HttpServletRequest request, HttpServletResponse response, Authentication authentication) throws IOException {
+		User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class)
+				.filter(it -> it.getUserRole() == UserRole.ADMIN)
+				.orElseThrow(() -> new SnsApplicationException(ErrorCode.INVALID_PERMISSION, String.format("%s has no permission to import posts", authentication.getName())));
+
+		response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+		OutputStream out = response.getOutputStream();
+		ImportProgress progress = postImportService.importPosts(request.getInputStream(), it -> writeLine(out, it));
+		log.info("{} 가 post 를 가져왔습니다. imported {} failed {} error {}", user.getUsername(), progress.getImported(), progress.getFailed(), progress.getError());
+	}
+
+	@GetMapping("/{postId}")
+	public Response<PostResponse> get(@PathVariable Integer postId, ServletWebRequest webRequest) {
+		PostSummary post = postService.get(postId);
+		if (notModified(webRequest, PostVersionTracker.postETag(post))) {
+			return null;
+		}
+		return Response.success(PostResponse.fromSummary(post));
+	}
+
 	@PutMapping("/{postId}")
 	public Response<PostResponse> modify(@PathVariable Integer postId, @RequestBody PostModifyRequest request, Authentication authentication) {
 		Post post = postService.modify(request.getTitle(), request.getBody(), authentication.getName(), postId);
@@ -37,13 +99,180 @@ public class PostController {
 		return Response.success();
 	}
 
+	// ?fields=title,user&excerpt=200 : 고른 필드와 본문 앞부분만 조회해서 내려준다 (id 는 항상 포함)
 	@GetMapping
-	public Response<Page<PostResponse>> list(Pageable pageable, Authentication authentication) {
-		return Response.success(postService.list(pageable).map(PostResponse::fromPost));
+	public Response<? extends Page<?>> list(Pageable pageable, @RequestParam(required = false) String fields,
+											@RequestParam(required = false) Integer excerpt,
+											Authentication authentication, ServletWebRequest webRequest) {
+		PostFields selection = PostFields.of(fields, excerpt);
+		if (notModified(webRequest, postVersionTracker.listETag(webRequest.getRequest()))) {
+			return null;
+		}
+		if (selection != null) {
+			return Response.success(postService.list(pageable, selection));
+		}
+		return Response.success(postService.list(pageable).map(PostResponse::fromSummary));
+	}
+
+	// ?mode=slice : totalPages 대신 hasNext 만 내려주고 count 쿼리를 생략
+	@GetMapping(params = "mode=slice")
+	public Response<? extends SliceResponse<?>> listSlice(Pageable pageable, @RequestParam(required = false) String fields,
+														  @RequestParam(required = false) Integer excerpt,
+														  Authentication authentication, ServletWebRequest webRequest) {
+		PostFields selection = PostFields.of(fields, excerpt);
+		if (notModified(webRequest, postVersionTracker.listETag(webRequest.getRequest()))) {
+			return null;
+		}
+		if (selection != null) {
+			return Response.success(SliceResponse.fromSlice(postService.listSlice(pageable, selection)));
+		}
+		return Response.success(SliceResponse.fromSlice(postService.listSlice(pageable).map(PostResponse::fromSummary)));
 	}
 
 	@GetMapping("/my")
-	public Response<Page<PostResponse>> my(Pageable pageable, Authentication authentication) {
-		return Response.success(postService.my(authentication.getName(), pageable).map(PostResponse::fromPost));
+	public Response<? extends Page<?>> my(Pageable pageable, @RequestParam(required = false) String fields,
+										  @RequestParam(required = false) Integer excerpt,
+										  Authentication authentication, ServletWebRequest webRequest) {
+		PostFields selection = PostFields.of(fields, excerpt);
+		if (notModified(webRequest, myListETag(authentication, webRequest))) {
+			return null;
+		}
+		if (selection != null) {
+			return Response.success(postService.my(authentication.getName(), pageable, selection));
+		}
+		return Response.success(postService.my(authentication.getName(), pageable).map(PostResponse::fromSummary));
+	}
+
+	@GetMapping(value = "/my", params = "mode=slice")
+	public Response<? extends SliceResponse<?>> mySlice(Pageable pageable, @RequestParam(required = false) String fields,
+														@RequestParam(required = false) Integer excerpt,
+														Authentication authentication, ServletWebRequest webRequest) {
+		PostFields selection = PostFields.of(fields, excerpt);
+		if (notModified(webRequest, myListETag(authentication, webRequest))) {
+			return null;
+		}
+		if (selection != null) {
+			return Response.success(SliceResponse.fromSlice(postService.mySlice(authentication.getName(), pageable, selection)));
+		}
+		return Response.success(SliceResponse.fromSlice(postService.mySlice(authentication.getName(), pageable).map(PostResponse::fromSummary)));
+	}
+
+	// 내 post 전체를 id 순 NDJSON 으로 내려준다. DB 커서에서 읽은 만큼 바로 쓰므로 post 수와 관계없이 메모리가 일정하다
+	@GetMapping(value = "/my/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> export(Authentication authentication) {
+		String userName = authentication.getName();
+		// 한 줄마다 flush 하지 않고 응답 버퍼가 찰 때마다 내보낸다
+		StreamingResponseBody body = out -> postService.export(userName, post -> {
+			try {
+				out.write(objectMapper.writeValueAsBytes(PostExportResponse.fromExport(post)));
+				out.write('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"posts.ndjson\"")
+				.body(body);
+	}
+
+	@GetMapping("/feed")
+	public Response<? extends CursorPage<?>> feed(@RequestParam(required = false) String after,
+												  @RequestParam(defaultValue = "20") int size,
+												  @RequestParam(required = false) String fields,
+												  @RequestParam(required = false) Integer excerpt,
+												  Authentication authentication,
+												  ServletWebRequest webRequest) {
+		PostFields selection = PostFields.of(fields, excerpt);
+		if (notModified(webRequest, postVersionTracker.listETag(webRequest.getRequest()))) {
+			return null;
+		}
+		int limit = Math.max(1, Math.min(size, MAX_FEED_SIZE));
+		if (selection != null) {
+			return Response.success(postService.feed(PostCursor.decode(after), limit, selection));
+		}
+		return Response.success(postService.feed(PostCursor.decode(after), limit).map(PostResponse::fromSummary));
+	}
+
+	// 제목/본문 검색. 관련도 순이고 커서는 마지막으로 받은 결과의 (점수, post id)
+	@GetMapping("/search")
+	public Response<CursorPage<PostResponse>> search(@RequestParam String q,
+													 @RequestParam(required = false) String after,
+													 @RequestParam(defaultValue = "20") int size,
+													 Authentication authentication) {
+		int limit = Math.max(1, Math.min(size, MAX_FEED_SIZE));
+		return Response.success(postSearchService.search(q, SearchCursor.decode(after), limit).map(PostResponse::fromSummary));
+	}
+
+	// 팔로우한 유저들의 post 로 만든 홈 타임라인. 커서는 마지막으로 받은 post id
+	@GetMapping("/home")
+	public Response<CursorPage<PostResponse>> home(@RequestParam(required = false) String after,
+												   @RequestParam(defaultValue = "20") int size,
+												   Authentication authentication) {
+		int limit = Math.max(1, Math.min(size, MAX_FEED_SIZE));
+		return Response.success(timelineService.home(authentication.getName(), parsePostId(after), limit).map(PostResponse::fromSummary));
+	}
+
+	@PostMapping("/{postId}/likes")
+	public Response<Void> like(@PathVariable Integer postId, Authentication authentication) {
+		likeService.like(postId, userId(authentication));
+		return Response.success();
+	}
+
+	@DeleteMapping("/{postId}/likes")
+	public Response<Void> unlike(@PathVariable Integer postId, Authentication authentication) {
+		likeService.unlike(postId, userId(authentication));
+		return Response.success();
+	}
+
+	@GetMapping("/{postId}/likes")
+	public Response<Long> likeCount(@PathVariable Integer postId, Authentication authentication) {
+		return Response.success(likeService.count(postId));
+	}
+
+	// JwtTokenFilter 가 넣어둔 principal 에서 userId 를 꺼낸다 (좋아요 한 번마다 user 를 조회하지 않도록)
+	private static Integer userId(Authentication authentication) {
+		return ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class)
+				.map(User::getId)
+				.orElseThrow(() -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
+	}
+
+	// 내 post 목록은 유저마다 다르므로 유저별 ETag 를 쓰고, 공유 캐시가 다른 유저에게 내려주지 않도록 Authorization 으로 나눈다
+	private String myListETag(Authentication authentication, ServletWebRequest webRequest) {
+		webRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+		return postVersionTracker.listETag(webRequest.getRequest(), authentication.getName());
+	}
+
+	// If-None-Match 가 ETag 와 같으면 304 로 응답하고 true. 조회와 직렬화를 건너뛴다
+	// 같은 URL 이 Accept 에 따라 JSON/Smile/CBOR 로 나가므로 캐시가 형식별로 나눠 저장하도록 Vary: Accept 를 붙인다
+	private boolean notModified(ServletWebRequest webRequest, String etag) {
+		webRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+		if (etag == null) {
+			return false;
+		}
+		boolean notModified = webRequest.checkNotModified(etag);
+		postVersionTracker.record(notModified);
+		return notModified;
+	}
+
+	private void writeLine(OutputStream out, Object value) {
+		try {
+			out.write(objectMapper.writeValueAsBytes(value));
+			out.write('\n');
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static Integer parsePostId(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			return Integer.valueOf(cursor);
+		} catch (NumberFormatException e) {
+			throw new SnsApplicationException(ErrorCode.INVALID_CURSOR, String.format("%s is not a valid cursor", cursor));
+		}
 	}
-}
\ No newline at end of file
+}
@@ -3,17 +3,30 @@ package com.fast.campus.simplesns.controller;
 
 import com.fast.campus.simplesns.controller.request.UserJoinRequest;
 import com.fast.campus.simplesns.controller.request.UserLoginRequest;
+import com.fast.campus.simplesns.controller.request.UserPasswordChangeRequest;
+import com.fast.campus.simplesns.controller.response.AlarmResponse;
 import com.fast.campus.simplesns.controller.response.Response;
 import com.fast.campus.simplesns.controller.response.UserJoinResponse;
 import com.fast.campus.simplesns.controller.response.UserLoginResponse;
 import com.fast.campus.simplesns.model.User;
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.service.AlarmEmitterRegistry;
+import com.fast.campus.simplesns.service.AlarmService;
+import com.fast.campus.simplesns.service.FollowService;
+import com.fast.campus.simplesns.service.LoginAttemptLimiter;
 import com.fast.campus.simplesns.service.UserService;
+import com.fast.campus.simplesns.utils.ClassUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.servlet.http.HttpServletRequest;
 
 @Slf4j
 @RestController
@@ -22,6 +35,10 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserController {
 
     private final UserService userService;
+    private final FollowService followService;
+    private final AlarmService alarmService;
+    private final AlarmEmitterRegistry alarmEmitterRegistry;
+    private final LoginAttemptLimiter loginAttemptLimiter;
 
     @PostMapping("/join")
     public Response<UserJoinResponse> join(@RequestBody UserJoinRequest request) {
@@ -30,8 +47,60 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public Response<UserLoginResponse> login(@RequestBody UserLoginRequest request) {
+    public Response<UserLoginResponse> login(@RequestBody UserLoginRequest request, HttpServletRequest servletRequest) {
+        // 이름이 없으면 시도 횟수 key 를 만들 수 없다 (caffeine 은 null key 에서 NPE, redis 는 모두 "null" 한 key 로 모인다)
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new SnsApplicationException(ErrorCode.INVALID_USER_NAME, "user name is required");
+        }
+        // user 조회와 bcrypt 전에 시도 횟수부터 확인
+        if (!loginAttemptLimiter.tryAcquire(request.getName(), clientIp(servletRequest))) {
+            throw new SnsApplicationException(ErrorCode.TOO_MANY_REQUESTS, String.format("too many login attempts for %s", request.getName()));
+        }
         String token = userService.login(request.getName(), request.getPassword());
         return Response.success(new UserLoginResponse(token));
     }
+
+    // 비밀번호가 바뀌면 이전 토큰은 모든 노드에서 거부되므로 새 토큰을 돌려준다
+    @PutMapping("/password")
+    public Response<UserLoginResponse> changePassword(@RequestBody UserPasswordChangeRequest request, Authentication authentication) {
+        String token = userService.changePassword(authentication.getName(), request.getPassword(), request.getNewPassword());
+        return Response.success(new UserLoginResponse(token));
+    }
+
+    @DeleteMapping("/me")
+    public Response<Void> delete(Authentication authentication) {
+        userService.delete(authentication.getName());
+        return Response.success();
+    }
+
+    @PostMapping("/{userName}/follow")
+    public Response<Void> follow(@PathVariable String userName, Authentication authentication) {
+        followService.follow(authentication.getName(), userName);
+        return Response.success();
+    }
+
+    @DeleteMapping("/{userName}/follow")
+    public Response<Void> unfollow(@PathVariable String userName, Authentication authentication) {
+        followService.unfollow(authentication.getName(), userName);
+        return Response.success();
+    }
+
+    @GetMapping("/alarm")
+    public Response<Page<AlarmResponse>> alarm(Pageable pageable, Authentication authentication) {
+        return Response.success(alarmService.alarmList(authentication.getName(), pageable));
+    }
+
+    // EventSource 는 헤더를 넣을 수 없으므로 ?token= 으로 인증한다 (JwtTokenFilter 참고)
+    @GetMapping(value = "/alarm/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(Authentication authentication) {
+        User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class)
+                .orElseThrow(() -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
+        return alarmEmitterRegistry.subscribe(user.getId());
+    }
+
+    // X-Forwarded-For 는 Tomcat RemoteIpValve 가 신뢰하는 프록시 (server.tomcat.remoteip.internal-proxies) 에서 온 경우에만 반영한다.
+    // 헤더를 직접 읽으면 client 가 임의의 값을 넣어 ip 제한을 피할 수 있다
+    private static String clientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
 }
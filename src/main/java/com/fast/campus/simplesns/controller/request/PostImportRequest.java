@@ -0,0 +1,16 @@
+package com.fast.campus.simplesns.controller.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// bulk import NDJSON 의 한 줄
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostImportRequest {
+
+	private String userName;
+	private String title;
+	private String body;
+}
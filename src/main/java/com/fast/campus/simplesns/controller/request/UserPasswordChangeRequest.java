@@ -0,0 +1,12 @@
+package com.fast.campus.simplesns.controller.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserPasswordChangeRequest {
+
+    private String password;
+    private String newPassword;
+}
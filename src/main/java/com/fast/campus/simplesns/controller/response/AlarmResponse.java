@@ -0,0 +1,41 @@
+package com.fast.campus.simplesns.controller.response;
+
+import com.fast.campus.simplesns.model.AlarmArgs;
+import com.fast.campus.simplesns.model.AlarmType;
+import com.fast.campus.simplesns.model.entity.AlarmEntity;
+import com.fast.campus.simplesns.model.event.AlarmEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.Timestamp;
+
+@Getter
+@AllArgsConstructor
+public class AlarmResponse {
+    private Integer id;
+    private AlarmType alarmType;
+    private AlarmArgs args;
+    private String text;
+    private Timestamp registeredAt;
+
+    public static AlarmResponse fromEntity(AlarmEntity entity) {
+        return new AlarmResponse(
+                entity.getId(),
+                entity.getAlarmType(),
+                entity.getArgs(),
+                entity.getAlarmType().getAlarmText(),
+                entity.getRegisteredAt()
+        );
+    }
+
+    // 아직 저장 전인 알람을 SSE 로 보낼 때 사용 (id 없음)
+    public static AlarmResponse fromEvent(AlarmEvent event) {
+        return new AlarmResponse(
+                null,
+                event.getAlarmType(),
+                event.getArgs(),
+                event.getAlarmType().getAlarmText(),
+                event.getOccurredAt()
+        );
+    }
+}
@@ -0,0 +1,31 @@
+package com.fast.campus.simplesns.controller.response;
+
+import com.fast.campus.simplesns.model.Comment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.Timestamp;
+
+@Getter
+@AllArgsConstructor
+public class CommentResponse {
+	private Integer id;
+	private String comment;
+	private Integer postId;
+	private Integer userId;
+	private String userName;
+	private Timestamp registeredAt;
+	private Timestamp updatedAt;
+
+	public static CommentResponse fromComment(Comment comment) {
+		return new CommentResponse(
+				comment.getId(),
+				comment.getComment(),
+				comment.getPostId(),
+				comment.getUserId(),
+				comment.getUserName(),
+				comment.getRegisteredAt(),
+				comment.getUpdatedAt()
+		);
+	}
+}
@@ -0,0 +1,28 @@
+package com.fast.campus.simplesns.controller.response;
+
+import com.fast.campus.simplesns.model.PostExport;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.Timestamp;
+
+// 내 post 내보내기 NDJSON 의 한 줄
+@Getter
+@AllArgsConstructor
+public class PostExportResponse {
+	private Integer id;
+	private String title;
+	private String body;
+	private Timestamp registeredAt;
+	private Timestamp updatedAt;
+
+	public static PostExportResponse fromExport(PostExport post) {
+		return new PostExportResponse(
+				post.getId(),
+				post.getTitle(),
+				post.getBody(),
+				post.getRegisteredAt(),
+				post.getUpdatedAt()
+		);
+	}
+}
@@ -1,13 +1,16 @@
 package com.fast.campus.simplesns.controller.response;
 
 import com.fast.campus.simplesns.model.Post;
-import com.fast.campus.simplesns.model.User;
+import com.fast.campus.simplesns.model.PostSummary;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.sql.Timestamp;
 
 @Getter
+@NoArgsConstructor
 @AllArgsConstructor
 public
 class PostResponse {
@@ -17,6 +20,12 @@ class PostResponse {
 	private UserResponse user;
 	private Timestamp registeredAt;
 	private Timestamp updatedAt;
+	// LikeService 의 메모리 카운터에서 채운다
+	@Setter
+	private long likeCount;
+	// CommentService 가 group by 쿼리 한 번으로 채운다
+	@Setter
+	private long commentCount;
 
 	public static PostResponse fromPost(Post post) {
 		return new PostResponse(
@@ -25,7 +34,22 @@ class PostResponse {
 				post.getBody(),
 				UserResponse.fromUser(post.getUser()),
 				post.getRegisteredAt(),
-				post.getUpdatedAt()
+				post.getUpdatedAt(),
+				0L,
+				0L
+		);
+	}
+
+	public static PostResponse fromSummary(PostSummary post) {
+		return new PostResponse(
+				post.getId(),
+				post.getTitle(),
+				post.getBody(),
+				new UserResponse(post.getUserId(), post.getUserName()),
+				post.getRegisteredAt(),
+				post.getUpdatedAt(),
+				post.getLikeCount(),
+				post.getCommentCount()
 		);
 	}
 }
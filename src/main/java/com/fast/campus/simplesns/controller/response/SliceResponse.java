@@ -0,0 +1,28 @@
+package com.fast.campus.simplesns.controller.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * count 쿼리 없이 size + 1 개를 조회해 다음 페이지 여부만 알려주는 목록 응답 (무한 스크롤용)
+ */
+@Getter
+@AllArgsConstructor
+public class SliceResponse<T> {
+	private List<T> content;
+	private int page;
+	private int size;
+	private boolean hasNext;
+
+	public static <T> SliceResponse<T> fromSlice(Slice<T> slice) {
+		return new SliceResponse<>(
+				slice.getContent(),
+				slice.getNumber(),
+				slice.getSize(),
+				slice.hasNext()
+		);
+	}
+}
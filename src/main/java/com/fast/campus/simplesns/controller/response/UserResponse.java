@@ -4,8 +4,10 @@ import com.fast.campus.simplesns.model.User;
 import com.fast.campus.simplesns.model.UserRole;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 @Getter
+@NoArgsConstructor
 @AllArgsConstructor
 public class UserResponse {
     private Integer id;
@@ -9,12 +9,24 @@ import org.springframework.http.HttpStatus;
 public enum ErrorCode {
 
     DUPLICATED_USER_NAME(HttpStatus.CONFLICT, "User name is duplicated"),
+    INVALID_USER_NAME(HttpStatus.BAD_REQUEST, "User name is invalid"),
     USER_NOT_FOUND(HttpStatus.NOT_FOUND, "User not founded"),
     INVALID_PASSWORD(HttpStatus.UNAUTHORIZED, "Password is invalid"),
     INVALID_TOKEN(HttpStatus.UNAUTHORIZED, "Token is invalid"),
     POST_NOT_FOUND(HttpStatus.NOT_FOUND, "Post not founded"),
     INVALID_PERMISSION(HttpStatus.UNAUTHORIZED, "Permission is invalid"),
+    INVALID_CURSOR(HttpStatus.BAD_REQUEST, "Cursor is invalid"),
+    INVALID_SEARCH_QUERY(HttpStatus.BAD_REQUEST, "Search query is invalid"),
+    INVALID_FIELDS(HttpStatus.BAD_REQUEST, "Fields are invalid"),
+    INVALID_FOLLOW(HttpStatus.BAD_REQUEST, "Cannot follow yourself"),
+    ALREADY_FOLLOWED(HttpStatus.CONFLICT, "Already followed"),
+    FOLLOW_NOT_FOUND(HttpStatus.NOT_FOUND, "Follow not founded"),
+    ALREADY_LIKED(HttpStatus.CONFLICT, "Already liked"),
+    LIKE_NOT_FOUND(HttpStatus.NOT_FOUND, "Like not founded"),
+    COMMENT_NOT_FOUND(HttpStatus.NOT_FOUND, "Comment not founded"),
+    TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "Too many requests"),
     INTERNAL_SERVER_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error"),
+    SERVICE_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "Service unavailable"),
     ;
 
     private final HttpStatus status;
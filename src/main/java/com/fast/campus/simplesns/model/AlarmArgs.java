@@ -0,0 +1,22 @@
+package com.fast.campus.simplesns.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+// 알람을 만든 유저와 대상 (post id 등)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class AlarmArgs {
+
+    @Column(name = "from_user_id")
+    private Integer fromUserId;
+
+    @Column(name = "target_id")
+    private Integer targetId;
+}
@@ -0,0 +1,37 @@
+package com.fast.campus.simplesns.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * 댓글 목록 조회용 projection. 댓글과 작성자 이름을 한 번에 조회해 엔티티를 만들지 않는다.
+ * 응답으로는 컨트롤러가 CommentResponse 로 바꿔 내려준다.
+ */
+@Getter
+@AllArgsConstructor
+public class Comment {
+
+	private Integer id;
+	private String comment;
+	private Integer postId;
+	private Integer userId;
+	private String userName;
+	private Timestamp registeredAt;
+	private Timestamp updatedAt;
+
+	// JPQL constructor expression 용 (hibernate 는 timestamp 컬럼의 타입을 java.util.Date 로 보고 생성자를 찾는다)
+	public Comment(Integer id, String comment, Integer postId, Integer userId, String userName,
+				   Date registeredAt, Date updatedAt) {
+		this(id, comment, postId, userId, userName, toTimestamp(registeredAt), toTimestamp(updatedAt));
+	}
+
+	private static Timestamp toTimestamp(Date date) {
+		if (date == null || date instanceof Timestamp) {
+			return (Timestamp) date;
+		}
+		return new Timestamp(date.getTime());
+	}
+}
@@ -0,0 +1,46 @@
+package com.fast.campus.simplesns.model;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * 댓글 keyset 페이지네이션 커서. 마지막으로 내려준 댓글의 (registered_at, id) 를 담는다.
+ * 클라이언트에는 base64url 문자열로만 노출한다.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentCursor {
+
+	// 첫 페이지는 가장 오래된 댓글부터
+	public static final CommentCursor FIRST = new CommentCursor(new Timestamp(0), 0);
+
+	private Timestamp registeredAt;
+	private Integer id;
+
+	public String encode() {
+		Instant instant = registeredAt.toInstant();
+		String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// 값이 없으면 첫 페이지
+	public static CommentCursor decode(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return FIRST;
+		}
+		try {
+			String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+			Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+			return new CommentCursor(Timestamp.from(instant), Integer.valueOf(parts[2]));
+		} catch (RuntimeException e) {
+			throw new SnsApplicationException(ErrorCode.INVALID_CURSOR, String.format("%s is not a valid cursor", cursor));
+		}
+	}
+}
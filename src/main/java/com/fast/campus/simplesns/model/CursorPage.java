@@ -0,0 +1,38 @@
+package com.fast.campus.simplesns.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * 커서 기반 목록의 한 페이지. 전체 개수를 세지 않으므로 totalPages 대신 다음 페이지 커서만 가진다.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+	private List<T> content;
+	private String nextCursor;
+	private boolean hasNext;
+
+	public <U> CursorPage<U> map(Function<? super T, ? extends U> converter) {
+		return new CursorPage<>(content.stream().map(converter).collect(Collectors.toList()), nextCursor, hasNext);
+	}
+
+	// 커서는 그대로 두고 내용만 거른다 (조회 사이에 삭제된 항목 등)
+	public CursorPage<T> filter(Predicate<? super T> predicate) {
+		return new CursorPage<>(content.stream().filter(predicate).collect(Collectors.toList()), nextCursor, hasNext);
+	}
+
+	// size + 1 개를 조회한 결과로 다음 페이지 존재 여부와 커서를 만든다
+	public static <T> CursorPage<T> of(List<T> fetched, int size, Function<T, String> cursorOf) {
+		boolean hasNext = fetched.size() > size;
+		List<T> content = hasNext ? fetched.subList(0, size) : fetched;
+		String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null;
+		return new CursorPage<>(content, nextCursor, hasNext);
+	}
+}
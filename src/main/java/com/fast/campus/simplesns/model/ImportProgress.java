@@ -0,0 +1,38 @@
+package com.fast.campus.simplesns.model;
+
+import lombok.Getter;
+
+// bulk import 진행 상황. chunk 가 커밋될 때마다 한 줄씩 응답으로 내려간다
+@Getter
+public class ImportProgress {
+
+	// 읽은 줄 수 (빈 줄 제외)
+	private long lines;
+	// 여기까지의 줄은 커밋되었다. 중간에 실패하면 다음 줄부터 다시 올리면 된다
+	private long committedLines;
+	private long imported;
+	private long failed;
+	// 형식이 잘못되었거나 작성자가 없는 마지막 줄 번호
+	private Long lastFailedLine;
+	private boolean done;
+	private String error;
+
+	public void read() {
+		lines++;
+	}
+
+	public void reject() {
+		failed++;
+		lastFailedLine = lines;
+	}
+
+	public void commit(int count) {
+		imported += count;
+		committedLines = lines;
+	}
+
+	public void finish(String error) {
+		this.done = true;
+		this.error = error;
+	}
+}
@@ -0,0 +1,9 @@
+package com.fast.campus.simplesns.model;
+
+// post 별 group by count 조회 결과 (interface projection)
+public interface PostCount {
+
+    Integer getPostId();
+
+    Long getCount();
+}
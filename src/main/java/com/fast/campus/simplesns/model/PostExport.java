@@ -0,0 +1,34 @@
+package com.fast.campus.simplesns.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * 내 post 내보내기용 projection. 작성자는 요청한 본인이라 post 컬럼만 읽는다.
+ * 응답으로는 컨트롤러가 PostExportResponse 로 바꿔 한 줄씩 내려준다.
+ */
+@Getter
+@AllArgsConstructor
+public class PostExport {
+
+	private Integer id;
+	private String title;
+	private String body;
+	private Timestamp registeredAt;
+	private Timestamp updatedAt;
+
+	// JPQL constructor expression 용 (hibernate 는 timestamp 컬럼의 타입을 java.util.Date 로 보고 생성자를 찾는다)
+	public PostExport(Integer id, String title, String body, Date registeredAt, Date updatedAt) {
+		this(id, title, body, toTimestamp(registeredAt), toTimestamp(updatedAt));
+	}
+
+	private static Timestamp toTimestamp(Date date) {
+		if (date == null || date instanceof Timestamp) {
+			return (Timestamp) date;
+		}
+		return new Timestamp(date.getTime());
+	}
+}
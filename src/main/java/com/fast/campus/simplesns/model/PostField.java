@@ -0,0 +1,28 @@
+package com.fast.campus.simplesns.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+// 목록 응답에서 고를 수 있는 post 필드. key 는 PostResponse 의 JSON 이름과 같다
+@Getter
+@RequiredArgsConstructor
+public enum PostField {
+	ID("id"),
+	TITLE("title"),
+	BODY("body"),
+	USER("user"),
+	REGISTERED_AT("registeredAt"),
+	UPDATED_AT("updatedAt"),
+	LIKE_COUNT("likeCount"),
+	COMMENT_COUNT("commentCount"),
+	;
+
+	private final String key;
+
+	public static Optional<PostField> fromKey(String key) {
+		return Arrays.stream(values()).filter(field -> field.key.equals(key)).findFirst();
+	}
+}
@@ -0,0 +1,48 @@
+package com.fast.campus.simplesns.model;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 목록 조회의 ?fields=title,user&excerpt=200 옵션. 고른 필드만 select 하고 본문은 앞 excerpt 글자만 DB 에서 잘라 온다.
+ * id 는 항상 포함한다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PostFields {
+
+	private static final int MAX_EXCERPT = 10_000;
+
+	private final Set<PostField> fields;
+	// null 이면 본문 전체
+	private final Integer excerpt;
+
+	// 둘 다 없으면 null (기존 전체 응답)
+	public static PostFields of(String fields, Integer excerpt) {
+		if (fields == null && excerpt == null) {
+			return null;
+		}
+		if (excerpt != null && (excerpt < 1 || excerpt > MAX_EXCERPT)) {
+			throw new SnsApplicationException(ErrorCode.INVALID_FIELDS, String.format("excerpt %s is out of range", excerpt));
+		}
+		if (fields == null || fields.isBlank()) {
+			return new PostFields(EnumSet.allOf(PostField.class), excerpt);
+		}
+		Set<PostField> selected = EnumSet.of(PostField.ID);
+		for (String key : fields.split(",")) {
+			selected.add(PostField.fromKey(key.trim()).orElseThrow(() ->
+					new SnsApplicationException(ErrorCode.INVALID_FIELDS, String.format("%s is not a post field", key))));
+		}
+		return new PostFields(selected, excerpt);
+	}
+
+	public boolean has(PostField field) {
+		return fields.contains(field);
+	}
+}
@@ -0,0 +1,46 @@
+package com.fast.campus.simplesns.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * 목록/단건 조회용 post projection. post 와 작성자 컬럼을 한 번에 조회해 엔티티나 User 모델을 만들지 않는다.
+ * 공유 캐시 (PostCacheRepository) 에 JSON 으로 저장되고, 응답으로는 컨트롤러가 PostResponse 로 바꿔 내려준다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSummary {
+
+	private Integer id;
+	private String title;
+	private String body;
+	private Integer userId;
+	private String userName;
+	private Timestamp registeredAt;
+	private Timestamp updatedAt;
+	// LikeService 의 메모리 카운터에서 채운다
+	@Setter
+	private long likeCount;
+	// CommentService 가 group by 쿼리 한 번으로 채운다
+	@Setter
+	private long commentCount;
+
+	// JPQL constructor expression 용 (hibernate 는 timestamp 컬럼의 타입을 java.util.Date 로 보고 생성자를 찾는다)
+	public PostSummary(Integer id, String title, String body, Integer userId, String userName,
+					   Date registeredAt, Date updatedAt) {
+		this(id, title, body, userId, userName, toTimestamp(registeredAt), toTimestamp(updatedAt), 0L, 0L);
+	}
+
+	private static Timestamp toTimestamp(Date date) {
+		if (date == null || date instanceof Timestamp) {
+			return (Timestamp) date;
+		}
+		return new Timestamp(date.getTime());
+	}
+}
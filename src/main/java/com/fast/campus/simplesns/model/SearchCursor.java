@@ -0,0 +1,39 @@
+package com.fast.campus.simplesns.model;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 검색 결과 keyset 페이지네이션 커서. 마지막으로 내려준 결과의 (score, post id) 를 담는다.
+ * score 는 비트 그대로 옮겨서 다음 페이지에서 같은 값으로 비교되게 한다.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchCursor {
+
+	private float score;
+	private Integer postId;
+
+	public String encode() {
+		String raw = Float.floatToIntBits(score) + ":" + postId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// 값이 없으면 첫 페이지
+	public static SearchCursor decode(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+			return new SearchCursor(Float.intBitsToFloat(Integer.parseInt(parts[0])), Integer.valueOf(parts[1]));
+		} catch (RuntimeException e) {
+			throw new SnsApplicationException(ErrorCode.INVALID_CURSOR, String.format("%s is not a valid cursor", cursor));
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package com.fast.campus.simplesns.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 검색 결과 한 건. 점수가 높은 순, 같으면 post id 가 큰 순으로 정렬된다
+@Getter
+@AllArgsConstructor
+public class SearchHit {
+
+	private Integer postId;
+	private float score;
+
+	public SearchCursor toCursor() {
+		return new SearchCursor(score, postId);
+	}
+}
@@ -25,6 +25,7 @@ public class User implements UserDetails {
     private String username;
     private String password;
     private UserRole userRole;
+    private Integer credentialVersion;
     private Timestamp registeredAt;
     private Timestamp updatedAt;
     private Timestamp deletedAt;
@@ -36,12 +37,27 @@ public class User implements UserDetails {
                 entity.getUserName(),
                 entity.getPassword(),
                 entity.getRole(),
+                entity.getCredentialVersion(),
                 entity.getRegisteredAt(),
                 entity.getUpdatedAt(),
                 entity.getDeletedAt()
         );
     }
 
+    // 토큰 claim -> dto 변환 메소드 (DB 조회 없이 principal 생성)
+    public static User fromClaims(Integer id, String username, UserRole userRole, Integer credentialVersion) {
+        return new User(
+                id,
+                username,
+                null,
+                userRole,
+                credentialVersion,
+                null,
+                null,
+                null
+        );
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority(this.getUserRole().toString()));
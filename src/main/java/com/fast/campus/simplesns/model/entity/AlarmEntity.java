@@ -0,0 +1,67 @@
+package com.fast.campus.simplesns.model.entity;
+
+import com.fast.campus.simplesns.model.AlarmArgs;
+import com.fast.campus.simplesns.model.AlarmType;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.Where;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+// row 는 AlarmConsumer 가 JDBC batch 로 쓰고, 엔티티는 스키마와 조회용으로 사용
+// event_id 는 kafka 이벤트 id. 같은 이벤트가 다시 전달되어도 한 row 만 남는다
+@Table(name = "\"alarm\"", indexes = {
+        @Index(name = "alarm_user_id_idx", columnList = "user_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "alarm_event_id_key", columnNames = {"event_id"})
+})
+@Getter
+@Setter
+@SQLDelete(sql = "UPDATE \"alarm\" SET deleted_at = NOW() where id=?")
+@Where(clause = "deleted_at is NULL")
+@Entity
+public class AlarmEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "event_id", length = 36)
+    private String eventId;
+
+    // 알람을 받는 유저
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private UserEntity user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alarm_type")
+    private AlarmType alarmType;
+
+    @Embedded
+    private AlarmArgs args;
+
+    @Column(name = "registered_at")
+    private Timestamp registeredAt;
+
+    @Column(name = "updated_at")
+    private Timestamp updatedAt;
+
+    @Column(name = "deleted_at")
+    private Timestamp deletedAt;
+
+    // 저장 되기전에 현재 시각 저장
+    @PrePersist
+    void registeredAt() {
+        this.registeredAt = Timestamp.from(Instant.now());
+    }
+
+    // 업데이트 되기 전에 현재 시각 저장
+    @PreUpdate
+    void updatedAt() {
+        this.updatedAt = Timestamp.from(Instant.now());
+    }
+}
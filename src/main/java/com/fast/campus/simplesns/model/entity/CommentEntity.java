@@ -0,0 +1,68 @@
+package com.fast.campus.simplesns.model.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.Where;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+// (post_id, registered_at, id) 인덱스로 post 별 댓글을 작성 순서대로 읽는다
+@Table(name = "\"comment\"", indexes = {
+        @Index(name = "comment_post_id_registered_at_id_idx", columnList = "post_id, registered_at, id")
+})
+@Getter
+@Setter
+@SQLDelete(sql = "UPDATE \"comment\" SET deleted_at = NOW() where id=?")
+@Where(clause = "deleted_at is NULL")
+@Entity
+public class CommentEntity {
+
+    // id 는 커서 순서의 동점 처리에만 쓴다. IDENTITY 도 커밋 순서를 보장하지 않으므로 커서는 (registered_at, id) 에
+    // 조회 지연을 두고 읽는다 (CommentEntityRepository#findCommentsAfter)
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id")
+    private PostEntity post;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private UserEntity user;
+
+    @Column(name = "comment", columnDefinition = "TEXT")
+    private String comment;
+
+    @Column(name = "registered_at")
+    private Timestamp registeredAt;
+
+    @Column(name = "updated_at")
+    private Timestamp updatedAt;
+
+    @Column(name = "deleted_at")
+    private Timestamp deletedAt;
+
+    // 저장 되기전에 현재 시각 저장
+    @PrePersist
+    void registeredAt() {
+        this.registeredAt = Timestamp.from(Instant.now());
+    }
+
+    // 업데이트 되기 전에 현재 시각 저장
+    @PreUpdate
+    void updatedAt() {
+        this.updatedAt = Timestamp.from(Instant.now());
+    }
+
+    public static CommentEntity of(PostEntity post, UserEntity user, String comment) {
+        CommentEntity entity = new CommentEntity();
+        entity.setPost(post);
+        entity.setUser(user);
+        entity.setComment(comment);
+        return entity;
+    }
+}
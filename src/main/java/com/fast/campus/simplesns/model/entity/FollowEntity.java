@@ -0,0 +1,67 @@
+package com.fast.campus.simplesns.model.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.Where;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+// (follower_id, following_id) 는 삭제된 row 를 포함해 하나만 둔다. 언팔로우 후 다시 팔로우하면 삭제된 row 를 되살린다
+@Table(name = "\"follow\"", indexes = {
+        @Index(name = "follow_follower_id_idx", columnList = "follower_id"),
+        @Index(name = "follow_following_id_idx", columnList = "following_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "follow_follower_id_following_id_key", columnNames = {"follower_id", "following_id"})
+})
+@Getter
+@Setter
+@SQLDelete(sql = "UPDATE \"follow\" SET deleted_at = NOW() where id=?")
+@Where(clause = "deleted_at is NULL")
+@Entity
+public class FollowEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    // 팔로우 하는 유저
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "follower_id")
+    private UserEntity follower;
+
+    // 팔로우 당하는 유저
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "following_id")
+    private UserEntity following;
+
+    @Column(name = "registered_at")
+    private Timestamp registeredAt;
+
+    @Column(name = "updated_at")
+    private Timestamp updatedAt;
+
+    @Column(name = "deleted_at")
+    private Timestamp deletedAt;
+
+    // 저장 되기전에 현재 시각 저장
+    @PrePersist
+    void registeredAt() {
+        this.registeredAt = Timestamp.from(Instant.now());
+    }
+
+    // 업데이트 되기 전에 현재 시각 저장
+    @PreUpdate
+    void updatedAt() {
+        this.updatedAt = Timestamp.from(Instant.now());
+    }
+
+    public static FollowEntity of(UserEntity follower, UserEntity following) {
+        FollowEntity entity = new FollowEntity();
+        entity.setFollower(follower);
+        entity.setFollowing(following);
+        return entity;
+    }
+}
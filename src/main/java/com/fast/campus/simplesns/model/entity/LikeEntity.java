@@ -0,0 +1,40 @@
+package com.fast.campus.simplesns.model.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+// 좋아요는 soft delete 하지 않는다. 취소 후 다시 누르면 (post_id, user_id) unique 제약에 걸리기 때문
+// row 는 LikeService 가 JDBC batch 로 모아서 쓰고, 엔티티는 스키마와 조회용으로만 사용
+@Table(name = "\"like\"", uniqueConstraints = {
+        @UniqueConstraint(name = "like_post_id_user_id_key", columnNames = {"post_id", "user_id"})
+})
+@Getter
+@Setter
+@Entity
+public class LikeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id")
+    private PostEntity post;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private UserEntity user;
+
+    @Column(name = "registered_at")
+    private Timestamp registeredAt;
+
+    // 저장 되기전에 현재 시각 저장
+    @PrePersist
+    void registeredAt() {
+        this.registeredAt = Timestamp.from(Instant.now());
+    }
+}
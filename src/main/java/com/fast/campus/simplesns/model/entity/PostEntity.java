@@ -9,7 +9,9 @@ import javax.persistence.*;
 import java.sql.Timestamp;
 import java.time.Instant;
 
-@Table(name = "\"post\"")
+@Table(name = "\"post\"", indexes = {
+        @Index(name = "post_registered_at_id_idx", columnList = "registered_at, id")
+})
 @Getter
 @Setter
 @SQLDelete(sql = "UPDATE \"post\" SET deleted_at = NOW() where id=?")
@@ -17,6 +19,8 @@ import java.time.Instant;
 @Entity
 public class PostEntity {
 
+    // 홈 타임라인이 post id 로 페이징하므로 노드마다 미리 할당하는 sequence 대신 insert 순서대로 받는다.
+    // write-behind 저장은 PostIngestionQueue 가 jdbc batch 로 직접 insert 한다
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
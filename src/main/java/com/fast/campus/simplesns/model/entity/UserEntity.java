@@ -33,6 +33,18 @@ public class UserEntity {
     @Enumerated(EnumType.STRING)
     private UserRole role = UserRole.USER;
 
+    // 비밀번호 변경 등 자격 증명이 바뀔 때마다 올려서 이전에 발급된 토큰을 무효화
+    @Column(name = "credential_version")
+    private Integer credentialVersion = 0;
+
+    // password 해시의 bcrypt cost. 설정된 cost 와 다르면 로그인 성공 시 다시 해시
+    @Column(name = "password_cost")
+    private Integer passwordCost;
+
+    // 팔로워 수. 팔로우/언팔로우에서 같이 바꾸고, celebrity (읽을 때 pull) 판단에 쓴다
+    @Column(name = "follower_count")
+    private Long followerCount = 0L;
+
     @Column(name = "registered_at")
     private Timestamp registeredAt;
 
@@ -61,4 +73,10 @@ public class UserEntity {
         userEntity.setPassword(password);
         return userEntity;
     }
+
+    public static UserEntity of(String userName, String password, Integer passwordCost) {
+        UserEntity userEntity = of(userName, password);
+        userEntity.setPasswordCost(passwordCost);
+        return userEntity;
+    }
 }
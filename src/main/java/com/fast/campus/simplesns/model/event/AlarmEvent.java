@@ -0,0 +1,28 @@
+package com.fast.campus.simplesns.model.event;
+
+import com.fast.campus.simplesns.model.AlarmArgs;
+import com.fast.campus.simplesns.model.AlarmType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+// 커밋 이후 kafka 로 보내고, AlarmConsumer 가 받아서 저장
+// eventId 는 다시 전달된 (rebalance 후 재처리, producer 재전송) 이벤트를 한 번만 저장하는 데 쓴다
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlarmEvent {
+	private String eventId;
+	private Integer receiverUserId;
+	private AlarmType alarmType;
+	private AlarmArgs args;
+	private Timestamp occurredAt;
+
+	public static AlarmEvent of(Integer receiverUserId, AlarmType alarmType, Integer fromUserId, Integer targetId) {
+		return new AlarmEvent(UUID.randomUUID().toString(), receiverUserId, alarmType, new AlarmArgs(fromUserId, targetId), Timestamp.from(Instant.now()));
+	}
+}
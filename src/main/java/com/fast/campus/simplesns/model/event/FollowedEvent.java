@@ -0,0 +1,12 @@
+package com.fast.campus.simplesns.model.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 팔로우가 커밋된 뒤 팔로우한 유저의 타임라인을 채우는 데 사용
+@Getter
+@AllArgsConstructor
+public class FollowedEvent {
+	private Integer followerId;
+	private Integer followingId;
+}
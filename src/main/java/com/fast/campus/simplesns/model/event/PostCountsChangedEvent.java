@@ -0,0 +1,11 @@
+package com.fast.campus.simplesns.model.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 댓글 작성/삭제가 커밋된 뒤 목록 ETag 를 모든 노드에서 바꾸는 데 사용
+@Getter
+@AllArgsConstructor
+public class PostCountsChangedEvent {
+	private Integer postId;
+}
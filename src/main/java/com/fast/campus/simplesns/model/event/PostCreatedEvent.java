@@ -0,0 +1,14 @@
+package com.fast.campus.simplesns.model.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// post 저장이 커밋된 뒤 타임라인 fan-out, 검색 색인 등에 사용
+@Getter
+@AllArgsConstructor
+public class PostCreatedEvent {
+	private Integer postId;
+	private Integer userId;
+	private String title;
+	private String body;
+}
@@ -0,0 +1,11 @@
+package com.fast.campus.simplesns.model.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// post 삭제(soft delete)가 커밋된 뒤 검색 색인에서 빼는 데 사용
+@Getter
+@AllArgsConstructor
+public class PostDeletedEvent {
+	private Integer postId;
+}
@@ -0,0 +1,13 @@
+package com.fast.campus.simplesns.model.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// post 수정이 커밋된 뒤 검색 색인을 바꾸는 데 사용
+@Getter
+@AllArgsConstructor
+public class PostModifiedEvent {
+	private Integer postId;
+	private String title;
+	private String body;
+}
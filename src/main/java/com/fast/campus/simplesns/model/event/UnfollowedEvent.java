@@ -0,0 +1,12 @@
+package com.fast.campus.simplesns.model.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 언팔로우가 커밋된 뒤 타임라인에서 그 유저의 post 를 빼는 데 사용
+@Getter
+@AllArgsConstructor
+public class UnfollowedEvent {
+	private Integer followerId;
+	private Integer followingId;
+}
@@ -0,0 +1,48 @@
+package com.fast.campus.simplesns.producer;
+
+import com.fast.campus.simplesns.config.AsyncConfig;
+import com.fast.campus.simplesns.model.event.AlarmEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 댓글/좋아요 트랜잭션이 커밋된 뒤 알람 이벤트를 kafka 로 보낸다.
+ * 전송은 요청 스레드가 아닌 크기가 제한된 alarmProducerExecutor 에서 하므로 브로커가 느리거나 내려가 있어도 응답 시간에 들어가지 않는다.
+ * 대기열이 넘쳐 버린 전송과 실패한 전송은 sns.alarm.produce.dropped 로 센다. 그 알람은 어디에도 저장되지 않고 사라진다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class AlarmProducer {
+
+    private final KafkaTemplate<Integer, AlarmEvent> kafkaTemplate;
+
+    @Value("${sns.alarm.topic}")
+    private String topic;
+
+    @Async(AsyncConfig.ALARM_PRODUCER_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void send(AlarmEvent event) {
+        try {
+            // 받는 유저 id 를 key 로 써서 한 유저의 알람은 같은 partition 에 순서대로 쌓인다
+            kafkaTemplate.send(topic, event.getReceiverUserId(), event).addCallback(
+                    result -> {
+                    },
+                    e -> failed(event, e));
+        } catch (KafkaException e) {
+            // 브로커가 내려가 있으면 max.block.ms 동안 metadata 를 기다린 뒤 여기서 실패한다
+            failed(event, e);
+        }
+    }
+
+    private void failed(AlarmEvent event, Throwable e) {
+        AsyncConfig.alarmDropped("failed").increment();
+        log.error("알람 전송에 실패했습니다. receiver {} {}", event.getReceiverUserId(), e.toString());
+    }
+}
@@ -0,0 +1,13 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.entity.AlarmEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AlarmEntityRepository extends JpaRepository<AlarmEntity, Integer> {
+
+    Page<AlarmEntity> findAllByUserId(Integer userId, Pageable pageable);
+}
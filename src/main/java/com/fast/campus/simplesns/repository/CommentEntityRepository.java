@@ -0,0 +1,45 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.Comment;
+import com.fast.campus.simplesns.model.PostCount;
+import com.fast.campus.simplesns.model.entity.CommentEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CommentEntityRepository extends JpaRepository<CommentEntity, Integer> {
+
+	// 댓글과 작성자 이름을 한 번에 조회 (엔티티를 만들지 않음)
+	String COMMENT = "select new com.fast.campus.simplesns.model.Comment(" +
+			"c.id, c.comment, c.post.id, u.id, u.userName, c.registeredAt, c.updatedAt) " +
+			"from CommentEntity c join c.user u ";
+
+	@Query(value = COMMENT + "where c.post.id = :postId",
+			countQuery = "select count(c) from CommentEntity c where c.post.id = :postId")
+	Page<Comment> findAllCommentsByPostId(@Param("postId") Integer postId, Pageable pageable);
+
+	// (post_id, registered_at, id) 인덱스 범위 조회라 앞쪽 댓글 수와 상관없이 일정한 비용으로 다음 페이지를 읽는다.
+	// id 나 registered_at 은 커밋 순서가 아니어서, 먼저 매겨진 댓글이 나중에 커밋되면 이미 지나간 커서 뒤에 끼어든다.
+	// visibleBefore 보다 늦게 작성된 댓글은 아직 커밋 중일 수 있으므로 다음 조회로 미룬다
+	@Query(COMMENT + "where c.post.id = :postId and c.registeredAt <= :visibleBefore " +
+			"and (c.registeredAt > :afterAt or (c.registeredAt = :afterAt and c.id > :afterId)) " +
+			"order by c.registeredAt asc, c.id asc")
+	List<Comment> findCommentsAfter(@Param("postId") Integer postId,
+									@Param("afterAt") Timestamp afterAt,
+									@Param("afterId") Integer afterId,
+									@Param("visibleBefore") Timestamp visibleBefore,
+									Pageable pageable);
+
+	// 목록 조회 시 여러 post 의 댓글 수를 한 번에 가져온다 (댓글이 없는 post 는 결과에 없음)
+	@Query("select c.post.id as postId, count(c) as count from CommentEntity c " +
+			"where c.post.id in :postIds group by c.post.id")
+	List<PostCount> countByPostIdIn(@Param("postIds") Collection<Integer> postIds);
+}
@@ -0,0 +1,15 @@
+package com.fast.campus.simplesns.repository;
+
+import java.util.function.BiConsumer;
+
+/**
+ * 비밀번호 변경/탈퇴로 올라간 credential version 을 모든 노드의 CredentialVersionCache 에 알리는 통로.
+ * 운영은 Redis pub/sub, 로컬/테스트는 메모리 구현을 사용한다 (sns.credential.store).
+ */
+public interface CredentialRevocationRepository {
+
+    // 모든 노드 (자기 자신 포함) 의 구독자에게 userId 와 새 version 을 알린다
+    void revoke(Integer userId, Integer credentialVersion);
+
+    void subscribe(BiConsumer<Integer, Integer> revokedVersionListener);
+}
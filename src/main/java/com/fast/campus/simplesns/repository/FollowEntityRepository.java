@@ -0,0 +1,38 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.entity.FollowEntity;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FollowEntityRepository extends JpaRepository<FollowEntity, Integer> {
+
+    Optional<FollowEntity> findByFollowerAndFollowing(UserEntity follower, UserEntity following);
+
+    // 언팔로우로 삭제된 row 를 되살린다. 되살린 row 가 없으면 0
+    @Modifying
+    @Query(value = "UPDATE \"follow\" SET deleted_at = NULL, updated_at = NOW() " +
+            "WHERE follower_id = :followerId AND following_id = :followingId AND deleted_at IS NOT NULL", nativeQuery = true)
+    int restore(@Param("followerId") Integer followerId, @Param("followingId") Integer followingId);
+
+    // 동시에 언팔로우해도 한 요청만 지우도록 삭제되지 않은 row 만 지운다. 지운 row 가 없으면 0
+    @Modifying
+    @Query(value = "UPDATE \"follow\" SET deleted_at = NOW() " +
+            "WHERE follower_id = :followerId AND following_id = :followingId AND deleted_at IS NULL", nativeQuery = true)
+    int softDelete(@Param("followerId") Integer followerId, @Param("followingId") Integer followingId);
+
+    @Query("select f.follower.id from FollowEntity f where f.following.id = :userId")
+    List<Integer> findFollowerIds(@Param("userId") Integer userId);
+
+    // 팔로워가 threshold 이상이라 push 대상에서 빠지는 (읽을 때 pull 하는) 팔로잉 유저
+    @Query("select f.following.id from FollowEntity f where f.follower.id = :userId " +
+            "and f.following.followerCount >= :threshold")
+    List<Integer> findCelebrityFollowingIds(@Param("userId") Integer userId, @Param("threshold") long threshold);
+}
@@ -0,0 +1,28 @@
+package com.fast.campus.simplesns.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * 단일 노드/테스트용. 같은 프로세스의 구독자에게 바로 전달한다.
+ */
+@Repository
+@ConditionalOnProperty(name = "sns.credential.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCredentialRevocationRepository implements CredentialRevocationRepository {
+
+    private final List<BiConsumer<Integer, Integer>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void revoke(Integer userId, Integer credentialVersion) {
+        listeners.forEach(listener -> listener.accept(userId, credentialVersion));
+    }
+
+    @Override
+    public void subscribe(BiConsumer<Integer, Integer> revokedVersionListener) {
+        listeners.add(revokedVersionListener);
+    }
+}
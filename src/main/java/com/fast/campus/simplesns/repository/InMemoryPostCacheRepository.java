@@ -0,0 +1,49 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.PostSummary;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 단일 노드/테스트용. 로컬 캐시가 전부이므로 공유 tier 는 비워두고, invalidation 은 같은 프로세스에서 바로 전달한다.
+ * 목록 버전은 시작 시각에서 출발하므로 재시작 전에 받은 ETag 와 겹치지 않는다.
+ */
+@Repository
+@ConditionalOnProperty(name = "sns.post.cache.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryPostCacheRepository implements PostCacheRepository {
+
+    private final List<Consumer<Integer>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong listVersion = new AtomicLong(System.currentTimeMillis());
+
+    @Override
+    public Optional<PostSummary> find(Integer postId) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void save(PostSummary post) {
+    }
+
+    @Override
+    public void evict(Integer postId) {
+        listVersion.incrementAndGet();
+        listeners.forEach(listener -> listener.accept(postId));
+    }
+
+    @Override
+    public OptionalLong listVersion() {
+        return OptionalLong.of(listVersion.get());
+    }
+
+    @Override
+    public void subscribe(Consumer<Integer> evictedPostIdListener) {
+        listeners.add(evictedPostIdListener);
+    }
+}
@@ -0,0 +1,373 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.SearchCursor;
+import com.fast.campus.simplesns.model.SearchHit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 단일 노드/테스트용 검색 색인. 단어마다 그 단어가 들어간 문서(slot)와 빈도를 slot 순서로 가진 역색인이다.
+ * 검색은 가장 짧은 posting list 를 따라가며 나머지 list 를 건너뛰어(gallop) 교집합을 만들고 BM25 로 점수를 매긴다.
+ * 수정된 post 는 새 slot 을 받고 이전 slot 은 죽은 것으로 표시해 두었다가, 죽은 slot 이 많아지면 한 번에 정리한다.
+ * 시작할 때 DB 에서 전체 post 를 읽어 다시 만든다.
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "sns.search.store", havingValue = "memory")
+public class InMemoryPostSearchRepository implements PostSearchRepository {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // 제목에 나온 단어는 본문보다 이만큼 더 센다
+    private static final int TITLE_WEIGHT = 3;
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final String REBUILD_SQL =
+            "SELECT id, title, body FROM \"post\" WHERE deleted_at IS NULL AND id > ? ORDER BY id LIMIT ?";
+    private static final int UNKNOWN = 0;
+    private static final int REMOVED = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean rebuildOnStartup;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    // slot 별 post id 와 (제목 가중치를 넣은) 문서 길이. 길이 0 은 죽은 slot
+    private int[] slotPostIds = new int[1024];
+    private int[] slotLengths = new int[1024];
+    private int slots;
+    private int deadSlots;
+    private long totalLength;
+    // post id 별 slot + 1. UNKNOWN 은 색인된 적 없음, REMOVED 는 삭제됨 (시작 시 재색인이 되살리지 않도록)
+    private int[] postSlots = new int[1024];
+
+    public InMemoryPostSearchRepository(JdbcTemplate jdbcTemplate,
+                                        @Value("${sns.search.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @Override
+    public void index(Integer postId, String title, String body) {
+        Map<String, Integer> frequencies = termFrequencies(title, body);
+        lock.writeLock().lock();
+        try {
+            kill(postId);
+            put(postId, frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Integer postId) {
+        lock.writeLock().lock();
+        try {
+            kill(postId);
+            ensurePostCapacity(postId);
+            postSlots[postId] = REMOVED;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<SearchHit> search(String query, SearchCursor after, int size) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(query, terms::add);
+        if (terms.isEmpty() || size <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[terms.size()];
+            int n = 0;
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists[n++] = list;
+            }
+            // 가장 짧은 list 를 기준으로 교집합
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            return topHits(lists, after, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 시작할 때 별도 스레드에서 id 순으로 나눠 읽어서 채운다. 그 사이 이벤트로 들어온 색인/삭제가 우선한다
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRebuild() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        Thread rebuild = new Thread(this::rebuild, "post-search-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    void rebuild() {
+        int lastId = 0;
+        long indexed = 0;
+        while (true) {
+            List<Map.Entry<Integer, Map<String, Integer>>> page = jdbcTemplate.query(REBUILD_SQL,
+                    (rs, i) -> Map.entry(rs.getInt("id"), termFrequencies(rs.getString("title"), rs.getString("body"))),
+                    lastId, REBUILD_PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            lock.writeLock().lock();
+            try {
+                for (Map.Entry<Integer, Map<String, Integer>> post : page) {
+                    ensurePostCapacity(post.getKey());
+                    if (postSlots[post.getKey()] == UNKNOWN) {
+                        put(post.getKey(), post.getValue());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            indexed += page.size();
+            lastId = page.get(page.size() - 1).getKey();
+        }
+        log.info("검색 색인을 다시 만들었습니다. post {}", indexed);
+    }
+
+    private List<SearchHit> topHits(Postings[] lists, SearchCursor after, int size) {
+        int live = slots - deadSlots;
+        float averageLength = live == 0 ? 1f : (float) totalLength / live;
+        float[] idf = new float[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            // 죽은 slot 도 df 에 포함된다 (정리될 때까지의 근사값)
+            int df = Math.min(lists[i].size, live);
+            idf[i] = (float) Math.log(1 + (live - df + 0.5) / (df + 0.5));
+        }
+
+        // 가장 낮은 점수가 맨 앞에 오는 크기 size 의 heap
+        PriorityQueue<SearchHit> top = new PriorityQueue<>(size + 1,
+                Comparator.comparingDouble(SearchHit::getScore).thenComparing(SearchHit::getPostId));
+        int[] positions = new int[lists.length];
+        Postings first = lists[0];
+        candidates:
+        for (int i = 0; i < first.size; i++) {
+            int slot = first.slots[i];
+            int length = slotLengths[slot];
+            if (length == 0) {
+                continue;
+            }
+            float score = bm25(idf[0], first.frequencies[i], length, averageLength);
+            for (int j = 1; j < lists.length; j++) {
+                Postings list = lists[j];
+                int position = list.seek(slot, positions[j]);
+                positions[j] = position;
+                if (position == list.size) {
+                    break candidates;
+                }
+                if (list.slots[position] != slot) {
+                    continue candidates;
+                }
+                score += bm25(idf[j], list.frequencies[position], length, averageLength);
+            }
+            int postId = slotPostIds[slot];
+            if (after != null && !(score < after.getScore() || (score == after.getScore() && postId < after.getPostId()))) {
+                continue;
+            }
+            // 흔한 단어는 후보가 수십만 건이라 heap 에 들어갈 때만 객체를 만든다
+            if (top.size() < size) {
+                top.add(new SearchHit(postId, score));
+            } else if (isBetter(score, postId, top.peek())) {
+                top.poll();
+                top.add(new SearchHit(postId, score));
+            }
+        }
+
+        List<SearchHit> result = new ArrayList<>(top);
+        result.sort(Comparator.comparingDouble(SearchHit::getScore).reversed()
+                .thenComparing(SearchHit::getPostId, Comparator.reverseOrder()));
+        return result;
+    }
+
+    private static boolean isBetter(float score, int postId, SearchHit worst) {
+        return score > worst.getScore() || (score == worst.getScore() && postId > worst.getPostId());
+    }
+
+    private static float bm25(float idf, int frequency, int length, float averageLength) {
+        return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    // write lock 안에서 호출
+    private void put(Integer postId, Map<String, Integer> frequencies) {
+        ensurePostCapacity(postId);
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        if (length == 0) {
+            postSlots[postId] = UNKNOWN;
+            return;
+        }
+        if (slots == slotPostIds.length) {
+            slotPostIds = Arrays.copyOf(slotPostIds, slots * 2);
+            slotLengths = Arrays.copyOf(slotLengths, slots * 2);
+        }
+        int slot = slots++;
+        slotPostIds[slot] = postId;
+        slotLengths[slot] = length;
+        totalLength += length;
+        frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, key -> new Postings()).add(slot, frequency));
+        postSlots[postId] = slot + 1;
+    }
+
+    // write lock 안에서 호출
+    private void kill(Integer postId) {
+        if (postId >= postSlots.length || postSlots[postId] <= 0) {
+            return;
+        }
+        int slot = postSlots[postId] - 1;
+        totalLength -= slotLengths[slot];
+        slotLengths[slot] = 0;
+        postSlots[postId] = UNKNOWN;
+        deadSlots++;
+        if (deadSlots > 1024 && deadSlots > slots / 4) {
+            compact();
+        }
+    }
+
+    // 죽은 slot 을 posting list 에서 빼고 slot 번호를 앞으로 당긴다 (순서는 그대로라 list 는 정렬 상태를 유지)
+    private void compact() {
+        int[] remap = new int[slots];
+        int live = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (slotLengths[slot] == 0) {
+                remap[slot] = -1;
+                continue;
+            }
+            remap[slot] = live;
+            slotPostIds[live] = slotPostIds[slot];
+            slotLengths[live] = slotLengths[slot];
+            postSlots[slotPostIds[live]] = live + 1;
+            live++;
+        }
+        Iterator<Postings> lists = postings.values().iterator();
+        while (lists.hasNext()) {
+            if (lists.next().remap(remap) == 0) {
+                lists.remove();
+            }
+        }
+        log.info("검색 색인의 죽은 slot 을 정리했습니다. {} -> {}", slots, live);
+        slots = live;
+        deadSlots = 0;
+    }
+
+    private void ensurePostCapacity(int postId) {
+        if (postId >= postSlots.length) {
+            postSlots = Arrays.copyOf(postSlots, Math.max(postId + 1, postSlots.length * 2));
+        }
+    }
+
+    static Map<String, Integer> termFrequencies(String title, String body) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(title, term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+        tokenize(body, term -> frequencies.merge(term, 1, Integer::sum));
+        return frequencies;
+    }
+
+    /**
+     * 글자/숫자가 아닌 문자로 나누고 소문자로 바꾼다.
+     * 한글/한자/가나는 조사가 붙어 띄어쓰기만으로는 단어가 나뉘지 않으므로 두 글자씩 겹쳐 자른다 (bigram).
+     */
+    static void tokenize(String text, Consumer<String> consumer) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = 0;
+        while (start < length) {
+            char c = text.charAt(start);
+            if (!Character.isLetterOrDigit(c)) {
+                start++;
+                continue;
+            }
+            boolean cjk = isCjk(c);
+            int end = start + 1;
+            while (end < length && Character.isLetterOrDigit(text.charAt(end)) && isCjk(text.charAt(end)) == cjk) {
+                end++;
+            }
+            if (!cjk) {
+                if (end - start <= MAX_TOKEN_LENGTH) {
+                    consumer.accept(text.substring(start, end).toLowerCase(Locale.ROOT));
+                }
+            } else if (end - start == 1) {
+                consumer.accept(text.substring(start, end));
+            } else {
+                for (int i = start; i + 1 < end; i++) {
+                    consumer.accept(text.substring(i, i + 2));
+                }
+            }
+            start = end;
+        }
+    }
+
+    private static boolean isCjk(char c) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HANGUL || script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA || script == Character.UnicodeScript.KATAKANA;
+    }
+
+    // slot 오름차순으로 쌓인 posting list
+    private static class Postings {
+        private int[] slots = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        private void add(int slot, int frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        // from 부터 slot 이상인 첫 위치. 간격을 두 배씩 늘려 건너뛴 뒤 그 안에서 이분 탐색
+        private int seek(int slot, int from) {
+            if (from >= size || slots[from] >= slot) {
+                return from;
+            }
+            int low = from;
+            int step = 1;
+            int high = from + step;
+            while (high < size && slots[high] < slot) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            int index = Arrays.binarySearch(slots, low + 1, Math.min(high, size - 1) + 1, slot);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        private int remap(int[] remap) {
+            int live = 0;
+            for (int i = 0; i < size; i++) {
+                int slot = remap[slots[i]];
+                if (slot >= 0) {
+                    slots[live] = slot;
+                    frequencies[live] = frequencies[i];
+                    live++;
+                }
+            }
+            size = live;
+            return live;
+        }
+    }
+}
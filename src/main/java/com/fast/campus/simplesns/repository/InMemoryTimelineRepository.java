@@ -0,0 +1,70 @@
+package com.fast.campus.simplesns.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 단일 노드/테스트용 타임라인 저장소
+ */
+@Repository
+@ConditionalOnProperty(name = "sns.timeline.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTimelineRepository implements TimelineRepository {
+
+    private final Map<Integer, ConcurrentSkipListSet<Integer>> timelines = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public InMemoryTimelineRepository(@Value("${sns.timeline.max-size:800}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void push(Integer userId, Integer postId) {
+        addAll(userId, List.of(postId));
+    }
+
+    @Override
+    public void pushAll(Collection<Integer> userIds, Integer postId) {
+        userIds.forEach(userId -> push(userId, postId));
+    }
+
+    @Override
+    public void addAll(Integer userId, Collection<Integer> postIds) {
+        ConcurrentSkipListSet<Integer> timeline = timelines.computeIfAbsent(userId,
+                key -> new ConcurrentSkipListSet<>(Comparator.reverseOrder()));
+        timeline.addAll(postIds);
+        // 오래된 (가장 작은) post id 부터 잘라낸다
+        while (timeline.size() > maxSize) {
+            timeline.pollLast();
+        }
+    }
+
+    @Override
+    public void removeAll(Integer userId, Collection<Integer> postIds) {
+        Set<Integer> timeline = timelines.get(userId);
+        if (timeline != null) {
+            timeline.removeAll(postIds);
+        }
+    }
+
+    @Override
+    public List<Integer> findPostIds(Integer userId, Integer beforePostId, int size) {
+        ConcurrentSkipListSet<Integer> timeline = timelines.get(userId);
+        if (timeline == null) {
+            return List.of();
+        }
+        NavigableSet<Integer> older = beforePostId == null ? timeline : timeline.tailSet(beforePostId, false);
+        List<Integer> result = new ArrayList<>(size);
+        for (Integer postId : older) {
+            if (result.size() == size) {
+                break;
+            }
+            result.add(postId);
+        }
+        return result;
+    }
+}
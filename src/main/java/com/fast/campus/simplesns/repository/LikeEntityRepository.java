@@ -0,0 +1,20 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.PostCount;
+import com.fast.campus.simplesns.model.entity.LikeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LikeEntityRepository extends JpaRepository<LikeEntity, Integer> {
+
+    // 목록 조회 시 여러 post 의 좋아요 수를 한 번에 가져온다 (좋아요가 없는 post 는 결과에 없음)
+    @Query("select l.post.id as postId, count(l) as count from LikeEntity l " +
+            "where l.post.id in :postIds group by l.post.id")
+    List<PostCount> countByPostIdIn(@Param("postIds") Collection<Integer> postIds);
+}
@@ -0,0 +1,27 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.PostSummary;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+
+/**
+ * 단건 post 조회 캐시의 공유 tier 와 노드 간 invalidation 통로.
+ * invalidation 마다 올라가는 목록 버전도 모든 노드가 같은 값을 보도록 여기에 둔다 (목록 ETag, PostVersionTracker).
+ * 각 노드의 로컬 캐시(PostReadCache) 뒤에 있고, 운영은 Redis, 로컬/테스트는 메모리 구현을 사용한다 (sns.post.cache.store).
+ */
+public interface PostCacheRepository {
+
+    Optional<PostSummary> find(Integer postId);
+
+    void save(PostSummary post);
+
+    // 공유 사본을 지우고 목록 버전을 올린 뒤 모든 노드 (자기 자신 포함) 의 구독자에게 알린다
+    void evict(Integer postId);
+
+    // 읽지 못하면 (Redis 장애) empty
+    OptionalLong listVersion();
+
+    void subscribe(Consumer<Integer> evictedPostIdListener);
+}
@@ -1,15 +1,81 @@
 package com.fast.campus.simplesns.repository;
 
+import com.fast.campus.simplesns.model.PostExport;
+import com.fast.campus.simplesns.model.PostSummary;
 import com.fast.campus.simplesns.model.entity.PostEntity;
 import com.fast.campus.simplesns.model.entity.UserEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface PostEntityRepository extends JpaRepository<PostEntity, Integer> {
+public interface PostEntityRepository extends JpaRepository<PostEntity, Integer>, PostEntityRepositoryCustom {
 
 	Page<PostEntity> findAllByUser(UserEntity entity, Pageable pageable);
 
+	long countByUserId(Integer userId);
+
+	// 목록 조회는 post 와 작성자 컬럼을 한 번의 join 으로 가져와 작성자별 추가 select(N+1) 를 없앤다
+	String POST_SUMMARY = "select new com.fast.campus.simplesns.model.PostSummary(" +
+			"p.id, p.title, p.body, u.id, u.userName, p.registeredAt, p.updatedAt) " +
+			"from PostEntity p join p.user u ";
+
+	@Query(value = POST_SUMMARY, countQuery = "select count(p) from PostEntity p")
+	Page<PostSummary> findAllPostSummaries(Pageable pageable);
+
+	@Query(value = POST_SUMMARY + "where u.id = :userId",
+			countQuery = "select count(p) from PostEntity p where p.user.id = :userId")
+	Page<PostSummary> findAllPostSummariesByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+	// Slice 반환 타입은 size + 1 개를 조회해 hasNext 를 계산하고 count 쿼리를 실행하지 않는다
+	@Query(POST_SUMMARY)
+	Slice<PostSummary> findPostSummarySlice(Pageable pageable);
+
+	@Query(POST_SUMMARY + "where u.id = :userId")
+	Slice<PostSummary> findPostSummarySliceByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+	@Query(POST_SUMMARY + "where p.id in :ids")
+	List<PostSummary> findPostSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+
+	// 내보내기용. 엔티티가 아닌 projection 으로 읽어서 영속성 컨텍스트에 쌓이지 않고, fetch size 만큼씩 forward-only 커서로 가져온다
+	// (트랜잭션 안에서 사용하고 다 쓰면 닫아야 한다)
+	@QueryHints({
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+	})
+	@Query("select new com.fast.campus.simplesns.model.PostExport(" +
+			"p.id, p.title, p.body, p.registeredAt, p.updatedAt) " +
+			"from PostEntity p where p.user.id = :userId order by p.id")
+	Stream<PostExport> streamExportByUserId(@Param("userId") Integer userId);
+
+	@Query("select p.user.id from PostEntity p where p.id = :postId")
+	Optional<Integer> findUserIdById(@Param("postId") Integer postId);
+
+	@Query("select p.id from PostEntity p where p.user.id = :userId order by p.id desc")
+	List<Integer> findIdsByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+	@Query("select p.id from PostEntity p where p.user.id in :userIds and p.id < :beforePostId order by p.id desc")
+	List<Integer> findIdsByUserIdIn(@Param("userIds") Collection<Integer> userIds, @Param("beforePostId") Integer beforePostId, Pageable pageable);
+
+	// keyset 페이지네이션: OFFSET 과 COUNT 없이 (registered_at, id) 인덱스를 따라 읽는다
+	@Query(POST_SUMMARY + "order by p.registeredAt desc, p.id desc")
+	List<PostSummary> findFeed(Pageable pageable);
+
+	@Query(POST_SUMMARY +
+			"where p.registeredAt <= :registeredAt and (p.registeredAt < :registeredAt or p.id < :id) " +
+			"order by p.registeredAt desc, p.id desc")
+	List<PostSummary> findFeedAfter(@Param("registeredAt") Timestamp registeredAt, @Param("id") Integer id, Pageable pageable);
+
 }
@@ -0,0 +1,21 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.PostCursor;
+import com.fast.campus.simplesns.model.PostFields;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 요청마다 select 할 컬럼이 달라지는 목록 조회. JPQL 상수로는 만들 수 없어 Criteria API 로 만든다.
+ * 결과는 PostField 순서대로 key 를 담은 map 이고, 좋아요/댓글 수는 담지 않는다.
+ */
+public interface PostEntityRepositoryCustom {
+
+	// userId 가 null 이면 전체 post
+	List<Map<String, Object>> findPostFields(PostFields fields, Integer userId, long offset, int limit, Sort sort);
+
+	// 피드 keyset 조회. 커서를 만들 수 있도록 registeredAt 은 항상 담는다
+	List<Map<String, Object>> findFeedFields(PostFields fields, PostCursor after, int limit);
+}
@@ -0,0 +1,116 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.PostCursor;
+import com.fast.campus.simplesns.model.PostField;
+import com.fast.campus.simplesns.model.PostFields;
+import com.fast.campus.simplesns.model.entity.PostEntity;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class PostEntityRepositoryImpl implements PostEntityRepositoryCustom {
+
+	private static final String USER_ID = "userId";
+	private static final String USER_NAME = "userName";
+
+	private final EntityManager entityManager;
+
+	@Override
+	public List<Map<String, Object>> findPostFields(PostFields fields, Integer userId, long offset, int limit, Sort sort) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<PostEntity> post = query.from(PostEntity.class);
+		boolean registeredAt = fields.has(PostField.REGISTERED_AT);
+		query.multiselect(selections(cb, post, fields, registeredAt));
+		if (userId != null) {
+			query.where(cb.equal(post.get("user").get("id"), userId));
+		}
+		query.orderBy(QueryUtils.toOrders(sort, post, cb));
+		List<Tuple> tuples = entityManager.createQuery(query)
+				.setFirstResult((int) offset)
+				.setMaxResults(limit)
+				.getResultList();
+		return tuples.stream().map(tuple -> toRow(tuple, fields, registeredAt)).collect(Collectors.toList());
+	}
+
+	@Override
+	public List<Map<String, Object>> findFeedFields(PostFields fields, PostCursor after, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<PostEntity> post = query.from(PostEntity.class);
+		query.multiselect(selections(cb, post, fields, true));
+		if (after != null) {
+			query.where(cb.lessThanOrEqualTo(post.get("registeredAt"), after.getRegisteredAt()),
+					cb.or(cb.lessThan(post.get("registeredAt"), after.getRegisteredAt()),
+							cb.lessThan(post.get("id"), after.getId())));
+		}
+		query.orderBy(cb.desc(post.get("registeredAt")), cb.desc(post.get("id")));
+		List<Tuple> tuples = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+		return tuples.stream().map(tuple -> toRow(tuple, fields, true)).collect(Collectors.toList());
+	}
+
+	private static List<Selection<?>> selections(CriteriaBuilder cb, Root<PostEntity> post, PostFields fields, boolean registeredAt) {
+		List<Selection<?>> selections = new ArrayList<>();
+		selections.add(post.get("id").alias(PostField.ID.getKey()));
+		if (fields.has(PostField.TITLE)) {
+			selections.add(post.get("title").alias(PostField.TITLE.getKey()));
+		}
+		if (fields.has(PostField.BODY)) {
+			// 본문 전체를 읽지 않도록 DB 에서 substring 한다
+			selections.add((fields.getExcerpt() == null
+					? post.<String>get("body")
+					: cb.substring(post.get("body"), 1, fields.getExcerpt())).alias(PostField.BODY.getKey()));
+		}
+		if (fields.has(PostField.USER)) {
+			Join<PostEntity, UserEntity> user = post.join("user");
+			selections.add(user.get("id").alias(USER_ID));
+			selections.add(user.get("userName").alias(USER_NAME));
+		}
+		if (registeredAt) {
+			selections.add(post.get("registeredAt").alias(PostField.REGISTERED_AT.getKey()));
+		}
+		if (fields.has(PostField.UPDATED_AT)) {
+			selections.add(post.get("updatedAt").alias(PostField.UPDATED_AT.getKey()));
+		}
+		return selections;
+	}
+
+	private static Map<String, Object> toRow(Tuple tuple, PostFields fields, boolean registeredAt) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put(PostField.ID.getKey(), tuple.get(PostField.ID.getKey()));
+		if (fields.has(PostField.TITLE)) {
+			row.put(PostField.TITLE.getKey(), tuple.get(PostField.TITLE.getKey()));
+		}
+		if (fields.has(PostField.BODY)) {
+			row.put(PostField.BODY.getKey(), tuple.get(PostField.BODY.getKey()));
+		}
+		if (fields.has(PostField.USER)) {
+			Map<String, Object> user = new LinkedHashMap<>();
+			user.put("id", tuple.get(USER_ID));
+			user.put(USER_NAME, tuple.get(USER_NAME));
+			row.put(PostField.USER.getKey(), user);
+		}
+		if (registeredAt) {
+			row.put(PostField.REGISTERED_AT.getKey(), tuple.get(PostField.REGISTERED_AT.getKey()));
+		}
+		if (fields.has(PostField.UPDATED_AT)) {
+			row.put(PostField.UPDATED_AT.getKey(), tuple.get(PostField.UPDATED_AT.getKey()));
+		}
+		return row;
+	}
+}
@@ -0,0 +1,23 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.SearchCursor;
+import com.fast.campus.simplesns.model.SearchHit;
+
+import java.util.List;
+
+/**
+ * post 제목/본문 전문 검색 색인. 검색어의 모든 단어가 들어간 post 를 관련도 순으로 돌려준다.
+ * 로컬/테스트는 메모리 역색인, 운영은 PostgreSQL tsvector + GIN 을 사용한다 (sns.search.store).
+ */
+public interface PostSearchRepository {
+
+    // 새 post 를 넣거나 수정된 post 의 색인을 바꾼다
+    void index(Integer postId, String title, String body);
+
+    void remove(Integer postId);
+
+    /**
+     * 정렬 순서에서 after 뒤에 오는 결과를 최대 size 개 돌려준다. after 가 null 이면 처음부터.
+     */
+    List<SearchHit> search(String query, SearchCursor after, int size);
+}
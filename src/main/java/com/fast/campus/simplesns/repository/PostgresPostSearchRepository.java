@@ -0,0 +1,128 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.SearchCursor;
+import com.fast.campus.simplesns.model.SearchHit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * PostgreSQL 전문 검색. 제목(A)/본문(B) 가중치를 넣은 tsvector 를 generated column 으로 두고 GIN 인덱스로 찾는다.
+ * insert/update 와 같은 트랜잭션에서 DB 가 색인을 바꾸므로 index/remove 는 할 일이 없고, soft delete 는 부분 인덱스 조건으로 빠진다.
+ * 형태소 분석이 없는 'simple' 설정이라 조사가 붙은 한국어 단어는 띄어쓰기 단위로만 찾는다.
+ * 컬럼과 인덱스는 advisory lock 을 잡은 노드 하나만 만든다. 컬럼 추가는 테이블을 다시 쓰므로 post 가 많은 DB 에서는
+ * sns.search.create-index 를 끄고 점검 시간에 같은 DDL 을 직접 실행한다.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "sns.search.store", havingValue = "postgres", matchIfMissing = true)
+public class PostgresPostSearchRepository implements PostSearchRepository {
+
+    private static final String ADD_COLUMN_SQL = "ALTER TABLE \"post\" ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+            "GENERATED ALWAYS AS (setweight(to_tsvector('simple', coalesce(title, '')), 'A') || " +
+            "setweight(to_tsvector('simple', coalesce(body, '')), 'B')) STORED";
+    // CONCURRENTLY 는 트랜잭션 밖 (autocommit) 에서만 실행된다
+    private static final String CREATE_INDEX_SQL = "CREATE INDEX CONCURRENTLY IF NOT EXISTS post_search_vector_idx " +
+            "ON \"post\" USING GIN (search_vector) WHERE deleted_at IS NULL";
+    private static final String DROP_INDEX_SQL = "DROP INDEX CONCURRENTLY IF EXISTS post_search_vector_idx";
+    private static final String COLUMN_COUNT_SQL = "SELECT count(*) FROM information_schema.columns " +
+            "WHERE table_schema = current_schema() AND table_name = 'post' AND column_name = 'search_vector'";
+    // 인덱스가 없으면 row 가 없고, CONCURRENTLY 가 중간에 실패해 남은 인덱스는 false
+    private static final String INDEX_VALID_SQL = "SELECT indisvalid FROM pg_index " +
+            "WHERE indexrelid = to_regclass('post_search_vector_idx')";
+
+    // session advisory lock 이라 잡은 커넥션에서 풀어야 한다
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(?)";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(?)";
+    private static final long SCHEMA_LOCK_KEY = "post_search_vector".hashCode();
+
+    private static final String RANKED = "SELECT id, ts_rank_cd(search_vector, q)::real AS score " +
+            "FROM \"post\", websearch_to_tsquery('simple', ?) q " +
+            "WHERE deleted_at IS NULL AND search_vector @@ q";
+    private static final String SEARCH_SQL = "SELECT id, score FROM (" + RANKED + ") ranked " +
+            "ORDER BY score DESC, id DESC LIMIT ?";
+    private static final String SEARCH_AFTER_SQL = "SELECT id, score FROM (" + RANKED + ") ranked " +
+            "WHERE score < ? OR (score = ? AND id < ?) ORDER BY score DESC, id DESC LIMIT ?";
+
+    private static final RowMapper<SearchHit> HIT = (rs, i) -> new SearchHit(rs.getInt("id"), rs.getFloat("score"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${sns.search.create-index:true}")
+    private boolean createIndex;
+
+    // hibernate 가 테이블을 만든 뒤에 컬럼과 인덱스를 붙인다. 이미 있으면 카탈로그만 읽고 끝나고,
+    // 다른 노드가 만들고 있으면 기다리지 않고 넘어간다
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndex() {
+        if (!createIndex || hasSearchIndex(jdbcTemplate)) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            if (!Boolean.TRUE.equals(session.queryForObject(TRY_LOCK_SQL, Boolean.class, SCHEMA_LOCK_KEY))) {
+                log.info("다른 노드가 검색 인덱스를 만들고 있어 건너뜁니다");
+                return null;
+            }
+            try {
+                createSearchIndex(session);
+            } finally {
+                session.queryForObject(UNLOCK_SQL, Boolean.class, SCHEMA_LOCK_KEY);
+            }
+            return null;
+        });
+    }
+
+    private static boolean hasSearchIndex(JdbcTemplate jdbcTemplate) {
+        return hasSearchColumn(jdbcTemplate)
+                && jdbcTemplate.queryForList(INDEX_VALID_SQL, Boolean.class).equals(List.of(true));
+    }
+
+    private static boolean hasSearchColumn(JdbcTemplate jdbcTemplate) {
+        Integer columns = jdbcTemplate.queryForObject(COLUMN_COUNT_SQL, Integer.class);
+        return columns != null && columns > 0;
+    }
+
+    // lock 을 잡은 사이 다른 노드가 끝냈을 수 있으므로 다시 확인하며 만든다
+    private static void createSearchIndex(JdbcTemplate session) {
+        if (!hasSearchColumn(session)) {
+            session.execute(ADD_COLUMN_SQL);
+        }
+        List<Boolean> valid = session.queryForList(INDEX_VALID_SQL, Boolean.class);
+        if (valid.equals(List.of(true))) {
+            return;
+        }
+        if (!valid.isEmpty()) {
+            session.execute(DROP_INDEX_SQL);
+        }
+        session.execute(CREATE_INDEX_SQL);
+        log.info("검색 인덱스를 만들었습니다");
+    }
+
+    @Override
+    public void index(Integer postId, String title, String body) {
+    }
+
+    @Override
+    public void remove(Integer postId) {
+    }
+
+    @Override
+    public List<SearchHit> search(String query, SearchCursor after, int size) {
+        if (after == null) {
+            return jdbcTemplate.query(SEARCH_SQL, HIT, query, size);
+        }
+        return jdbcTemplate.query(SEARCH_AFTER_SQL, HIT, query, after.getScore(), after.getScore(), after.getPostId(), size);
+    }
+}
@@ -0,0 +1,67 @@
+package com.fast.campus.simplesns.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * "credential:revoked" 채널에 "{userId}:{version}" 을 PUBLISH 한다.
+ * pub/sub 은 유실될 수 있으므로 CredentialVersionCache 에도 만료 시간을 둔다 (sns.credential.version-ttl-ms).
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "sns.credential.store", havingValue = "redis")
+public class RedisCredentialRevocationRepository implements CredentialRevocationRepository {
+
+    private static final String REVOKE_CHANNEL = "credential:revoked";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final List<BiConsumer<Integer, Integer>> listeners = new CopyOnWriteArrayList<>();
+
+    public RedisCredentialRevocationRepository(StringRedisTemplate redisTemplate, RedisConnectionFactory connectionFactory) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String[] body = new String(message.getBody(), StandardCharsets.UTF_8).split(":");
+            Integer userId = Integer.valueOf(body[0]);
+            Integer credentialVersion = Integer.valueOf(body[1]);
+            listeners.forEach(listener -> listener.accept(userId, credentialVersion));
+        }, new ChannelTopic(REVOKE_CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @Override
+    public void revoke(Integer userId, Integer credentialVersion) {
+        try {
+            redisTemplate.convertAndSend(REVOKE_CHANNEL, userId + ":" + credentialVersion);
+        } catch (DataAccessException e) {
+            // DB 에는 이미 반영됐으므로 다른 노드는 version-ttl-ms 안에 DB 에서 다시 확인한다
+            log.warn("user {} 의 credential version {} 을 알리지 못했습니다. {}", userId, credentialVersion, e.toString());
+            listeners.forEach(listener -> listener.accept(userId, credentialVersion));
+        }
+    }
+
+    @Override
+    public void subscribe(BiConsumer<Integer, Integer> revokedVersionListener) {
+        listeners.add(revokedVersionListener);
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        listenerContainer.destroy();
+    }
+}
@@ -0,0 +1,134 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * PostSummary 를 JSON 문자열로 "post-summary:{id}" 에 TTL 과 함께 저장하고, 수정/삭제는 DEL 과 "post-list:version" INCR 후 "post-cache:evict" 채널에 post id 를 PUBLISH 한다.
+ * 목록 버전은 key 가 없으면 현재 시각으로 시작하므로 Redis 를 비워도 예전 ETag 와 겹치지 않는다.
+ * pub/sub 은 유실될 수 있으므로 (구독이 끊긴 사이의 메시지) 로컬 캐시에도 만료 시간을 둔다.
+ * Redis 장애 시에는 공유 tier 를 건너뛰고 DB 에서 읽는다. invalidation 도 건너뛰므로 그동안의 변경은 TTL 이 지나야 보인다.
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "sns.post.cache.store", havingValue = "redis")
+public class RedisPostCacheRepository implements PostCacheRepository {
+
+    private static final String KEY_PREFIX = "post-summary:";
+    private static final String EVICT_CHANNEL = "post-cache:evict";
+    private static final String LIST_VERSION_KEY = "post-list:version";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final Duration ttl;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final List<Consumer<Integer>> listeners = new CopyOnWriteArrayList<>();
+
+    public RedisPostCacheRepository(StringRedisTemplate redisTemplate,
+                                    RedisConnectionFactory connectionFactory,
+                                    ObjectMapper objectMapper,
+                                    @Value("${sns.post.cache.shared-ttl-ms:600000}") long ttlMs) {
+        this.redisTemplate = redisTemplate;
+        this.reader = objectMapper.readerFor(PostSummary.class);
+        this.writer = objectMapper.writerFor(PostSummary.class);
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener((message, pattern) -> {
+            Integer postId = Integer.valueOf(new String(message.getBody(), StandardCharsets.UTF_8));
+            listeners.forEach(listener -> listener.accept(postId));
+        }, new ChannelTopic(EVICT_CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @Override
+    public Optional<PostSummary> find(Integer postId) {
+        try {
+            String json = redisTemplate.opsForValue().get(getKey(postId));
+            return json == null ? Optional.empty() : Optional.of(reader.readValue(json));
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("post {} 를 redis 캐시에서 읽지 못했습니다. {}", postId, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(PostSummary post) {
+        try {
+            redisTemplate.opsForValue().set(getKey(post.getId()), writer.writeValueAsString(post), ttl);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("post {} 를 redis 캐시에 넣지 못했습니다. {}", post.getId(), e.toString());
+        }
+    }
+
+    // 커밋된 뒤 불리므로 실패해도 요청을 실패시키지 않는다. 공유 사본은 shared-ttl 이, 다른 노드의 로컬 사본은 local-ttl 이 지나면 사라진다
+    @Override
+    public void evict(Integer postId) {
+        try {
+            redisTemplate.delete(getKey(postId));
+            initListVersion();
+            redisTemplate.opsForValue().increment(LIST_VERSION_KEY);
+            redisTemplate.convertAndSend(EVICT_CHANNEL, postId.toString());
+        } catch (DataAccessException e) {
+            log.warn("post {} 를 redis 캐시에서 지우지 못했습니다. {}", postId, e.toString());
+            // 메시지가 나가지 않았으므로 이 노드의 구독자에게는 직접 알린다
+            listeners.forEach(listener -> listener.accept(postId));
+        }
+    }
+
+    @Override
+    public OptionalLong listVersion() {
+        try {
+            String version = redisTemplate.opsForValue().get(LIST_VERSION_KEY);
+            if (version == null) {
+                initListVersion();
+                version = redisTemplate.opsForValue().get(LIST_VERSION_KEY);
+            }
+            return version == null ? OptionalLong.empty() : OptionalLong.of(Long.parseLong(version));
+        } catch (DataAccessException e) {
+            log.warn("목록 버전을 redis 에서 읽지 못했습니다. {}", e.toString());
+            return OptionalLong.empty();
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Integer> evictedPostIdListener) {
+        listeners.add(evictedPostIdListener);
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    private void initListVersion() {
+        redisTemplate.opsForValue().setIfAbsent(LIST_VERSION_KEY, String.valueOf(System.currentTimeMillis()));
+    }
+
+    private String getKey(Integer postId) {
+        return KEY_PREFIX + postId;
+    }
+}
@@ -0,0 +1,90 @@
+package com.fast.campus.simplesns.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 타임라인을 유저별 Redis sorted set (score = post id) 에 저장한다.
+ * 읽기는 ZREVRANGEBYSCORE 한 번, 쓰기는 파이프라인으로 ZADD + 크기 제한(ZREMRANGEBYRANK) 을 묶어 보낸다.
+ */
+@Repository
+@ConditionalOnProperty(name = "sns.timeline.store", havingValue = "redis")
+public class RedisTimelineRepository implements TimelineRepository {
+
+    private static final String KEY_PREFIX = "timeline:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final int maxSize;
+
+    public RedisTimelineRepository(StringRedisTemplate redisTemplate,
+                                   @Value("${sns.timeline.max-size:800}") int maxSize) {
+        this.redisTemplate = redisTemplate;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void push(Integer userId, Integer postId) {
+        pushAll(List.of(userId), postId);
+    }
+
+    @Override
+    public void pushAll(Collection<Integer> userIds, Integer postId) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String member = postId.toString();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (Integer userId : userIds) {
+                String key = getKey(userId);
+                redis.zAdd(key, postId, member);
+                redis.zRemRange(key, 0, -(maxSize + 1));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void addAll(Integer userId, Collection<Integer> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        String key = getKey(userId);
+        Set<ZSetOperations.TypedTuple<String>> tuples = postIds.stream()
+                .map(postId -> ZSetOperations.TypedTuple.of(postId.toString(), postId.doubleValue()))
+                .collect(Collectors.toSet());
+        redisTemplate.opsForZSet().add(key, tuples);
+        redisTemplate.opsForZSet().removeRange(key, 0, -(maxSize + 1));
+    }
+
+    @Override
+    public void removeAll(Integer userId, Collection<Integer> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        redisTemplate.opsForZSet().remove(getKey(userId), postIds.stream().map(Object::toString).toArray());
+    }
+
+    @Override
+    public List<Integer> findPostIds(Integer userId, Integer beforePostId, int size) {
+        double max = beforePostId == null ? Double.POSITIVE_INFINITY : beforePostId - 1;
+        Set<String> members = redisTemplate.opsForZSet()
+                .reverseRangeByScore(getKey(userId), Double.NEGATIVE_INFINITY, max, 0, size);
+        if (members == null) {
+            return List.of();
+        }
+        return members.stream().map(Integer::valueOf).collect(Collectors.toList());
+    }
+
+    private String getKey(Integer userId) {
+        return KEY_PREFIX + userId;
+    }
+}
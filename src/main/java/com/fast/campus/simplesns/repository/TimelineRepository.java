@@ -0,0 +1,25 @@
+package com.fast.campus.simplesns.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 유저별 홈 타임라인. post id 를 점수로 하는 크기 제한 정렬 집합으로, 최신 post 가 앞에 온다.
+ * 운영은 Redis(sorted set), 로컬/테스트는 메모리 구현을 사용한다 (sns.timeline.store).
+ */
+public interface TimelineRepository {
+
+    void push(Integer userId, Integer postId);
+
+    // 여러 유저의 타임라인에 같은 post 를 넣는다 (fan-out on write)
+    void pushAll(Collection<Integer> userIds, Integer postId);
+
+    void addAll(Integer userId, Collection<Integer> postIds);
+
+    void removeAll(Integer userId, Collection<Integer> postIds);
+
+    /**
+     * beforePostId 보다 작은 post id 를 최신순으로 최대 size 개 돌려준다. beforePostId 가 null 이면 처음부터.
+     */
+    List<Integer> findPostIds(Integer userId, Integer beforePostId, int size);
+}
@@ -2,7 +2,11 @@ package com.fast.campus.simplesns.repository;
 
 import com.fast.campus.simplesns.model.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -10,4 +14,47 @@ import java.util.Optional;
 public interface UserEntityRepository extends JpaRepository<UserEntity, Integer> {
 
     Optional<UserEntity> findByUserName(String userName);
+
+    @Query("SELECT u.id FROM UserEntity u WHERE u.userName = :userName")
+    Optional<Integer> findIdByUserName(@Param("userName") String userName);
+
+    @Query("select u.followerCount from UserEntity u where u.id = :id")
+    Optional<Long> findFollowerCountById(@Param("id") Integer id);
+
+    // 아직 채워지지 않은 (null) 값은 그대로 두고 backfillFollowerCounts 에서 센다
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.followerCount = u.followerCount + :delta where u.id = :id")
+    int addFollowerCount(@Param("id") Integer id, @Param("delta") long delta);
+
+    // follower_count 는 ddl update 로 추가된 컬럼이라 예전 row 는 null. 그 row 만 한 번 센다
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.followerCount = " +
+            "(select count(f) from FollowEntity f where f.following = u and f.deletedAt is null) where u.followerCount is null")
+    int backfillFollowerCounts();
+
+    // 재해시 사이에 비밀번호가 바뀌었으면 덮어쓰지 않도록 이전 해시가 그대로일 때만 바꾼다
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.password = :password, u.passwordCost = :passwordCost " +
+            "where u.id = :id and u.password = :previousPassword")
+    int updatePasswordHash(@Param("id") Integer id, @Param("previousPassword") String previousPassword,
+                           @Param("password") String password, @Param("passwordCost") Integer passwordCost);
+
+    // 비밀번호 변경. credential version 을 올려 이전에 발급된 토큰을 무효화하고, 그 사이에 바뀌었으면 덮어쓰지 않는다
+    // (credential_version 은 ddl update 로 추가된 컬럼이라 예전 row 는 null)
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.password = :password, u.passwordCost = :passwordCost, " +
+            "u.credentialVersion = coalesce(u.credentialVersion, 0) + 1 where u.id = :id and u.password = :previousPassword")
+    int changePassword(@Param("id") Integer id, @Param("previousPassword") String previousPassword,
+                       @Param("password") String password, @Param("passwordCost") Integer passwordCost);
+
+    // 탈퇴 (soft delete). 토큰이 다시 DB 에서 확인되도록 credential version 도 올린다
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.deletedAt = CURRENT_TIMESTAMP, u.credentialVersion = coalesce(u.credentialVersion, 0) + 1 " +
+            "where u.id = :id and u.deletedAt is null")
+    int softDelete(@Param("id") Integer id);
 }
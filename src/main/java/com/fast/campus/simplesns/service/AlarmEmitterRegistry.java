@@ -0,0 +1,260 @@
+package com.fast.campus.simplesns.service;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 알람 SSE 연결 목록.
+ * 연결은 비동기 요청으로 열어두므로 연결마다 servlet 스레드를 잡고 있지 않고, 여기에는 SseEmitter 만 남는다.
+ * - userId 로 shard 를 나누고, heartbeat 은 shard 마다 시점을 어긋나게 timer wheel 에 걸어 한꺼번에 몰리지 않게 한다
+ * - 연결마다 보낼 event 대기열을 두고, 연결 하나의 쓰기는 한 번에 하나만 fan-out executor 에서 한다.
+ *   호출한 스레드(kafka consumer, timer)는 event 를 넣기만 하고 소켓 쓰기를 기다리지 않는다
+ * - SseEmitter.send 는 막히는 쓰기이므로, 받지 않는 (느리거나 반쯤 끊긴) 연결은 다음처럼 정리한다
+ *   대기열이 max-pending-events 를 넘으면 빼고, 쓰기가 write-timeout-ms 넘게 끝나지 않으면 heartbeat 때 빼고,
+ *   앞의 쓰기가 아직 진행 중인 연결에는 heartbeat 을 쌓지 않는다.
+ *   막힌 쓰기 자체는 Tomcat 의 쓰기 timeout (sse 프로필의 server.tomcat.connection-timeout) 이 지나야 풀리므로 fan-out 스레드는 넉넉히 둔다
+ * - 전송이 실패했거나 끝난/timeout 된 emitter 는 바로 목록에서 뺀다
+ */
+@Slf4j
+@Component
+public class AlarmEmitterRegistry {
+
+    private static final String ALARM_EVENT = "alarm";
+
+    private final Shard[] shards;
+    private final long timeoutMs;
+    private final long heartbeatIntervalMs;
+    private final long writeTimeoutMs;
+    private final int maxPendingEvents;
+    private final ThreadPoolExecutor fanOutExecutor;
+    private final Timer heartbeatTimer;
+
+    public AlarmEmitterRegistry(@Value("${sns.alarm.sse.shards:16}") int shardCount,
+                                @Value("${sns.alarm.sse.timeout-ms:1800000}") long timeoutMs,
+                                @Value("${sns.alarm.sse.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+                                @Value("${sns.alarm.sse.write-timeout-ms:5000}") long writeTimeoutMs,
+                                @Value("${sns.alarm.sse.max-pending-events:16}") int maxPendingEvents,
+                                @Value("${sns.alarm.sse.fan-out-threads:4}") int fanOutThreads,
+                                @Value("${sns.alarm.sse.fan-out-queue-size:10000}") int fanOutQueueSize) {
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+        this.timeoutMs = timeoutMs;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.writeTimeoutMs = writeTimeoutMs;
+        this.maxPendingEvents = maxPendingEvents;
+        this.fanOutExecutor = new ThreadPoolExecutor(fanOutThreads, fanOutThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fanOutQueueSize), new CustomizableThreadFactory("alarm-fan-out-"));
+        this.heartbeatTimer = new HashedWheelTimer(new DefaultThreadFactory("alarm-heartbeat", true),
+                100, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < shardCount; i++) {
+            scheduleHeartbeat(shards[i], heartbeatIntervalMs * (i + 1) / shardCount);
+        }
+    }
+
+    public SseEmitter subscribe(Integer userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = add(userId, emitter);
+        // 연결 직후 한 번 보내서 프록시가 응답을 바로 흘려보내게 한다 (핸들러가 반환되면 전송됨)
+        connection.offer(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    public void register(Integer userId, SseEmitter emitter) {
+        add(userId, emitter);
+    }
+
+    private Connection add(Integer userId, SseEmitter emitter) {
+        Connection connection = new Connection(userId, emitter);
+        Shard shard = shardOf(userId);
+        // remove 가 빈 set 을 map 에서 빼는 것과 겹쳐도 빠진 set 에 넣지 않도록 map 의 lock 안에서 추가한다
+        shard.connections.compute(userId, (id, connections) -> {
+            Set<Connection> registered = connections == null ? ConcurrentHashMap.newKeySet() : connections;
+            registered.add(connection);
+            return registered;
+        });
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(e -> connection.close());
+        return connection;
+    }
+
+    public void send(Integer userId, Object data) {
+        Set<Connection> connections = shardOf(userId).connections.get(userId);
+        if (connections == null) {
+            return;
+        }
+        // SseEventBuilder 는 보낼 때 내용을 덧붙이므로 연결마다 새로 만든다
+        connections.forEach(connection -> connection.offer(SseEmitter.event().name(ALARM_EVENT).data(data)));
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            for (Set<Connection> connections : shard.connections.values()) {
+                size += connections.size();
+            }
+        }
+        return size;
+    }
+
+    @PreDestroy
+    public void close() {
+        heartbeatTimer.stop();
+        fanOutExecutor.shutdown();
+        for (Shard shard : shards) {
+            shard.connections.values().forEach(connections -> connections.forEach(connection -> connection.emitter.complete()));
+            shard.connections.clear();
+        }
+    }
+
+    private void remove(Connection connection) {
+        shardOf(connection.userId).connections.computeIfPresent(connection.userId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    private void scheduleHeartbeat(Shard shard, long delayMs) {
+        heartbeatTimer.newTimeout(timeout -> heartbeat(shard), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    // timer 스레드에서는 연결마다 상태를 보고 event 를 넣기만 한다. 쓰기는 fan-out executor 에서
+    private void heartbeat(Shard shard) {
+        if (fanOutExecutor.isShutdown()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        shard.connections.values().forEach(connections -> connections.forEach(connection -> {
+            if (connection.isStuck(now)) {
+                log.debug("userId {} 의 알람 연결이 {} ms 넘게 쓰기를 끝내지 못해 뺍니다.", connection.userId, writeTimeoutMs);
+                connection.close();
+            } else if (connection.isIdle()) {
+                connection.offer(SseEmitter.event().comment("heartbeat"));
+            }
+        }));
+        scheduleHeartbeat(shard, heartbeatIntervalMs);
+    }
+
+    private Shard shardOf(Integer userId) {
+        return shards[Math.floorMod(userId, shards.length)];
+    }
+
+    private static class Shard {
+        private final Map<Integer, Set<Connection>> connections = new ConcurrentHashMap<>();
+    }
+
+    // SSE 연결 하나. 대기열의 event 를 한 스레드가 차례로 쓴다 (scheduled 가 true 인 동안 drain 은 하나만 돈다)
+    private final class Connection {
+        private final Integer userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> events = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // 진행 중인 쓰기를 시작한 시각. 0 이면 쓰고 있지 않다
+        private volatile long writeStartedAt;
+        private volatile boolean closed;
+
+        private Connection(Integer userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (pending.incrementAndGet() > maxPendingEvents) {
+                pending.decrementAndGet();
+                log.debug("userId {} 의 알람 연결이 event {} 개를 받지 못하고 있어 뺍니다.", userId, maxPendingEvents);
+                close();
+                return;
+            }
+            events.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                fanOutExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 밀려 있으면 이번에는 건너뛰고 대기열에 남긴다. 다음 event 나 heartbeat 때 다시 시도한다
+                scheduled.set(false);
+                log.warn("알람 전송 대기열이 가득 차서 userId {} 의 전송을 미룹니다.", userId);
+            }
+        }
+
+        private void drain() {
+            SseEmitter.SseEventBuilder event;
+            while (!closed && (event = events.poll()) != null) {
+                pending.decrementAndGet();
+                writeStartedAt = System.currentTimeMillis();
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // 끊어진 연결. 다음 heartbeat 까지 기다리지 않고 바로 정리
+                    close();
+                } finally {
+                    writeStartedAt = 0;
+                }
+            }
+            if (closed) {
+                // 쓰기가 막혀 있는 동안 빠진 연결. 쓰기가 풀렸으니 응답을 끝낸다
+                emitter.complete();
+                return;
+            }
+            scheduled.set(false);
+            // drain 을 끝내는 사이 빠진 연결
+            if (closed) {
+                completeIfIdle();
+                return;
+            }
+            // drain 을 끝내는 사이 들어온 event
+            if (!events.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private boolean isIdle() {
+            return writeStartedAt == 0 && events.isEmpty();
+        }
+
+        private boolean isStuck(long now) {
+            long startedAt = writeStartedAt;
+            return startedAt != 0 && now - startedAt > writeTimeoutMs;
+        }
+
+        // 돌고 있는 drain 이 있으면 그 drain 이 쓰기를 마치고 응답을 끝낸다
+        private void close() {
+            closed = true;
+            remove(this);
+            completeIfIdle();
+        }
+
+        // scheduled 를 차지한 쪽만 응답을 끝내므로 drain 과 겹쳐도 complete 는 한 번만 부르고, 이후 drain 은 돌지 않는다
+        private void completeIfIdle() {
+            if (scheduled.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+    }
+}
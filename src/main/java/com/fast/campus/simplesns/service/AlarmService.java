@@ -0,0 +1,26 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.controller.response.AlarmResponse;
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.repository.AlarmEntityRepository;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+@RequiredArgsConstructor
+@Service
+public class AlarmService {
+
+    private final AlarmEntityRepository alarmEntityRepository;
+    private final UserEntityRepository userEntityRepository;
+
+    public Page<AlarmResponse> alarmList(String userName, Pageable pageable) {
+        UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow(() ->
+                new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+        return alarmEntityRepository.findAllByUserId(userEntity.getId(), pageable).map(AlarmResponse::fromEntity);
+    }
+}
@@ -0,0 +1,133 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.AlarmType;
+import com.fast.campus.simplesns.model.Comment;
+import com.fast.campus.simplesns.model.CommentCursor;
+import com.fast.campus.simplesns.model.CursorPage;
+import com.fast.campus.simplesns.model.PostCount;
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fast.campus.simplesns.model.entity.CommentEntity;
+import com.fast.campus.simplesns.model.entity.PostEntity;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.model.event.AlarmEvent;
+import com.fast.campus.simplesns.model.event.PostCountsChangedEvent;
+import com.fast.campus.simplesns.repository.CommentEntityRepository;
+import com.fast.campus.simplesns.repository.PostCacheRepository;
+import com.fast.campus.simplesns.repository.PostEntityRepository;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+@Service
+public class CommentService {
+
+	private final CommentEntityRepository commentEntityRepository;
+	private final PostEntityRepository postEntityRepository;
+	private final UserEntityRepository userEntityRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final PostCacheRepository postCacheRepository;
+
+	// 작성 후 이 시간이 지난 댓글만 커서 목록에 내려준다. 댓글 저장 트랜잭션 길이와 노드 간 시계 차이보다 길게
+	@Value("${sns.comment.cursor-lag-ms:2000}")
+	private long cursorLagMs;
+
+	// 단건 조회용 댓글 수. 이 노드의 작성/삭제는 바로 지우고, 다른 노드의 변경은 invalidation 메시지를 받을 때 지운다
+	private final Cache<Integer, Long> storedCounts = Caffeine.newBuilder()
+			.maximumSize(100_000)
+			.expireAfterWrite(Duration.ofSeconds(10))
+			.build();
+
+	// 다른 노드에서 댓글이 바뀌면 (post 수정/삭제 포함) invalidation 통로로 알려준다
+	@PostConstruct
+	void subscribe() {
+		postCacheRepository.subscribe(storedCounts::invalidate);
+	}
+
+	@Transactional
+	public void create(Integer postId, String userName, String comment) {
+		UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow(() ->
+				new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+		PostEntity postEntity = postEntityRepository.findById(postId).orElseThrow(() ->
+				new SnsApplicationException(ErrorCode.POST_NOT_FOUND, String.format("%s not founded", postId)));
+
+		commentEntityRepository.save(CommentEntity.of(postEntity, userEntity, comment));
+		storedCounts.invalidate(postId);
+		eventPublisher.publishEvent(new PostCountsChangedEvent(postId));
+
+		// 알람은 커밋 이후 kafka 로 보내고 여기서는 저장하지 않는다
+		Integer writerId = postEntity.getUser().getId();
+		if (!writerId.equals(userEntity.getId())) {
+			eventPublisher.publishEvent(AlarmEvent.of(writerId, AlarmType.NEW_COMMENT_ON_POST, userEntity.getId(), postId));
+		}
+	}
+
+	@Transactional
+	public void delete(Integer postId, Integer commentId, String userName) {
+		UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow(() ->
+				new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+		CommentEntity commentEntity = commentEntityRepository.findById(commentId)
+				.filter(comment -> comment.getPost().getId().equals(postId))
+				.orElseThrow(() -> new SnsApplicationException(ErrorCode.COMMENT_NOT_FOUND, String.format("%s not founded", commentId)));
+
+		if (!commentEntity.getUser().getId().equals(userEntity.getId())) {
+			throw new SnsApplicationException(ErrorCode.INVALID_PERMISSION, String.format("%s has no permission with comment %s", userName, commentId));
+		}
+
+		commentEntityRepository.delete(commentEntity);
+		storedCounts.invalidate(postId);
+		eventPublisher.publishEvent(new PostCountsChangedEvent(postId));
+	}
+
+	public Page<Comment> list(Integer postId, Pageable pageable) {
+		return commentEntityRepository.findAllCommentsByPostId(postId, pageable);
+	}
+
+	// 오래된 댓글부터 (registered_at, id) 순서로 읽는다. 막 작성된 댓글은 cursorLagMs 가 지난 뒤의 조회에 나온다
+	public CursorPage<Comment> list(Integer postId, CommentCursor after, int size) {
+		Timestamp visibleBefore = Timestamp.from(Instant.now().minusMillis(cursorLagMs));
+		// 다음 페이지 존재 여부를 알기 위해 size + 1 개를 조회
+		List<Comment> comments = commentEntityRepository.findCommentsAfter(
+				postId, after.getRegisteredAt(), after.getId(), visibleBefore, PageRequest.of(0, size + 1));
+		return CursorPage.of(comments, size, comment -> new CommentCursor(comment.getRegisteredAt(), comment.getId()).encode());
+	}
+
+	public long count(Integer postId) {
+		return storedCounts.get(postId, key -> commentEntityRepository.countByPostIdIn(Set.of(key)).stream()
+				.findFirst().map(PostCount::getCount).orElse(0L));
+	}
+
+	public void fillCommentCounts(Collection<PostSummary> posts) {
+		if (posts.isEmpty()) {
+			return;
+		}
+		Map<Integer, Long> counts = counts(posts.stream().map(PostSummary::getId).collect(Collectors.toSet()));
+		posts.forEach(post -> post.setCommentCount(counts.getOrDefault(post.getId(), 0L)));
+	}
+
+	// post 마다 count 를 세지 않고 group by 쿼리 한 번으로 읽는다. 댓글이 없는 post 는 빠진다
+	public Map<Integer, Long> counts(Collection<Integer> postIds) {
+		return commentEntityRepository.countByPostIdIn(postIds).stream()
+				.collect(Collectors.toMap(PostCount::getPostId, PostCount::getCount));
+	}
+}
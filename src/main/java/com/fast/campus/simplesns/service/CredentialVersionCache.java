@@ -0,0 +1,50 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.repository.CredentialRevocationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * userId 별로 마지막으로 확인한 credential version 을 기억한다.
+ * 토큰의 version 이 여기 기록된 값과 같으면 DB 를 다시 조회하지 않고 claim 만으로 인증한다.
+ * 비밀번호 변경/탈퇴는 CredentialRevocationRepository 로 모든 노드에 새 version 을 알리고,
+ * 알림을 놓친 노드도 version-ttl-ms 가 지나면 DB 에서 다시 확인한다.
+ */
+@Component
+public class CredentialVersionCache {
+
+    private final Cache<Integer, Integer> versions;
+
+    public CredentialVersionCache(CredentialRevocationRepository credentialRevocationRepository,
+                                  @Value("${sns.credential.version-cache-size:100000}") long maximumSize,
+                                  @Value("${sns.credential.version-ttl-ms:300000}") long ttlMs) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+        credentialRevocationRepository.subscribe(this::update);
+    }
+
+    public boolean isCurrent(Integer userId, Integer credentialVersion) {
+        Integer known = versions.getIfPresent(userId);
+        return known != null && known.equals(normalize(credentialVersion));
+    }
+
+    // version 은 올라가기만 하므로 변경 전에 읽은 DB 값이 늦게 들어와도 새 version 을 덮어쓰지 않는다
+    public void update(Integer userId, Integer credentialVersion) {
+        versions.asMap().merge(userId, normalize(credentialVersion), Math::max);
+    }
+
+    public void evict(Integer userId) {
+        versions.invalidate(userId);
+    }
+
+    private static Integer normalize(Integer credentialVersion) {
+        return Objects.requireNonNullElse(credentialVersion, 0);
+    }
+}
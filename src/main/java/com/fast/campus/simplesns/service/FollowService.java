@@ -0,0 +1,78 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.entity.FollowEntity;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.model.event.FollowedEvent;
+import com.fast.campus.simplesns.model.event.UnfollowedEvent;
+import com.fast.campus.simplesns.repository.FollowEntityRepository;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class FollowService {
+
+    private final FollowEntityRepository followEntityRepository;
+    private final UserEntityRepository userEntityRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void follow(String followerName, String followingName) {
+        UserEntity follower = getUserEntityOrException(followerName);
+        UserEntity following = getUserEntityOrException(followingName);
+        if (follower.getId().equals(following.getId())) {
+            throw new SnsApplicationException(ErrorCode.INVALID_FOLLOW, String.format("%s cannot follow yourself", followerName));
+        }
+
+        followEntityRepository.findByFollowerAndFollowing(follower, following).ifPresent(it -> {
+            throw new SnsApplicationException(ErrorCode.ALREADY_FOLLOWED, String.format("%s already followed %s", followerName, followingName));
+        });
+
+        if (followEntityRepository.restore(follower.getId(), following.getId()) == 0) {
+            try {
+                followEntityRepository.saveAndFlush(FollowEntity.of(follower, following));
+            } catch (DataIntegrityViolationException e) {
+                // 동시에 들어온 같은 팔로우가 먼저 저장되었다
+                throw new SnsApplicationException(ErrorCode.ALREADY_FOLLOWED, String.format("%s already followed %s", followerName, followingName));
+            }
+        }
+        userEntityRepository.addFollowerCount(following.getId(), 1);
+        eventPublisher.publishEvent(new FollowedEvent(follower.getId(), following.getId()));
+    }
+
+    @Transactional
+    public void unfollow(String followerName, String followingName) {
+        UserEntity follower = getUserEntityOrException(followerName);
+        UserEntity following = getUserEntityOrException(followingName);
+
+        if (followEntityRepository.softDelete(follower.getId(), following.getId()) == 0) {
+            throw new SnsApplicationException(ErrorCode.FOLLOW_NOT_FOUND, String.format("%s does not follow %s", followerName, followingName));
+        }
+        userEntityRepository.addFollowerCount(following.getId(), -1);
+        eventPublisher.publishEvent(new UnfollowedEvent(follower.getId(), following.getId()));
+    }
+
+    // follower_count 컬럼이 생기기 전에 있던 유저의 팔로워 수를 채운다 (이미 채워졌으면 아무것도 하지 않음)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillFollowerCounts() {
+        int updated = userEntityRepository.backfillFollowerCounts();
+        if (updated > 0) {
+            log.info("{} 명의 팔로워 수를 채웠습니다", updated);
+        }
+    }
+
+    private UserEntity getUserEntityOrException(String userName) {
+        return userEntityRepository.findByUserName(userName).orElseThrow(() ->
+                new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+    }
+}
@@ -0,0 +1,99 @@
+package com.fast.campus.simplesns.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 단일 노드/테스트용 로그인 시도 제한.
+ * bucket 은 Caffeine 캐시에 두고, 가득 찰 만큼 접근이 없던 bucket 만 버린다 (다시 만들면 가득 찬 상태라 결과가 같다).
+ * 크기로는 내보내지 않는다. 크기 제한이 있으면 유저 이름을 바꿔가며 시도해서 비어 있는 bucket 을 밀어내고 다시 가득 채울 수 있기 때문이다.
+ * 대신 메모리는 bucket 이 다시 가득 차는 시간 (기본 1 분) 동안 들어온 서로 다른 유저/ip 수에 비례한다.
+ */
+@Component
+@ConditionalOnProperty(name = "sns.login-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLoginAttemptLimiter implements LoginAttemptLimiter {
+
+    private final Cache<String, TokenBucket> userBuckets;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final int userCapacity;
+    private final double userTokensPerNano;
+    private final int ipCapacity;
+    private final double ipTokensPerNano;
+
+    public InMemoryLoginAttemptLimiter(@Value("${sns.login-limit.user.capacity:5}") int userCapacity,
+                                       @Value("${sns.login-limit.user.refill-per-minute:5}") int userRefillPerMinute,
+                                       @Value("${sns.login-limit.ip.capacity:50}") int ipCapacity,
+                                       @Value("${sns.login-limit.ip.refill-per-minute:50}") int ipRefillPerMinute) {
+        this.userCapacity = userCapacity;
+        this.userTokensPerNano = userRefillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+        this.ipCapacity = ipCapacity;
+        this.ipTokensPerNano = ipRefillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+        this.userBuckets = buckets(userCapacity, userRefillPerMinute);
+        this.ipBuckets = buckets(ipCapacity, ipRefillPerMinute);
+    }
+
+    @Override
+    public boolean tryAcquire(String userName, String clientIp) {
+        long now = System.nanoTime();
+        TokenBucket user = bucket(userBuckets, userName, userCapacity, userTokensPerNano, now);
+        if (!user.tryAcquire(now)) {
+            return false;
+        }
+        TokenBucket ip = bucket(ipBuckets, clientIp, ipCapacity, ipTokensPerNano, now);
+        if (!ip.tryAcquire(now)) {
+            // ip 에서 막혔으면 user 쪽에서 가져간 토큰은 돌려준다
+            user.release();
+            return false;
+        }
+        return true;
+    }
+
+    // 대부분은 이미 있는 bucket 이므로 람다를 만들지 않는 조회를 먼저 한다
+    private static TokenBucket bucket(Cache<String, TokenBucket> buckets, String key, int capacity, double tokensPerNano, long now) {
+        TokenBucket bucket = buckets.getIfPresent(key);
+        return bucket != null ? bucket : buckets.get(key, k -> new TokenBucket(capacity, tokensPerNano, now));
+    }
+
+    private static Cache<String, TokenBucket> buckets(int capacity, int refillPerMinute) {
+        // 비어 있던 bucket 이 다시 가득 차는 시간
+        long fullAfterMs = Duration.ofMinutes(1).toMillis() * capacity / Math.max(1, refillPerMinute);
+        return Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(Math.max(1, fullAfterMs)))
+                .build();
+    }
+
+    private static class TokenBucket {
+        private final int capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(int capacity, double tokensPerNano, long now) {
+            this.capacity = capacity;
+            this.tokensPerNano = tokensPerNano;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        private synchronized boolean tryAcquire(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+                refilledAt = now;
+            }
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        private synchronized void release() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+    }
+}
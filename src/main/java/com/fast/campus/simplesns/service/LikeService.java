@@ -0,0 +1,375 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.AlarmType;
+import com.fast.campus.simplesns.model.PostCount;
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fast.campus.simplesns.model.event.AlarmEvent;
+import com.fast.campus.simplesns.repository.LikeEntityRepository;
+import com.fast.campus.simplesns.repository.PostCacheRepository;
+import com.fast.campus.simplesns.repository.PostEntityRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 좋아요 수는 메모리에서 바로 바꾸고, DB 반영은 모아서 JDBC batch 로 한다.
+ * 좋아요 한 번마다 insert + update 를 하면 인기 post 에 요청이 몰릴 때 커넥션 풀(4개)이 바로 막힌다.
+ * - 카운트는 DB 에 커밋된 수 (storedCounts, 목록 조회와 같은 group by 쿼리로 읽는다) + 아직 DB 에 쓰지 않은 이 노드의 변경 (unflushed).
+ *   unflushed 는 post 별 LongAdder 라 인기 post 에 몰린 좋아요가 한 lock 에 줄 서지 않는다
+ * - 중복 좋아요는 이 노드가 아는 (post, user) 상태로만 막고 요청 중에 DB 를 읽지 않는다. 상태는 크기 (sns.like.cache-size) 와
+ *   만료 (sns.like.cache-ttl-ms) 가 있는 캐시와, 아직 DB 에 쓰지 않은 변경에서 찾는다.
+ *   모르는 (post, user) 의 좋아요/취소는 일단 받아들이고, 중복인지는 DB 가 정한다 (이미 있는 row 를 건너뛰는 insert, 없는 row 의 delete).
+ *   이때 카운트는 flush 전까지 하나 어긋날 수 있고, flush 가 실제로 바뀐 row 만 커밋된 수에 반영하므로 그 뒤에 맞게 돌아온다
+ * - 변경 내역은 (post, user) 별 마지막 상태만 남기고 sns.like.flush-interval-ms 마다 batch 로 insert/delete
+ * 다른 노드의 좋아요는 그 노드가 batch 를 커밋한 뒤 PostCacheRepository 의 invalidation 통로로 보내는 메시지를 받아
+ *   커밋된 수만 지우고 다음 조회 때 다시 센다. 같은 메시지로 목록 ETag 도 바뀐다 (PostVersionTracker). row 가 바뀐 post 만 알린다.
+ * 두 노드가 같은 좋아요를 써도 batch 는 실패하지 않는다. 그래도 unique 제약에 걸리면 한 건씩 다시 써서 충돌한 row 만 건너뛴다.
+ * DB 오류 (연결 실패, timeout 등) 로 쓰지 못한 변경은 버리지 않고 큐에 되돌린 뒤, 실패가 이어지는 동안 간격을 늘려가며 다시 쓴다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class LikeService {
+
+	// ON CONFLICT DO NOTHING 은 H2 에 없으므로 NOT EXISTS 로 같은 효과를 낸다
+	private static final String INSERT_SQL = "INSERT INTO \"like\" (post_id, user_id, registered_at) SELECT ?, ?, ? " +
+			"WHERE NOT EXISTS (SELECT 1 FROM \"like\" WHERE post_id = ? AND user_id = ?)";
+	private static final String DELETE_SQL = "DELETE FROM \"like\" WHERE post_id = ? AND user_id = ?";
+	private static final long MAX_RETRY_DELAY_MS = 60_000;
+
+	private final PostEntityRepository postEntityRepository;
+	private final LikeEntityRepository likeEntityRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final PlatformTransactionManager transactionManager;
+	private final ApplicationEventPublisher eventPublisher;
+	private final PostVersionTracker postVersionTracker;
+	private final PostCacheRepository postCacheRepository;
+
+	@Value("${sns.like.batch-size:500}")
+	private int batchSize;
+
+	@Value("${sns.like.cache-size:100000}")
+	private long cacheSize;
+
+	@Value("${sns.like.cache-ttl-ms:60000}")
+	private long cacheTtlMs;
+
+	@Value("${sns.like.flush-interval-ms:1000}")
+	private long flushIntervalMs;
+
+	// (post, user) 별 좋아요 여부. 이 노드가 바꾼 값
+	private Cache<Long, Boolean> likeStates;
+	// 알람을 받을 작성자 id. 읽으면서 post 존재도 확인한다
+	private final Cache<Integer, Integer> writerIds = Caffeine.newBuilder()
+			.maximumSize(100_000)
+			.expireAfterWrite(Duration.ofMinutes(10))
+			.build();
+	// DB 에 커밋된 좋아요 수. 커밋 알림을 받으면 지우고 다음 조회 때 다시 센다
+	private final Cache<Integer, Long> storedCounts = Caffeine.newBuilder()
+			.maximumSize(100_000)
+			.expireAfterWrite(Duration.ofSeconds(10))
+			.build();
+	// 아직 커밋되지 않은 이 노드의 변경 (post 별 +/-). 커밋되면 그만큼 빼고, flush 때 0 인 post 를 지운다
+	private final ConcurrentMap<Integer, LongAdder> unflushed = new ConcurrentHashMap<>();
+	// 아직 쓰지 않은 변경. (post, user) 별 마지막 상태만 남기고, 그 사이 변경들의 카운트 차이는 합쳐 둔다
+	private final ConcurrentMap<Long, LikeOperation> pending = new ConcurrentHashMap<>();
+	// 지금 쓰고 있는 batch. 그 사이 만료된 (post, user) 상태를 찾을 때 쓴다
+	private final Map<Long, LikeOperation> inFlight = new ConcurrentHashMap<>();
+
+	private int consecutiveFailures;
+	private long retryAt;
+
+	@PostConstruct
+	void init() {
+		likeStates = Caffeine.newBuilder()
+				.maximumSize(cacheSize)
+				.expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+				.build();
+		postCacheRepository.subscribe(storedCounts::invalidate);
+	}
+
+	public void like(Integer postId, Integer userId) {
+		Integer writerId = getWriterId(postId);
+		if (!change(postId, userId, true)) {
+			throw new SnsApplicationException(ErrorCode.ALREADY_LIKED, String.format("userId %s already liked post %s", userId, postId));
+		}
+		if (!writerId.equals(userId)) {
+			eventPublisher.publishEvent(AlarmEvent.of(writerId, AlarmType.NEW_LIKE_ON_POST, userId, postId));
+		}
+	}
+
+	public void unlike(Integer postId, Integer userId) {
+		getWriterId(postId);
+		if (!change(postId, userId, false)) {
+			throw new SnsApplicationException(ErrorCode.LIKE_NOT_FOUND, String.format("userId %s has not liked post %s", userId, postId));
+		}
+	}
+
+	public long count(Integer postId) {
+		return counts(List.of(postId)).getOrDefault(postId, 0L);
+	}
+
+	public Map<Integer, Long> counts(Collection<Integer> postIds) {
+		if (postIds.isEmpty()) {
+			return new HashMap<>();
+		}
+		// 캐시에 없는 post 들은 group by 쿼리 한 번으로 읽는다
+		Map<Integer, Long> counts = new HashMap<>(storedCounts.getAll(postIds, this::loadCounts));
+		// 모르는 (post, user) 의 취소가 flush 전에 잠깐 빼는 경우가 있어 0 아래로 내려가지 않게 한다
+		counts.replaceAll((postId, stored) -> Math.max(0L, stored + unflushedOf(postId)));
+		return counts;
+	}
+
+	public void fillLikeCounts(Collection<PostSummary> posts) {
+		if (posts.isEmpty()) {
+			return;
+		}
+		Map<Integer, Long> counts = counts(posts.stream().map(PostSummary::getId).collect(Collectors.toSet()));
+		posts.forEach(post -> post.setLikeCount(counts.getOrDefault(post.getId(), 0L)));
+	}
+
+	@Scheduled(fixedDelayString = "${sns.like.flush-interval-ms:1000}")
+	public synchronized void flush() {
+		if (System.currentTimeMillis() < retryAt) {
+			return;
+		}
+		while (!pending.isEmpty()) {
+			if (!flushBatch()) {
+				consecutiveFailures++;
+				long delay = Math.min(flushIntervalMs << Math.min(consecutiveFailures, 16), MAX_RETRY_DELAY_MS);
+				retryAt = System.currentTimeMillis() + delay;
+				log.warn("좋아요 {} 건을 저장하지 못해 {} ms 뒤에 다시 씁니다.", pending.size(), delay);
+				return;
+			}
+			consecutiveFailures = 0;
+		}
+	}
+
+	@PreDestroy
+	synchronized void flushOnShutdown() {
+		retryAt = 0;
+		flush();
+		if (!pending.isEmpty()) {
+			log.error("종료하면서 좋아요 {} 건을 저장하지 못했습니다.", pending.size());
+		}
+	}
+
+	// (post, user) 의 좋아요 여부를 liked 로 바꾼다. 이 노드가 아는 상태가 이미 liked 이면 false
+	private boolean change(Integer postId, Integer userId, boolean liked) {
+		long key = key(postId, userId);
+		ConcurrentMap<Long, Boolean> states = likeStates.asMap();
+		while (true) {
+			Boolean cached = states.get(key);
+			Boolean current = cached != null ? cached : unwrittenState(key);
+			if (current != null && current == liked) {
+				return false;
+			}
+			// 같은 (post, user) 에 동시에 들어온 요청 중 하나만 바꾼다
+			boolean changed = cached == null ? states.putIfAbsent(key, liked) == null : states.replace(key, cached, liked);
+			if (changed) {
+				long delta = liked ? 1L : -1L;
+				addUnflushed(postId, delta);
+				pending.merge(key, new LikeOperation(postId, userId, liked, delta), LikeOperation::then);
+				return true;
+			}
+		}
+	}
+
+	// 캐시에서 만료된 (post, user) 라도 아직 DB 에 쓰지 않은 변경이 있으면 그 값이 최신 상태다. 없으면 모른다 (null)
+	private Boolean unwrittenState(long key) {
+		LikeOperation operation = pending.get(key);
+		if (operation == null) {
+			operation = inFlight.get(key);
+		}
+		return operation == null ? null : operation.liked;
+	}
+
+	// flush 가 0 이 된 adder 를 지우는 사이에 더했으면, 지워진 adder 에서 되돌리고 새 adder 에 다시 더한다
+	private void addUnflushed(Integer postId, long delta) {
+		while (true) {
+			LongAdder adder = unflushed.get(postId);
+			if (adder == null) {
+				adder = unflushed.computeIfAbsent(postId, id -> new LongAdder());
+			}
+			adder.add(delta);
+			if (unflushed.get(postId) == adder) {
+				return;
+			}
+			adder.add(-delta);
+		}
+	}
+
+	private long unflushedOf(Integer postId) {
+		LongAdder adder = unflushed.get(postId);
+		return adder == null ? 0L : adder.sum();
+	}
+
+	// 쓰지 못한 변경이 있으면 pending 에 되돌리고 false
+	private boolean flushBatch() {
+		Map<Long, LikeOperation> operations = new LinkedHashMap<>();
+		for (Map.Entry<Long, LikeOperation> entry : pending.entrySet()) {
+			if (operations.size() >= batchSize) {
+				break;
+			}
+			// 상태를 찾는 쪽이 두 map 모두에서 놓치지 않도록 inFlight 에 먼저 넣는다. 꺼내는 사이 새 변경이 합쳐졌으면 다음 batch 로
+			inFlight.put(entry.getKey(), entry.getValue());
+			if (pending.remove(entry.getKey(), entry.getValue())) {
+				operations.put(entry.getKey(), entry.getValue());
+			} else {
+				inFlight.remove(entry.getKey(), entry.getValue());
+			}
+		}
+
+		Set<LikeOperation> changed = new HashSet<>();
+		Set<LikeOperation> failed = new HashSet<>();
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		try {
+			changed.addAll(transactionTemplate.execute(status -> write(operations.values())));
+		} catch (DataIntegrityViolationException e) {
+			// 한 건 때문에 batch 전체를 버리지 않도록 한 건씩 다시 쓴다
+			log.warn("좋아요 batch {} 건이 제약에 걸려 한 건씩 다시 씁니다. {}", operations.size(), e.toString());
+			for (LikeOperation op : operations.values()) {
+				try {
+					if (writeOne(transactionTemplate, op)) {
+						changed.add(op);
+					}
+				} catch (DataAccessException oneFailure) {
+					log.warn("좋아요를 저장하지 못했습니다. post {} user {} {}", op.postId, op.userId, oneFailure.toString());
+					failed.add(op);
+				}
+			}
+		} catch (DataAccessException e) {
+			log.warn("좋아요 batch {} 건을 저장하지 못했습니다. {}", operations.size(), e.toString());
+			failed.addAll(operations.values());
+		}
+
+		// 쓰지 못한 변경은 그 사이 들어온 같은 (post, user) 의 변경보다 앞선 것으로 되돌린다
+		failed.forEach(op -> pending.merge(op.key(), op, (newer, older) -> older.then(newer)));
+		operations.keySet().forEach(inFlight::remove);
+
+		// 커밋된 변경은 unflushed 에서 빼고, 실제로 바뀐 row 는 모든 노드 (자신 포함) 에 알린다.
+		// 각 노드는 커밋된 수를 다시 세고 목록 ETag 를 바꾼다. 이미 있던 좋아요처럼 row 가 바뀌지 않았으면 커밋된 수도 그대로다
+		operations.values().stream()
+				.filter(op -> !failed.contains(op))
+				.forEach(op -> addUnflushed(op.postId, -op.delta));
+		operations.values().stream().map(op -> op.postId).distinct()
+				.forEach(postId -> unflushed.computeIfPresent(postId, (id, adder) -> adder.sum() == 0 ? null : adder));
+		changed.stream()
+				.map(op -> op.postId)
+				.distinct()
+				.forEach(postVersionTracker::changed);
+		return failed.isEmpty();
+	}
+
+	// row 가 바뀐 변경을 돌려준다
+	private Set<LikeOperation> write(Collection<LikeOperation> operations) {
+		List<LikeOperation> inserts = new ArrayList<>();
+		List<LikeOperation> deletes = new ArrayList<>();
+		operations.forEach(op -> (op.liked ? inserts : deletes).add(op));
+		Set<LikeOperation> changed = new HashSet<>();
+		if (!deletes.isEmpty()) {
+			collectChanged(deletes, jdbcTemplate.batchUpdate(DELETE_SQL, rows(deletes)), changed);
+		}
+		if (!inserts.isEmpty()) {
+			collectChanged(inserts, jdbcTemplate.batchUpdate(INSERT_SQL, rows(inserts)), changed);
+		}
+		return changed;
+	}
+
+	// 드라이버가 건수를 알려주지 않으면 (SUCCESS_NO_INFO) 바뀐 것으로 본다
+	private static void collectChanged(List<LikeOperation> operations, int[] updateCounts, Set<LikeOperation> changed) {
+		for (int i = 0; i < operations.size(); i++) {
+			if (updateCounts[i] != 0) {
+				changed.add(operations.get(i));
+			}
+		}
+	}
+
+	private static List<Object[]> rows(List<LikeOperation> operations) {
+		return operations.stream().map(LikeOperation::row).collect(Collectors.toList());
+	}
+
+	// row 가 바뀌었으면 true. 다른 노드가 먼저 넣은 좋아요는 바뀌지 않은 것으로 본다
+	private boolean writeOne(TransactionTemplate transactionTemplate, LikeOperation op) {
+		try {
+			Integer updated = transactionTemplate.execute(status -> jdbcTemplate.update(op.liked ? INSERT_SQL : DELETE_SQL, op.row()));
+			return updated != null && updated != 0;
+		} catch (DuplicateKeyException e) {
+			log.debug("좋아요가 이미 저장되어 있습니다. post {} user {}", op.postId, op.userId);
+			return false;
+		}
+	}
+
+	private Integer getWriterId(Integer postId) {
+		return writerIds.get(postId, id -> postEntityRepository.findUserIdById(id).orElseThrow(() ->
+				new SnsApplicationException(ErrorCode.POST_NOT_FOUND, String.format("%s not founded", id))));
+	}
+
+	private Map<Integer, Long> loadCounts(Iterable<? extends Integer> postIds) {
+		Map<Integer, Long> counts = new HashMap<>();
+		postIds.forEach(postId -> counts.put(postId, 0L));
+		for (PostCount count : likeEntityRepository.countByPostIdIn(counts.keySet())) {
+			counts.put(count.getPostId(), count.getCount());
+		}
+		return counts;
+	}
+
+	private static long key(Integer postId, Integer userId) {
+		return ((long) postId << 32) | (userId & 0xffffffffL);
+	}
+
+	private static class LikeOperation {
+		private final Integer postId;
+		private final Integer userId;
+		private final boolean liked;
+		// 이 변경과 합쳐진 앞선 변경들이 unflushed 에 더한 값
+		private final long delta;
+		private final Instant occurredAt = Instant.now();
+
+		private LikeOperation(Integer postId, Integer userId, boolean liked, long delta) {
+			this.postId = postId;
+			this.userId = userId;
+			this.liked = liked;
+			this.delta = delta;
+		}
+
+		// 같은 (post, user) 의 다음 변경. 상태는 next 를 따르고 카운트 차이는 합친다
+		private LikeOperation then(LikeOperation next) {
+			return new LikeOperation(postId, userId, next.liked, delta + next.delta);
+		}
+
+		private long key() {
+			return LikeService.key(postId, userId);
+		}
+
+		private Object[] row() {
+			return liked
+					? new Object[]{postId, userId, Timestamp.from(occurredAt), postId, userId}
+					: new Object[]{postId, userId};
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package com.fast.campus.simplesns.service;
+
+/**
+ * 로그인 시도 제한 (token bucket). userName 과 client ip 별로 bucket 을 두고 둘 다 남아 있을 때만 통과시킨다.
+ * bcrypt 와 user 조회보다 먼저 호출되므로 그보다 훨씬 싸야 한다.
+ */
+public interface LoginAttemptLimiter {
+
+    boolean tryAcquire(String userName, String clientIp);
+}
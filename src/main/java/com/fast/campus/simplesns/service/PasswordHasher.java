@@ -0,0 +1,134 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * bcrypt 해시/비교를 전용 스레드 풀에서 실행한다.
+ * 요청 스레드에서 바로 돌리면 로그인이 몰릴 때 모든 코어가 bcrypt 에 묶여 피드 같은 가벼운 요청까지 밀린다.
+ * 스레드 수와 대기열 크기를 제한하고, 대기열이 가득 차거나 오래 기다리면 429 로 바로 돌려보낸다.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    // $2a$10$... 형식에서 cost 를 읽는다
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final BCryptPasswordEncoder encoder;
+    private final int strength;
+    private final long waitTimeoutMs;
+    private final ThreadPoolExecutor executor;
+    // 대기열에서 기다린 시간은 빼고 bcrypt 자체에 걸린 시간
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    // 없는 유저로 로그인할 때 비교할 해시. 있는 유저와 응답 시간이 같도록 같은 cost 로 시작할 때 한 번 만든다
+    private final String dummyHash;
+
+    public PasswordHasher(BCryptPasswordEncoder encoder,
+                          @Value("${sns.password.bcrypt-strength:10}") int strength,
+                          @Value("${sns.password.hashing-threads:0}") int threads,
+                          @Value("${sns.password.queue-size:64}") int queueSize,
+                          @Value("${sns.password.wait-timeout-ms:3000}") long waitTimeoutMs) {
+        this.encoder = encoder;
+        this.strength = strength;
+        this.waitTimeoutMs = waitTimeoutMs;
+        // 0 이면 코어의 절반만 쓴다 (나머지는 일반 요청 몫)
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.dummyHash = encoder.encode("dummy-password");
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new CustomizableThreadFactory("password-hasher-"));
+
+        // actuator 가 있으면 global registry 를 통해 노출된다
+        this.encodeTimer = hashingTimer("encode");
+        this.matchesTimer = hashingTimer("matches");
+        Gauge.builder("sns.password.hashing.queue", executor, e -> e.getQueue().size())
+                .register(Metrics.globalRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return await(submit(encodeTimer, () -> encoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(submit(matchesTimer, () -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    // 결과는 버리고 비교 비용만 치른다 (USER_NOT_FOUND 와 INVALID_PASSWORD 의 응답 시간을 맞춤)
+    public void matchesDummy(String rawPassword) {
+        matches(rawPassword, dummyHash);
+    }
+
+    // 로그인 응답을 기다리게 하지 않는 재해시용. 대기열이 가득 차면 null
+    public CompletableFuture<String> encodeLater(String rawPassword) {
+        try {
+            return submit(encodeTimer, () -> encoder.encode(rawPassword));
+        } catch (SnsApplicationException e) {
+            return null;
+        }
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    // 해시 문자열에서 cost 를 읽는다. bcrypt 형식이 아니면 null
+    public static Integer costOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return null;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() ? Integer.valueOf(matcher.group(1)) : null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private static Timer hashingTimer(String operation) {
+        return Timer.builder("sns.password.hashing")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(task), executor);
+        } catch (RejectedExecutionException e) {
+            throw new SnsApplicationException(ErrorCode.TOO_MANY_REQUESTS, "password hashing queue is full");
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new SnsApplicationException(ErrorCode.TOO_MANY_REQUESTS, "password hashing timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "interrupted while hashing password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, e.getCause().toString());
+        }
+    }
+}
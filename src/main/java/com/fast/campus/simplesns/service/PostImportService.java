@@ -0,0 +1,140 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.controller.request.PostImportRequest;
+import com.fast.campus.simplesns.model.ImportProgress;
+import com.fast.campus.simplesns.model.entity.PostEntity;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.repository.PostSearchRepository;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 다른 시스템에서 옮겨오는 post 를 NDJSON 으로 받아 저장한다.
+ * 한 줄씩 읽어서 chunk-size 만큼 모이면 한 트랜잭션으로 batch insert 하고 커밋한다.
+ * 메모리에는 chunk 하나와 작성자 캐시 (크기 제한) 만 남으므로 업로드 크기와 관계없이 일정하다.
+ * 옮겨온 과거 글이므로 팔로워 타임라인 fan-out 은 하지 않고, 검색 색인에는 chunk 가 커밋된 뒤 넣는다.
+ */
+@Slf4j
+@Service
+public class PostImportService {
+
+	private final EntityManager entityManager;
+	private final UserEntityRepository userEntityRepository;
+	private final PostSearchRepository postSearchRepository;
+	private final PostVersionTracker postVersionTracker;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectReader lineReader;
+	private final int chunkSize;
+	private final long authorCacheSize;
+
+	public PostImportService(EntityManager entityManager,
+							 UserEntityRepository userEntityRepository,
+							 PostSearchRepository postSearchRepository,
+							 PostVersionTracker postVersionTracker,
+							 PlatformTransactionManager transactionManager,
+							 ObjectMapper objectMapper,
+							 @Value("${sns.post.import.chunk-size:1000}") int chunkSize,
+							 @Value("${sns.post.import.author-cache-size:100000}") long authorCacheSize) {
+		this.entityManager = entityManager;
+		this.userEntityRepository = userEntityRepository;
+		this.postSearchRepository = postSearchRepository;
+		this.postVersionTracker = postVersionTracker;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.lineReader = objectMapper.readerFor(PostImportRequest.class);
+		this.chunkSize = chunkSize;
+		this.authorCacheSize = authorCacheSize;
+	}
+
+	// chunk 가 커밋될 때마다, 그리고 끝났을 때 listener 에 진행 상황을 넘긴다
+	public ImportProgress importPosts(InputStream in, Consumer<ImportProgress> listener) throws IOException {
+		ImportProgress progress = new ImportProgress();
+		// 작성자 이름마다 한 번만 조회 (없는 이름도 기억)
+		Cache<String, Optional<Integer>> authors = Caffeine.newBuilder().maximumSize(authorCacheSize).build();
+		List<PostImportRequest> chunk = new ArrayList<>(chunkSize);
+		List<Integer> authorIds = new ArrayList<>(chunkSize);
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank()) {
+					continue;
+				}
+				progress.read();
+				PostImportRequest request = parse(line);
+				Integer authorId = request == null || request.getUserName() == null
+						? null : authors.get(request.getUserName(), userEntityRepository::findIdByUserName).orElse(null);
+				if (authorId == null || request.getTitle() == null || request.getBody() == null) {
+					progress.reject();
+					continue;
+				}
+				chunk.add(request);
+				authorIds.add(authorId);
+				if (chunk.size() == chunkSize) {
+					flush(chunk, authorIds, progress, listener);
+				}
+			}
+			flush(chunk, authorIds, progress, listener);
+			progress.finish(null);
+		} catch (RuntimeException e) {
+			// 앞에서 커밋된 chunk 는 그대로 두고 멈춘다. committedLines 다음 줄부터 다시 올리면 된다
+			log.error("post import 가 {} 번째 줄에서 중단되었습니다. {}", progress.getLines(), e.toString());
+			progress.finish(e.toString());
+		}
+		listener.accept(progress);
+		return progress;
+	}
+
+	private void flush(List<PostImportRequest> chunk, List<Integer> authorIds, ImportProgress progress, Consumer<ImportProgress> listener) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		List<PostEntity> saved = new ArrayList<>(chunk.size());
+		transactionTemplate.executeWithoutResult(status -> {
+			for (int i = 0; i < chunk.size(); i++) {
+				PostImportRequest request = chunk.get(i);
+				PostEntity entity = PostEntity.of(request.getTitle(), request.getBody(),
+						entityManager.getReference(UserEntity.class, authorIds.get(i)));
+				entityManager.persist(entity);
+				saved.add(entity);
+			}
+			entityManager.flush();
+			entityManager.clear();
+		});
+		saved.forEach(post -> postSearchRepository.index(post.getId(), post.getTitle(), post.getBody()));
+		// 목록 ETag 는 chunk 마다 한 번만 바꾼다
+		postVersionTracker.changed(saved.get(saved.size() - 1).getId());
+		progress.commit(chunk.size());
+		chunk.clear();
+		authorIds.clear();
+		listener.accept(progress);
+	}
+
+	private PostImportRequest parse(String line) {
+		try {
+			return lineReader.readValue(line);
+		} catch (JsonProcessingException e) {
+			return null;
+		}
+	}
+}
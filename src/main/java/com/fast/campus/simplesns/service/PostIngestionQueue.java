@@ -0,0 +1,233 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.event.PostCreatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * post 작성을 모아서 한 트랜잭션, 한 번의 jdbc batch 로 저장한다 (sns.post.ingestion.mode=write-behind).
+ * post id 는 IDENTITY 라 Hibernate 는 insert 를 묶지 않는다. jdbc 로 직접 addBatch 하고 만들어진 id 를 generated keys 로 한 번에 받는다.
+ * 호출한 쪽은 커밋이 끝난 뒤에 id 를 받는다. batch 가 실패하면 한 건씩 다시 저장해서 실패한 건만 예외로 끝낸다.
+ * 팔로워 fan-out 같은 PostCreatedEvent 처리는 호출한 쪽에 id 를 돌려준 다음, 트랜잭션 밖에서 실행한다.
+ * wait-timeout-ms 안에 커밋되지 않거나 종료 중에 남은 post 는 503 으로 끝난다 (늦게 커밋될 수는 있다).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "sns.post.ingestion", name = "mode", havingValue = "write-behind")
+public class PostIngestionQueue {
+
+	private static final String INSERT_SQL = "INSERT INTO \"post\" (title, body, user_id, registered_at) VALUES (?, ?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transactionTemplate;
+	private final BlockingQueue<PendingPost> queue;
+	private final ExecutorService flushers;
+	private final int batchSize;
+	private final long lingerNanos;
+	private final long waitTimeoutMs;
+	private volatile boolean running = true;
+
+	public PostIngestionQueue(JdbcTemplate jdbcTemplate,
+							  ApplicationEventPublisher eventPublisher,
+							  PlatformTransactionManager transactionManager,
+							  @Value("${sns.post.ingestion.batch-size:50}") int batchSize,
+							  @Value("${sns.post.ingestion.linger-ms:5}") long lingerMs,
+							  @Value("${sns.post.ingestion.queue-size:10000}") int queueSize,
+							  @Value("${sns.post.ingestion.flush-threads:2}") int flushThreads,
+							  @Value("${sns.post.ingestion.wait-timeout-ms:3000}") long waitTimeoutMs) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.eventPublisher = eventPublisher;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.queue = new ArrayBlockingQueue<>(queueSize);
+		this.batchSize = batchSize;
+		this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+		this.waitTimeoutMs = waitTimeoutMs;
+		this.flushers = Executors.newFixedThreadPool(flushThreads, new CustomizableThreadFactory("post-ingestion-"));
+		for (int i = 0; i < flushThreads; i++) {
+			flushers.execute(this::run);
+		}
+	}
+
+	// 커밋된 뒤 post id 로 완료된다. 대기열이 가득 차면 429
+	public CompletableFuture<Integer> submit(String title, String body, Integer userId) {
+		PendingPost post = new PendingPost(title, body, userId);
+		if (!running || !queue.offer(post)) {
+			throw new SnsApplicationException(ErrorCode.TOO_MANY_REQUESTS, "post ingestion queue is full");
+		}
+		return post.result;
+	}
+
+	// 대기열에 넣고 커밋될 때까지 기다린다. wait-timeout-ms 를 넘기면 503
+	public Integer save(String title, String body, Integer userId) {
+		CompletableFuture<Integer> saved = submit(title, body, userId);
+		try {
+			return saved.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			throw new SnsApplicationException(ErrorCode.SERVICE_UNAVAILABLE, "post ingestion timed out");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "interrupted while saving post");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, e.getCause().toString());
+		}
+	}
+
+	@PreDestroy
+	void shutdown() throws InterruptedException {
+		// 남은 post 를 저장하고 종료
+		running = false;
+		flushers.shutdown();
+		if (!flushers.awaitTermination(10, TimeUnit.SECONDS)) {
+			log.error("post 저장 스레드가 종료되지 않았습니다. 남은 post {}", queue.size());
+			flushers.shutdownNow();
+		}
+		// 저장하지 못한 post 를 기다리는 요청은 바로 끝낸다
+		List<PendingPost> remaining = new ArrayList<>();
+		queue.drainTo(remaining);
+		fail(remaining, new SnsApplicationException(ErrorCode.SERVICE_UNAVAILABLE, "post ingestion is shutting down"));
+	}
+
+	private void run() {
+		List<PendingPost> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				PendingPost first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				fill(batch);
+				write(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				fail(batch, new SnsApplicationException(ErrorCode.SERVICE_UNAVAILABLE, "post ingestion is shutting down"));
+				return;
+			} catch (RuntimeException e) {
+				log.error("post 저장 중 오류가 발생했습니다. {}", e.toString());
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	// 이미 쌓인 것은 바로 가져오고, 모자라면 linger 동안만 더 기다린다
+	private void fill(List<PendingPost> batch) throws InterruptedException {
+		queue.drainTo(batch, batchSize - batch.size());
+		long deadline = System.nanoTime() + lingerNanos;
+		while (batch.size() < batchSize) {
+			long remaining = deadline - System.nanoTime();
+			PendingPost next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+			if (next == null) {
+				return;
+			}
+			batch.add(next);
+			queue.drainTo(batch, batchSize - batch.size());
+		}
+	}
+
+	private void write(List<PendingPost> batch) {
+		List<PostCreatedEvent> events;
+		try {
+			events = transactionTemplate.execute(status -> persist(batch));
+		} catch (RuntimeException e) {
+			if (batch.size() == 1) {
+				batch.get(0).result.completeExceptionally(e);
+				return;
+			}
+			log.warn("post batch 저장에 실패해서 한 건씩 다시 저장합니다. size {} {}", batch.size(), e.toString());
+			batch.forEach(post -> write(List.of(post)));
+			return;
+		}
+		// 먼저 응답하고, 커밋된 뒤이므로 이벤트는 트랜잭션 밖에서 바로 처리된다
+		for (int i = 0; i < batch.size(); i++) {
+			batch.get(i).result.complete(events.get(i).getPostId());
+		}
+		events.forEach(this::publish);
+	}
+
+	// 한 post 의 fan-out 이 실패해도 같은 batch 의 나머지 post 는 처리한다
+	private void publish(PostCreatedEvent event) {
+		try {
+			eventPublisher.publishEvent(event);
+		} catch (RuntimeException e) {
+			log.error("post {} 의 작성 이벤트를 처리하지 못했습니다. {}", event.getPostId(), e.toString());
+		}
+	}
+
+	private static void fail(List<PendingPost> batch, RuntimeException e) {
+		batch.forEach(post -> post.result.completeExceptionally(e));
+	}
+
+	private List<PostCreatedEvent> persist(List<PendingPost> batch) {
+		List<Integer> ids = jdbcTemplate.execute((ConnectionCallback<List<Integer>>) connection -> insert(connection, batch));
+		if (ids == null || ids.size() != batch.size()) {
+			throw new IllegalStateException(String.format("expected %d post ids but got %s", batch.size(), ids));
+		}
+
+		List<PostCreatedEvent> events = new ArrayList<>(batch.size());
+		for (int i = 0; i < batch.size(); i++) {
+			PendingPost post = batch.get(i);
+			events.add(new PostCreatedEvent(ids.get(i), post.userId, post.title, post.body));
+		}
+		return events;
+	}
+
+	// user 는 select 없이 id 로만 건다 (없는 user 면 insert 가 FK 로 실패). id 는 addBatch 한 순서대로 돌아온다
+	private static List<Integer> insert(Connection connection, List<PendingPost> batch) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+			for (PendingPost post : batch) {
+				statement.setString(1, post.title);
+				statement.setString(2, post.body);
+				statement.setInt(3, post.userId);
+				statement.setTimestamp(4, Timestamp.from(Instant.now()));
+				statement.addBatch();
+			}
+			statement.executeBatch();
+			List<Integer> ids = new ArrayList<>(batch.size());
+			try (ResultSet keys = statement.getGeneratedKeys()) {
+				while (keys.next()) {
+					ids.add(keys.getInt(1));
+				}
+			}
+			return ids;
+		}
+	}
+
+	private static class PendingPost {
+		private final String title;
+		private final String body;
+		private final Integer userId;
+		private final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+		private PendingPost(String title, String body, Integer userId) {
+			this.title = title;
+			this.body = body;
+			this.userId = userId;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fast.campus.simplesns.model.event.PostDeletedEvent;
+import com.fast.campus.simplesns.model.event.PostModifiedEvent;
+import com.fast.campus.simplesns.repository.PostCacheRepository;
+import com.fast.campus.simplesns.repository.PostEntityRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 단건 post 조회 read-through 캐시. 로컬 LRU (Caffeine) → 공유 tier (PostCacheRepository) → DB 순으로 찾는다.
+ * 같은 post 에 동시에 miss 가 나면 Caffeine 이 첫 요청의 로드를 나머지가 기다리게 하므로, 노드마다 한 번만 Redis/DB 에 간다.
+ * 좋아요/댓글 수는 자주 바뀌므로 담지 않고, 읽을 때 PostService 가 채운다.
+ * 수정/삭제가 커밋되면 공유 사본을 지우고 모든 노드에 알린다. 커밋 전 값을 읽은 로드가 알림 뒤에 다시 넣는 경우는 TTL 로 정리된다.
+ */
+@Component
+public class PostReadCache {
+
+	private final PostCacheRepository postCacheRepository;
+	private final PostEntityRepository postEntityRepository;
+	private final Cache<Integer, PostSummary> local;
+
+	public PostReadCache(PostCacheRepository postCacheRepository,
+						 PostEntityRepository postEntityRepository,
+						 @Value("${sns.post.cache.local-size:10000}") long localSize,
+						 @Value("${sns.post.cache.local-ttl-ms:60000}") long localTtlMs) {
+		this.postCacheRepository = postCacheRepository;
+		this.postEntityRepository = postEntityRepository;
+		this.local = Caffeine.newBuilder()
+				.maximumSize(localSize)
+				.expireAfterWrite(Duration.ofMillis(localTtlMs))
+				.build();
+		postCacheRepository.subscribe(local::invalidate);
+	}
+
+	// 캐시된 인스턴스를 그대로 내주지 않는다 (호출한 쪽이 카운트를 채운다)
+	public Optional<PostSummary> get(Integer postId) {
+		return Optional.ofNullable(local.get(postId, this::load)).map(PostReadCache::copy);
+	}
+
+	// 없는 post 는 캐시하지 않는다
+	private PostSummary load(Integer postId) {
+		return postCacheRepository.find(postId).orElseGet(() -> {
+			List<PostSummary> found = postEntityRepository.findPostSummariesByIdIn(List.of(postId));
+			if (found.isEmpty()) {
+				return null;
+			}
+			postCacheRepository.save(found.get(0));
+			return found.get(0);
+		});
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onModified(PostModifiedEvent event) {
+		evict(event.getPostId());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onDeleted(PostDeletedEvent event) {
+		evict(event.getPostId());
+	}
+
+	private void evict(Integer postId) {
+		local.invalidate(postId);
+		postCacheRepository.evict(postId);
+	}
+
+	private static PostSummary copy(PostSummary post) {
+		return new PostSummary(post.getId(), post.getTitle(), post.getBody(), post.getUserId(), post.getUserName(),
+				post.getRegisteredAt(), post.getUpdatedAt(), 0L, 0L);
+	}
+}
@@ -0,0 +1,75 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.CursorPage;
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fast.campus.simplesns.model.SearchCursor;
+import com.fast.campus.simplesns.model.SearchHit;
+import com.fast.campus.simplesns.model.event.PostCreatedEvent;
+import com.fast.campus.simplesns.model.event.PostDeletedEvent;
+import com.fast.campus.simplesns.model.event.PostModifiedEvent;
+import com.fast.campus.simplesns.repository.PostEntityRepository;
+import com.fast.campus.simplesns.repository.PostSearchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+@Service
+public class PostSearchService {
+
+	private static final int MAX_QUERY_LENGTH = 200;
+
+	private final PostSearchRepository postSearchRepository;
+	private final PostEntityRepository postEntityRepository;
+	private final LikeService likeService;
+	private final CommentService commentService;
+
+	// 제목/본문에 검색어의 모든 단어가 들어간 post 를 관련도 순으로
+	@Transactional(readOnly = true)
+	public CursorPage<PostSummary> search(String query, SearchCursor after, int size) {
+		if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+			throw new SnsApplicationException(ErrorCode.INVALID_SEARCH_QUERY, String.format("%s is not a valid query", query));
+		}
+
+		// 다음 페이지 존재 여부를 알기 위해 size + 1 개를 조회
+		CursorPage<SearchHit> page = CursorPage.of(postSearchRepository.search(query, after, size + 1), size,
+				hit -> hit.toCursor().encode());
+		if (page.getContent().isEmpty()) {
+			return new CursorPage<>(List.of(), null, false);
+		}
+
+		List<Integer> postIds = page.getContent().stream().map(SearchHit::getPostId).collect(Collectors.toList());
+		// 색인 반영 전에 삭제된 post 는 조회 결과에서 빠진다
+		List<PostSummary> found = postEntityRepository.findPostSummariesByIdIn(postIds);
+		likeService.fillLikeCounts(found);
+		commentService.fillCommentCounts(found);
+		Map<Integer, PostSummary> posts = found.stream()
+				.collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+		return page.map(hit -> posts.get(hit.getPostId())).filter(Objects::nonNull);
+	}
+
+	// 커밋 이후에 색인 (트랜잭션 밖에서 발행되면 바로)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCreated(PostCreatedEvent event) {
+		postSearchRepository.index(event.getPostId(), event.getTitle(), event.getBody());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onModified(PostModifiedEvent event) {
+		postSearchRepository.index(event.getPostId(), event.getTitle(), event.getBody());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onDeleted(PostDeletedEvent event) {
+		postSearchRepository.remove(event.getPostId());
+	}
+}
@@ -1,18 +1,42 @@
 package com.fast.campus.simplesns.service;
 
+import com.fast.campus.simplesns.config.datasource.ReadYourWritesTracker;
 import com.fast.campus.simplesns.exception.ErrorCode;
 import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.CursorPage;
 import com.fast.campus.simplesns.model.Post;
+import com.fast.campus.simplesns.model.PostCursor;
+import com.fast.campus.simplesns.model.PostExport;
+import com.fast.campus.simplesns.model.PostField;
+import com.fast.campus.simplesns.model.PostFields;
+import com.fast.campus.simplesns.model.PostSummary;
 import com.fast.campus.simplesns.model.entity.PostEntity;
 import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.model.event.PostCreatedEvent;
+import com.fast.campus.simplesns.model.event.PostDeletedEvent;
+import com.fast.campus.simplesns.model.event.PostModifiedEvent;
 import com.fast.campus.simplesns.repository.PostEntityRepository;
 import com.fast.campus.simplesns.repository.UserEntityRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 
 @RequiredArgsConstructor
 @Service
@@ -20,13 +44,29 @@ public class PostService {
 
 	private final PostEntityRepository postEntityRepository;
 	private final UserEntityRepository userEntityRepository;
-
-	@Transactional
-	public void create(String userName, String title, String body) {
+	private final ApplicationEventPublisher eventPublisher;
+	private final LikeService likeService;
+	private final CommentService commentService;
+	private final ObjectProvider<PostIngestionQueue> ingestionQueue;
+	// sns.datasource.routing=true 일 때만 있다
+	private final ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+	private final PostReadCache postReadCache;
+
+	// write-behind 모드에서는 커넥션을 잡고 기다리지 않도록 트랜잭션 없이 대기열에 넣고 커밋될 때까지 기다린다
+	public Integer create(String title, String body, String userName) {
 		UserEntity userEntity = userEntityRepository.findByUserName(userName)
 				.orElseThrow(() -> new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("userName is %s", userName)));
-		PostEntity postEntity = PostEntity.of(title, body, userEntity);
-		postEntityRepository.save(postEntity);
+		PostIngestionQueue queue = ingestionQueue.getIfAvailable();
+		if (queue != null) {
+			Integer postId = queue.save(title, body, userEntity.getId());
+			// 저장 스레드의 커밋에는 요청한 유저가 없어서 routing datasource 가 기록하지 못한다. 커밋된 뒤이므로 여기서 기록
+			readYourWritesTracker.ifAvailable(tracker -> tracker.recordWrite(userName));
+			return postId;
+		}
+		PostEntity postEntity = postEntityRepository.save(PostEntity.of(title, body, userEntity));
+		// save 가 커밋된 뒤이므로 바로 팔로워 타임라인에 fan-out
+		eventPublisher.publishEvent(new PostCreatedEvent(postEntity.getId(), userEntity.getId(), title, body));
+		return postEntity.getId();
 	}
 
 	@Transactional
@@ -44,6 +84,8 @@ public class PostService {
 
 		postEntity.setTitle(title);
 		postEntity.setBody(body);
+		// 커밋 이후 검색 색인과 단건 조회 캐시 갱신
+		eventPublisher.publishEvent(new PostModifiedEvent(postId, title, body));
 
 		return Post.fromEntity(postEntityRepository.saveAndFlush(postEntity));
 
@@ -62,15 +104,136 @@ public class PostService {
 		}
 
 		postEntityRepository.delete(postEntity);
+		eventPublisher.publishEvent(new PostDeletedEvent(postId));
+	}
+
+	// 본문은 캐시에서, 카운트는 메모리에서 읽으므로 인기 post 에 몰려도 DB 에 가지 않는다
+	public PostSummary get(Integer postId) {
+		PostSummary post = postReadCache.get(postId).orElseThrow(() ->
+				new SnsApplicationException(ErrorCode.POST_NOT_FOUND, String.format("%s not founded", postId)));
+		post.setLikeCount(likeService.count(postId));
+		post.setCommentCount(commentService.count(postId));
+		return post;
+	}
+
+	@Transactional(readOnly = true)
+	public Page<PostSummary> list(Pageable pageable) {
+		return withCounts(postEntityRepository.findAllPostSummaries(pageable));
 	}
 
-	public Page<Post> list(Pageable pageable) {
-		return postEntityRepository.findAll(pageable).map(Post::fromEntity);
+	@Transactional(readOnly = true)
+	public Page<PostSummary> my(String userName, Pageable pageable) {
+		UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow(() ->
+				new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+		return withCounts(postEntityRepository.findAllPostSummariesByUserId(userEntity.getId(), pageable));
 	}
 
-	public Page<Post> my(String userName, Pageable pageable) {
+	// 내 post 를 id 순으로 하나씩 넘긴다. 한 번에 fetch size 만큼만 메모리에 올라온다
+	@Transactional(readOnly = true)
+	public void export(String userName, Consumer<PostExport> consumer) {
 		UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow(() ->
 				new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
-		return postEntityRepository.findAllByUser(userEntity, pageable).map(Post::fromEntity);
+		try (Stream<PostExport> posts = postEntityRepository.streamExportByUserId(userEntity.getId())) {
+			posts.forEach(consumer);
+		}
+	}
+
+	@Transactional(readOnly = true)
+	public Slice<PostSummary> listSlice(Pageable pageable) {
+		return withCounts(postEntityRepository.findPostSummarySlice(pageable));
+	}
+
+	@Transactional(readOnly = true)
+	public Slice<PostSummary> mySlice(String userName, Pageable pageable) {
+		UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow(() ->
+				new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+		return withCounts(postEntityRepository.findPostSummarySliceByUserId(userEntity.getId(), pageable));
+	}
+
+	@Transactional(readOnly = true)
+	public CursorPage<PostSummary> feed(PostCursor after, int size) {
+		// 다음 페이지 존재 여부를 알기 위해 size + 1 개를 조회
+		Pageable limit = PageRequest.of(0, size + 1);
+		List<PostSummary> posts = after == null
+				? postEntityRepository.findFeed(limit)
+				: postEntityRepository.findFeedAfter(after.getRegisteredAt(), after.getId(), limit);
+		likeService.fillLikeCounts(posts);
+		commentService.fillCommentCounts(posts);
+		return CursorPage.of(posts, size, post -> new PostCursor(post.getRegisteredAt(), post.getId()).encode());
+	}
+
+	// ?fields / ?excerpt 목록. 고른 컬럼만 조회하고 카운트도 요청한 것만 채운다
+	@Transactional(readOnly = true)
+	public Page<Map<String, Object>> list(Pageable pageable, PostFields fields) {
+		List<Map<String, Object>> rows = postEntityRepository.findPostFields(
+				fields, null, pageable.getOffset(), pageable.getPageSize(), pageable.getSort());
+		return PageableExecutionUtils.getPage(withCounts(rows, fields), pageable, postEntityRepository::count);
+	}
+
+	@Transactional(readOnly = true)
+	public Page<Map<String, Object>> my(String userName, Pageable pageable, PostFields fields) {
+		UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow(() ->
+				new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+		List<Map<String, Object>> rows = postEntityRepository.findPostFields(
+				fields, userEntity.getId(), pageable.getOffset(), pageable.getPageSize(), pageable.getSort());
+		return PageableExecutionUtils.getPage(withCounts(rows, fields), pageable,
+				() -> postEntityRepository.countByUserId(userEntity.getId()));
+	}
+
+	@Transactional(readOnly = true)
+	public Slice<Map<String, Object>> listSlice(Pageable pageable, PostFields fields) {
+		// 다음 페이지 존재 여부를 알기 위해 size + 1 개를 조회
+		List<Map<String, Object>> rows = postEntityRepository.findPostFields(
+				fields, null, pageable.getOffset(), pageable.getPageSize() + 1, pageable.getSort());
+		return toSlice(withCounts(rows, fields), pageable);
+	}
+
+	@Transactional(readOnly = true)
+	public Slice<Map<String, Object>> mySlice(String userName, Pageable pageable, PostFields fields) {
+		UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow(() ->
+				new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+		List<Map<String, Object>> rows = postEntityRepository.findPostFields(
+				fields, userEntity.getId(), pageable.getOffset(), pageable.getPageSize() + 1, pageable.getSort());
+		return toSlice(withCounts(rows, fields), pageable);
+	}
+
+	@Transactional(readOnly = true)
+	public CursorPage<Map<String, Object>> feed(PostCursor after, int size, PostFields fields) {
+		List<Map<String, Object>> rows = postEntityRepository.findFeedFields(fields, after, size + 1);
+		CursorPage<Map<String, Object>> page = CursorPage.of(withCounts(rows, fields), size, row -> new PostCursor(
+				(Timestamp) row.get(PostField.REGISTERED_AT.getKey()), (Integer) row.get(PostField.ID.getKey())).encode());
+		// 커서를 만들려고 읽은 registeredAt 은 요청하지 않았으면 뺀다
+		if (!fields.has(PostField.REGISTERED_AT)) {
+			page.getContent().forEach(row -> row.remove(PostField.REGISTERED_AT.getKey()));
+		}
+		return page;
+	}
+
+
+	private List<Map<String, Object>> withCounts(List<Map<String, Object>> rows, PostFields fields) {
+		if (rows.isEmpty()) {
+			return rows;
+		}
+		Set<Integer> postIds = rows.stream().map(row -> (Integer) row.get(PostField.ID.getKey())).collect(Collectors.toSet());
+		if (fields.has(PostField.LIKE_COUNT)) {
+			Map<Integer, Long> counts = likeService.counts(postIds);
+			rows.forEach(row -> row.put(PostField.LIKE_COUNT.getKey(), counts.getOrDefault((Integer) row.get(PostField.ID.getKey()), 0L)));
+		}
+		if (fields.has(PostField.COMMENT_COUNT)) {
+			Map<Integer, Long> counts = commentService.counts(postIds);
+			rows.forEach(row -> row.put(PostField.COMMENT_COUNT.getKey(), counts.getOrDefault((Integer) row.get(PostField.ID.getKey()), 0L)));
+		}
+		return rows;
+	}
+
+	private static <T> Slice<T> toSlice(List<T> fetched, Pageable pageable) {
+		boolean hasNext = fetched.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? fetched.subList(0, pageable.getPageSize()) : fetched, pageable, hasNext);
+	}
+
+	private <S extends Slice<PostSummary>> S withCounts(S posts) {
+		likeService.fillLikeCounts(posts.getContent());
+		commentService.fillCommentCounts(posts.getContent());
+		return posts;
 	}
 }
@@ -0,0 +1,109 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fast.campus.simplesns.model.event.PostCountsChangedEvent;
+import com.fast.campus.simplesns.model.event.PostCreatedEvent;
+import com.fast.campus.simplesns.repository.PostCacheRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 조건부 GET (If-None-Match) 용 버전. post 목록이 바뀔 수 있는 일이 커밋될 때마다 올라가는 목록 버전 하나를 모든 노드가 같이 쓰고
+ * (PostCacheRepository, 운영은 Redis), 목록 응답의 ETag 는 이 버전과 요청 (경로, query parameter, Accept, /my 는 유저) 으로 만든다.
+ * 단건 응답의 ETag 는 updated_at 과 카운트로 만든다. 둘 다 post 를 조회하거나 JSON 을 만들지 않고 비교할 수 있다.
+ * - post 작성/수정/삭제, 댓글 작성/삭제, 좋아요 batch 는 커밋된 뒤 PostCacheRepository 의 invalidation 통로로 목록 버전을 올린다
+ *   (다른 노드는 같은 메시지를 받고 좋아요/댓글 수 캐시를 지우므로 새 ETag 와 새 카운트가 같이 보인다)
+ * - 아직 DB 에 쓰지 않은 좋아요는 버전을 올리지 않으므로, 그 노드의 카운트 변화는 batch 가 커밋될 때 (sns.like.flush-interval-ms) 새 ETag 로 보인다
+ * 버전은 노드마다 세지 않으므로 로드밸런서 뒤의 어느 노드에 가도, 재배포한 뒤에도 같은 ETag 가 나온다.
+ * 버전을 읽지 못하면 (Redis 장애) ETag 없이 응답한다.
+ */
+@Component
+public class PostVersionTracker {
+
+	private final PostCacheRepository postCacheRepository;
+	private final LongAdder notModified = new LongAdder();
+	private final LongAdder modified = new LongAdder();
+
+	public PostVersionTracker(PostCacheRepository postCacheRepository) {
+		this.postCacheRepository = postCacheRepository;
+
+		// actuator 가 있으면 global registry 를 통해 노출된다
+		MeterRegistry registry = Metrics.globalRegistry;
+		FunctionCounter.builder("sns.http.conditional.requests", notModified, LongAdder::sum)
+				.tag("result", "not-modified").register(registry);
+		FunctionCounter.builder("sns.http.conditional.requests", modified, LongAdder::sum)
+				.tag("result", "modified").register(registry);
+		Gauge.builder("sns.http.conditional.hit.ratio", this, PostVersionTracker::hitRatio).register(registry);
+	}
+
+	public OptionalLong listVersion() {
+		return postCacheRepository.listVersion();
+	}
+
+	// 같은 버전이라도 페이지, 정렬, fields/excerpt, 응답 형식이 다르면 다른 ETag. 버전을 읽지 못하면 null
+	public String listETag(HttpServletRequest request) {
+		return listETag(request, null);
+	}
+
+	// 내 post 목록처럼 유저마다 내용이 다른 목록은 유저도 넣는다
+	public String listETag(HttpServletRequest request, String userName) {
+		OptionalLong version = listVersion();
+		if (version.isEmpty()) {
+			return null;
+		}
+		StringBuilder key = new StringBuilder(request.getRequestURI());
+		new TreeMap<>(request.getParameterMap()).forEach((name, values) ->
+				key.append('&').append(name).append('=').append(String.join(",", values)));
+		key.append('|').append(request.getHeader(HttpHeaders.ACCEPT));
+		if (userName != null) {
+			key.append('|').append(userName);
+		}
+		// 이름과 query 를 그대로 넣지 않도록 해시한다
+		String digest = DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+		return "W/\"" + version.getAsLong() + "-" + digest + "\"";
+	}
+
+	public static String postETag(PostSummary post) {
+		long updatedAt = post.getUpdatedAt() == null ? 0L : post.getUpdatedAt().getTime();
+		return "W/\"" + post.getId() + "-" + updatedAt + "-" + post.getLikeCount() + "-" + post.getCommentCount() + "\"";
+	}
+
+	// post 가 바뀌면 모든 노드에 알린다
+	public void changed(Integer postId) {
+		postCacheRepository.evict(postId);
+	}
+
+	public void record(boolean hit) {
+		(hit ? notModified : modified).increment();
+	}
+
+	public double hitRatio() {
+		long hits = notModified.sum();
+		long total = hits + modified.sum();
+		return total == 0 ? 0.0 : (double) hits / total;
+	}
+
+	// 수정/삭제는 PostReadCache 가 invalidation 을 보낸다
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCreated(PostCreatedEvent event) {
+		changed(event.getPostId());
+	}
+
+	// 커밋 전에 올리면 다른 요청이 바뀌기 전 목록을 새 ETag 로 가져갈 수 있다
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCountsChanged(PostCountsChangedEvent event) {
+		changed(event.getPostId());
+	}
+}
@@ -0,0 +1,63 @@
+package com.fast.campus.simplesns.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 여러 노드가 같은 bucket 을 보도록 Redis 에 둔다.
+ * user / ip 두 bucket 의 확인과 차감을 Lua 스크립트 한 번 (EVALSHA, 왕복 1회) 으로 원자적으로 처리한다.
+ */
+@Component
+@ConditionalOnProperty(name = "sns.login-limit.store", havingValue = "redis")
+public class RedisLoginAttemptLimiter implements LoginAttemptLimiter {
+
+    private static final String USER_KEY_PREFIX = "login-limit:user:";
+    private static final String IP_KEY_PREFIX = "login-limit:ip:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisScript<Long> script;
+    private final int userCapacity;
+    private final double userTokensPerMs;
+    private final long userTtlMs;
+    private final int ipCapacity;
+    private final double ipTokensPerMs;
+    private final long ipTtlMs;
+
+    public RedisLoginAttemptLimiter(StringRedisTemplate redisTemplate,
+                                    @Value("${sns.login-limit.user.capacity:5}") int userCapacity,
+                                    @Value("${sns.login-limit.user.refill-per-minute:5}") int userRefillPerMinute,
+                                    @Value("${sns.login-limit.ip.capacity:50}") int ipCapacity,
+                                    @Value("${sns.login-limit.ip.refill-per-minute:50}") int ipRefillPerMinute) {
+        this.redisTemplate = redisTemplate;
+        this.script = RedisScript.of(new ClassPathResource("scripts/login_limit.lua"), Long.class);
+        this.userCapacity = userCapacity;
+        this.userTokensPerMs = userRefillPerMinute / (double) Duration.ofMinutes(1).toMillis();
+        this.userTtlMs = fullAfterMs(userCapacity, userRefillPerMinute);
+        this.ipCapacity = ipCapacity;
+        this.ipTokensPerMs = ipRefillPerMinute / (double) Duration.ofMinutes(1).toMillis();
+        this.ipTtlMs = fullAfterMs(ipCapacity, ipRefillPerMinute);
+    }
+
+    @Override
+    public boolean tryAcquire(String userName, String clientIp) {
+        Long allowed = redisTemplate.execute(script,
+                List.of(USER_KEY_PREFIX + userName, IP_KEY_PREFIX + clientIp),
+                String.valueOf(userCapacity), String.valueOf(userTokensPerMs), String.valueOf(userTtlMs),
+                String.valueOf(ipCapacity), String.valueOf(ipTokensPerMs), String.valueOf(ipTtlMs),
+                String.valueOf(System.currentTimeMillis()));
+        return allowed != null && allowed == 1L;
+    }
+
+    // 비어 있던 bucket 이 다시 가득 차는 시간. 그 뒤에는 key 가 없어도 결과가 같으므로 만료시킨다
+    private static long fullAfterMs(int capacity, int refillPerMinute) {
+        return Math.max(1, Duration.ofMinutes(1).toMillis() * capacity / Math.max(1, refillPerMinute));
+    }
+}
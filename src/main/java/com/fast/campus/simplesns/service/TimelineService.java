@@ -0,0 +1,112 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.CursorPage;
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.model.event.FollowedEvent;
+import com.fast.campus.simplesns.model.event.PostCreatedEvent;
+import com.fast.campus.simplesns.model.event.UnfollowedEvent;
+import com.fast.campus.simplesns.repository.FollowEntityRepository;
+import com.fast.campus.simplesns.repository.PostEntityRepository;
+import com.fast.campus.simplesns.repository.TimelineRepository;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * push/pull 혼합 홈 타임라인.
+ * 일반 작성자의 새 post 는 작성 시점에 팔로워들의 타임라인에 넣어두고 (push),
+ * 팔로워가 celebrity-threshold 이상인 작성자의 post 는 읽을 때 합친다 (pull).
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class TimelineService {
+
+	private final TimelineRepository timelineRepository;
+	private final FollowEntityRepository followEntityRepository;
+	private final PostEntityRepository postEntityRepository;
+	private final UserEntityRepository userEntityRepository;
+	private final LikeService likeService;
+	private final CommentService commentService;
+
+	@Value("${sns.timeline.celebrity-threshold:10000}")
+	private long celebrityThreshold;
+
+	@Value("${sns.timeline.max-size:800}")
+	private int maxSize;
+
+	// post 저장이 커밋된 뒤 실행 (트랜잭션 밖에서 발행되면 바로 실행)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void fanOut(PostCreatedEvent event) {
+		if (isCelebrity(event.getUserId())) {
+			return;
+		}
+		List<Integer> followerIds = followEntityRepository.findFollowerIds(event.getUserId());
+		timelineRepository.pushAll(followerIds, event.getPostId());
+	}
+
+	// 새로 팔로우한 유저의 최근 post 를 타임라인에 채워 넣는다. 팔로우가 롤백되면 타임라인도 바뀌지 않도록 커밋된 뒤 실행
+	@TransactionalEventListener(fallbackExecution = true)
+	public void follow(FollowedEvent event) {
+		if (isCelebrity(event.getFollowingId())) {
+			return;
+		}
+		timelineRepository.addAll(event.getFollowerId(),
+				postEntityRepository.findIdsByUserId(event.getFollowingId(), PageRequest.of(0, maxSize)));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void unfollow(UnfollowedEvent event) {
+		timelineRepository.removeAll(event.getFollowerId(),
+				postEntityRepository.findIdsByUserId(event.getFollowingId(), PageRequest.of(0, maxSize)));
+	}
+
+	public CursorPage<PostSummary> home(String userName, Integer beforePostId, int size) {
+		UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow(() ->
+				new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+
+		// 다음 페이지 존재 여부를 알기 위해 size + 1 개를 조회
+		List<Integer> pushed = timelineRepository.findPostIds(userEntity.getId(), beforePostId, size + 1);
+		List<Integer> celebrityIds = followEntityRepository.findCelebrityFollowingIds(userEntity.getId(), celebrityThreshold);
+		List<Integer> pulled = celebrityIds.isEmpty() ? List.of() : postEntityRepository.findIdsByUserIdIn(
+				celebrityIds, beforePostId == null ? Integer.MAX_VALUE : beforePostId, PageRequest.of(0, size + 1));
+
+		List<Integer> postIds = Stream.concat(pushed.stream(), pulled.stream())
+				.distinct()
+				.sorted(Comparator.reverseOrder())
+				.limit(size + 1)
+				.collect(Collectors.toList());
+		CursorPage<Integer> page = CursorPage.of(postIds, size, String::valueOf);
+		if (page.getContent().isEmpty()) {
+			return new CursorPage<>(List.of(), null, false);
+		}
+
+		// 삭제된 post 는 조회 결과에서 빠진다
+		List<PostSummary> found = postEntityRepository.findPostSummariesByIdIn(page.getContent());
+		likeService.fillLikeCounts(found);
+		commentService.fillCommentCounts(found);
+		Map<Integer, PostSummary> posts = found.stream()
+				.collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+		return page.map(posts::get).filter(Objects::nonNull);
+	}
+
+	private boolean isCelebrity(Integer userId) {
+		// 팔로우마다 같이 바뀌는 user.follower_count 를 읽는다 (follow 테이블을 세지 않음)
+		return userEntityRepository.findFollowerCountById(userId).orElse(0L) >= celebrityThreshold;
+	}
+}
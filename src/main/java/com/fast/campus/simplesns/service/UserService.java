@@ -5,20 +5,30 @@ import com.fast.campus.simplesns.exception.ErrorCode;
 import com.fast.campus.simplesns.exception.SnsApplicationException;
 import com.fast.campus.simplesns.model.User;
 import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.repository.CredentialRevocationRepository;
 import com.fast.campus.simplesns.repository.UserEntityRepository;
 import com.fast.campus.simplesns.utils.JwtTokenUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
 @RequiredArgsConstructor
 @Service
 public class UserService {
 
     private final UserEntityRepository userEntityRepository;
-    private final BCryptPasswordEncoder encoder;
+    private final PasswordHasher passwordHasher;
+    private final CredentialVersionCache credentialVersionCache;
+    private final CredentialRevocationRepository credentialRevocationRepository;
+    private final PlatformTransactionManager transactionManager;
 
 
     @Value("${jwt.secret-key}")
@@ -28,38 +38,109 @@ public class UserService {
     private Long expiredTimeMs;
 
 
+    @Transactional(readOnly = true)
     public User loadUserByUserName(String userName) {
         return userEntityRepository.findByUserName(userName).map(User::fromEntity).orElseThrow(() ->
                 new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
     }
 
 
-    @Transactional
+    // bcrypt 를 기다리는 동안 DB 커넥션을 잡고 있지 않도록 해시를 먼저 만들고, 중복 확인과 저장만 짧은 트랜잭션으로 묶는다
     public User join(String userName, String password) {
-        // 회원가입하려는 userName으로 회원가입된 user가 있는지
+        // 이미 있는 이름이면 bcrypt 를 돌리기 전에 돌려보낸다
+        checkDuplicatedUserName(userName);
+
+        // bcrypt 는 전용 스레드 풀에서 (가득 차면 429)
+        String encoded = passwordHasher.encode(password);
+
+        // 해시하는 사이에 같은 이름으로 가입했을 수 있으므로 저장하는 트랜잭션에서 다시 확인
+        UserEntity userEntity = new TransactionTemplate(transactionManager).execute(status -> {
+            checkDuplicatedUserName(userName);
+            return userEntityRepository.save(UserEntity.of(userName, encoded, passwordHasher.getStrength()));
+        });
+        return User.fromEntity(userEntity);
+    }
+
+    private void checkDuplicatedUserName(String userName) {
         userEntityRepository.findByUserName(userName).ifPresent(it -> {
             throw new SnsApplicationException(ErrorCode.DUPLICATED_USER_NAME, String.format("%s is duplicated", userName));
         });
-
-        // 회원가입 진행 = user를 등록
-        UserEntity userEntity = userEntityRepository.save(UserEntity.of(userName, encoder.encode(password)));
-        return User.fromEntity(userEntity);
     }
 
 
     // TODO : implement
     public String login(String userName, String password) {
         // 회원가입 여부 체크
-        UserEntity userEntity = userEntityRepository.findByUserName(userName)
-                .orElseThrow(() -> new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+        UserEntity userEntity = userEntityRepository.findByUserName(userName).orElse(null);
+        if (userEntity == null) {
+            // 없는 유저도 bcrypt 비교를 한 번 해서 응답 시간으로 가입 여부를 알 수 없게 한다
+            passwordHasher.matchesDummy(password);
+            throw new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName));
+        }
 
         // 비밀번호 체크
-        if (!encoder.matches(password, userEntity.getPassword())) {
+        if (!passwordHasher.matches(password, userEntity.getPassword())) {
             throw new SnsApplicationException(ErrorCode.INVALID_PASSWORD);
         }
+        rehashIfNeeded(userEntity, password);
 
         // 토큰 생성
-        String token = JwtTokenUtils.generateToken(userName, secretKey, expiredTimeMs);
+        User user = User.fromEntity(userEntity);
+        credentialVersionCache.update(user.getId(), user.getCredentialVersion());
+        String token = JwtTokenUtils.generateToken(user, secretKey, expiredTimeMs);
         return token;
     }
+
+    // 트랜잭션 밖에서 비교/해시한 뒤 한 번의 update 로 바꾸고, 커밋된 새 version 을 모든 노드에 알린다.
+    // 이전 토큰은 version 이 달라 거부되므로 새 토큰을 돌려준다
+    public String changePassword(String userName, String password, String newPassword) {
+        UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow(() ->
+                new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+        if (!passwordHasher.matches(password, userEntity.getPassword())) {
+            throw new SnsApplicationException(ErrorCode.INVALID_PASSWORD);
+        }
+
+        String encoded = passwordHasher.encode(newPassword);
+        if (userEntityRepository.changePassword(userEntity.getId(), userEntity.getPassword(), encoded, passwordHasher.getStrength()) == 0) {
+            // 그 사이에 다른 요청이 비밀번호를 바꿨으면 현재 비밀번호가 더 이상 맞지 않는다
+            throw new SnsApplicationException(ErrorCode.INVALID_PASSWORD, String.format("password of %s was changed concurrently", userName));
+        }
+        userEntity.setPassword(encoded);
+        userEntity.setPasswordCost(passwordHasher.getStrength());
+        userEntity.setCredentialVersion(nextCredentialVersion(userEntity));
+        credentialRevocationRepository.revoke(userEntity.getId(), userEntity.getCredentialVersion());
+
+        return JwtTokenUtils.generateToken(User.fromEntity(userEntity), secretKey, expiredTimeMs);
+    }
+
+    public void delete(String userName) {
+        UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow(() ->
+                new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+        if (userEntityRepository.softDelete(userEntity.getId()) > 0) {
+            credentialRevocationRepository.revoke(userEntity.getId(), nextCredentialVersion(userEntity));
+        }
+    }
+
+    private static Integer nextCredentialVersion(UserEntity userEntity) {
+        return Objects.requireNonNullElse(userEntity.getCredentialVersion(), 0) + 1;
+    }
+
+    // 설정된 cost 와 다른 해시는 평문을 알고 있는 로그인 성공 시점에 다시 해시한다 (응답은 기다리지 않음)
+    private void rehashIfNeeded(UserEntity userEntity, String password) {
+        String previous = userEntity.getPassword();
+        Integer cost = userEntity.getPasswordCost() != null ? userEntity.getPasswordCost() : PasswordHasher.costOf(previous);
+        if (cost == null || cost == passwordHasher.getStrength()) {
+            return;
+        }
+        CompletableFuture<String> rehashed = passwordHasher.encodeLater(password);
+        if (rehashed == null) {
+            return;
+        }
+        rehashed.thenAccept(hash -> userEntityRepository.updatePasswordHash(
+                        userEntity.getId(), previous, hash, passwordHasher.getStrength()))
+                .exceptionally(e -> {
+                    log.error("비밀번호 재해시에 실패했습니다. userId {} {}", userEntity.getId(), e.toString());
+                    return null;
+                });
+    }
 }
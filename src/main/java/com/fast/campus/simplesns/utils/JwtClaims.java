@@ -0,0 +1,45 @@
+package com.fast.campus.simplesns.utils;
+
+import com.fast.campus.simplesns.model.User;
+import com.fast.campus.simplesns.model.UserRole;
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 서명 검증이 끝난 토큰의 claim. 검증 캐시에 그대로 보관되므로 불변으로 유지한다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class JwtClaims {
+
+    private final String userName;
+    private final Integer userId;
+    private final UserRole role;
+    private final Integer credentialVersion;
+    private final long expiredAtMs;
+
+    public static JwtClaims fromClaims(Claims claims) {
+        String role = claims.get(JwtTokenUtils.ROLE, String.class);
+        return new JwtClaims(
+                claims.get(JwtTokenUtils.USER_NAME, String.class),
+                claims.get(JwtTokenUtils.USER_ID, Integer.class),
+                role == null ? null : UserRole.valueOf(role),
+                claims.get(JwtTokenUtils.CREDENTIAL_VERSION, Integer.class),
+                claims.getExpiration().getTime()
+        );
+    }
+
+    public boolean isExpired(long nowMs) {
+        return expiredAtMs <= nowMs;
+    }
+
+    // userId 가 없는 이전 형식의 토큰이면 null
+    public User toUser() {
+        if (userId == null || role == null) {
+            return null;
+        }
+        return User.fromClaims(userId, userName, role, credentialVersion);
+    }
+}
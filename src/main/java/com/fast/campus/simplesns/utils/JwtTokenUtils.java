@@ -1,5 +1,6 @@
 package com.fast.campus.simplesns.utils;
 
+import com.fast.campus.simplesns.model.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -9,10 +10,16 @@ import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 
+// 요청 경로의 토큰 검증은 JwtTokenVerifier 를 사용한다. 여기 검증 메소드는 호출마다 key 와 parser 를 새로 만든다.
 public class JwtTokenUtils {
 
+    public static final String USER_NAME = "userName";
+    public static final String USER_ID = "userId";
+    public static final String ROLE = "role";
+    public static final String CREDENTIAL_VERSION = "credentialVersion";
+
     public static String getUserName(String token, String key) {
-        return extractClaims(token, key).get("userName", String.class);
+        return extractClaims(token, key).get(USER_NAME, String.class);
     }
 
     public static boolean isExpired(String token, String key) {
@@ -27,8 +34,20 @@ public class JwtTokenUtils {
 
     public static String generateToken(String userName, String key, long expiredTimeMs) {
         Claims claims = Jwts.claims();
-        claims.put("userName", userName);
+        claims.put(USER_NAME, userName);
+        return buildToken(claims, key, expiredTimeMs);
+    }
+
+    public static String generateToken(User user, String key, long expiredTimeMs) {
+        Claims claims = Jwts.claims();
+        claims.put(USER_NAME, user.getUsername());
+        claims.put(USER_ID, user.getId());
+        claims.put(ROLE, user.getUserRole().name());
+        claims.put(CREDENTIAL_VERSION, user.getCredentialVersion());
+        return buildToken(claims, key, expiredTimeMs);
+    }
 
+    private static String buildToken(Claims claims, String key, long expiredTimeMs) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
@@ -42,4 +61,4 @@ public class JwtTokenUtils {
         byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
         return Keys.hmacShaKeyFor(keyBytes);
     }
-}
\ No newline at end of file
+}
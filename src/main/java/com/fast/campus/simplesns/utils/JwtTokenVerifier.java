@@ -0,0 +1,85 @@
+package com.fast.campus.simplesns.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 토큰 검증기. 서명 키와 parser 는 한 번만 만들고, 한 번 검증한 토큰은 만료 시각까지
+ * SHA-256 해시를 키로 캐시해 같은 토큰으로 들어오는 요청에서 HMAC 검증과 JSON 파싱을 생략한다.
+ */
+@Component
+public class JwtTokenVerifier {
+
+    private final JwtParser parser;
+    private final Cache<ByteBuffer, JwtClaims> verified;
+    private final ThreadLocal<MessageDigest> digest = ThreadLocal.withInitial(JwtTokenVerifier::sha256);
+
+    public JwtTokenVerifier(@Value("${jwt.secret-key}") String key,
+                            @Value("${jwt.verified-cache-size:100000}") long cacheSize) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(key.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<ByteBuffer, JwtClaims>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, JwtClaims value, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.getExpiredAtMs() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, JwtClaims value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, JwtClaims value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 서명과 만료 시각을 검증한 claim 을 돌려준다. 유효하지 않은 토큰이면 {@link io.jsonwebtoken.JwtException} 을 던진다.
+     */
+    public JwtClaims verify(String token) {
+        ByteBuffer tokenHash = hash(token);
+        JwtClaims claims = verified.getIfPresent(tokenHash);
+        if (claims == null) {
+            claims = JwtClaims.fromClaims(parser.parseClaimsJws(token).getBody());
+            verified.put(tokenHash, claims);
+        } else if (claims.isExpired(System.currentTimeMillis())) {
+            verified.invalidate(tokenHash);
+            throw new ExpiredJwtException(null, null, "JWT expired");
+        }
+        return claims;
+    }
+
+    private ByteBuffer hash(String token) {
+        MessageDigest messageDigest = digest.get();
+        messageDigest.reset();
+        return ByteBuffer.wrap(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+-- 로그인 시도 token bucket (RedisLoginAttemptLimiter)
+-- KEYS[1] = user bucket, KEYS[2] = ip bucket
+-- ARGV = user capacity, user tokens/ms, user ttl ms, ip capacity, ip tokens/ms, ip ttl ms, now ms
+-- 두 bucket 모두 토큰이 있을 때만 하나씩 차감하고 1 을 반환한다
+
+local now = tonumber(ARGV[7])
+
+local function available(key, capacity, rate)
+    local bucket = redis.call('HMGET', key, 'tokens', 'ts')
+    local tokens = tonumber(bucket[1]) or capacity
+    local ts = tonumber(bucket[2]) or now
+    return math.min(capacity, tokens + math.max(0, now - ts) * rate)
+end
+
+local userTokens = available(KEYS[1], tonumber(ARGV[1]), tonumber(ARGV[2]))
+local ipTokens = available(KEYS[2], tonumber(ARGV[4]), tonumber(ARGV[5]))
+if userTokens < 1 or ipTokens < 1 then
+    return 0
+end
+
+redis.call('HSET', KEYS[1], 'tokens', userTokens - 1, 'ts', now)
+redis.call('PEXPIRE', KEYS[1], ARGV[3])
+redis.call('HSET', KEYS[2], 'tokens', ipTokens - 1, 'ts', now)
+redis.call('PEXPIRE', KEYS[2], ARGV[6])
+return 1
@@ -0,0 +1,45 @@
+package com.fast.campus.simplesns.config;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+
+class AsyncConfigTest {
+
+    @Test
+    void 알람_전송_대기열이_가득차면_호출한_스레드를_막지_않고_버린_수를_센다() throws Exception {
+        // given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        ThreadPoolTaskExecutor executor = new AsyncConfig().alarmProducerExecutor(1, 1);
+        executor.initialize();
+        CountDownLatch blocked = new CountDownLatch(1);
+        double dropped = AsyncConfig.alarmDropped("rejected").count();
+
+        try {
+            // when
+            executor.execute(() -> {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            executor.execute(() -> {
+            });
+            executor.execute(() -> {
+            });
+
+            // then
+            Assertions.assertEquals(dropped + 1, AsyncConfig.alarmDropped("rejected").count());
+        } finally {
+            blocked.countDown();
+            executor.shutdown();
+            Metrics.removeRegistry(registry);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.fast.campus.simplesns.config;
+
+import com.fast.campus.simplesns.controller.request.UserJoinRequest;
+import com.fast.campus.simplesns.controller.request.UserLoginRequest;
+import com.fast.campus.simplesns.model.UserRole;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// MockMvc 는 별도 관리 포트를 띄우지 않으므로 테스트에서는 관리 endpoint 를 서비스 포트에 둔다
+@SpringBootTest(properties = "management.server.port=8080")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles({"test", "metrics"})
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    @Test
+    void metrics_프로필에서는_요청_토큰검증_bcrypt_커넥션풀_Hibernate_지표가_prometheus_로_나온다() throws Exception {
+        // given
+        String token = joinAndLogin("metrics" + System.nanoTime(), UserRole.ADMIN);
+
+        // when
+        mockMvc.perform(get("/api/v1/posts").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // then
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{application=\"simple-sns\",exception=\"None\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/v1/posts\"")))
+                .andExpect(content().string(containsString("sns_jwt_verification_seconds_count{application=\"simple-sns\",result=\"verified\",}")))
+                .andExpect(content().string(containsString("sns_password_hashing_seconds_count{application=\"simple-sns\",operation=\"encode\",}")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")))
+                .andExpect(content().string(containsString("hibernate_statements_total")))
+                .andExpect(content().string(containsString("sns_http_conditional_hit_ratio")));
+    }
+
+    @Test
+    void prometheus_는_ADMIN_토큰_없이는_볼_수_없고_health_는_열려있다() throws Exception {
+        // given
+        String token = joinAndLogin("metricsUser" + System.nanoTime(), UserRole.USER);
+
+        // when & then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+        // redis 등 외부 의존성 상태에 따라 503 일 수 있으므로 인증 없이 health 응답 본문이 오는지만 본다
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(jsonPath("$.status").exists());
+    }
+
+    private String joinAndLogin(String userName, UserRole role) throws Exception {
+        mockMvc.perform(post("/api/v1/users/join")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new UserJoinRequest(userName, "password"))))
+                .andExpect(status().isOk());
+        UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow();
+        userEntity.setRole(role);
+        userEntityRepository.save(userEntity);
+
+        String body = mockMvc.perform(post("/api/v1/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new UserLoginRequest(userName, "password"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).path("result").path("token").asText();
+    }
+}
@@ -0,0 +1,108 @@
+package com.fast.campus.simplesns.config.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+// primary 와 replica 를 서로 다른 H2 메모리 DB 로 두고 어느 쪽에서 읽었는지 확인한다
+class ReplicaRoutingDataSourceTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate writeTransaction;
+	private TransactionTemplate readOnlyTransaction;
+
+	@BeforeEach
+	void setUp() {
+		DataSource primary = h2("routing_primary");
+		DataSource replica = h2("routing_replica");
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica),
+				new ReadYourWritesTracker(Duration.ofMinutes(1), 100));
+		DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		writeTransaction = new TransactionTemplate(transactionManager);
+		readOnlyTransaction = new TransactionTemplate(transactionManager);
+		readOnlyTransaction.setReadOnly(true);
+	}
+
+	@AfterEach
+	void clear() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void 읽기_전용_트랜잭션은_replica_에서_읽는다() {
+		// when
+		String read = readOnlyTransaction.execute(status -> whoAmI());
+		String written = writeTransaction.execute(status -> whoAmI());
+
+		// then
+		Assertions.assertEquals("routing_replica", read);
+		Assertions.assertEquals("routing_primary", written);
+	}
+
+	@Test
+	void 쓰기를_커밋한_유저는_window_동안_primary_에서_읽는다() {
+		// given
+		login("writer");
+		writeTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+
+		// when
+		String writerRead = readOnlyTransaction.execute(status -> whoAmI());
+		login("other");
+		String otherRead = readOnlyTransaction.execute(status -> whoAmI());
+
+		// then
+		Assertions.assertEquals("routing_primary", writerRead);
+		Assertions.assertEquals("routing_replica", otherRead);
+	}
+
+	@Test
+	void 롤백된_쓰기는_window_를_시작하지_않는다() {
+		// given
+		login("writer");
+		writeTransaction.executeWithoutResult(status -> {
+			jdbcTemplate.update("UPDATE node SET name = name");
+			status.setRollbackOnly();
+		});
+
+		// when
+		String read = readOnlyTransaction.execute(status -> whoAmI());
+
+		// then
+		Assertions.assertEquals("routing_replica", read);
+	}
+
+	private String whoAmI() {
+		return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+	}
+
+	private static void login(String userName) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(userName, null, AuthorityUtils.NO_AUTHORITIES));
+	}
+
+	private static DataSource h2(String name) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(32))");
+		jdbcTemplate.update("DELETE FROM node");
+		jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+		return dataSource;
+	}
+}
@@ -0,0 +1,32 @@
+package com.fast.campus.simplesns.config.datasource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.Map;
+
+/**
+ * action 을 실행하는 동안 이 스레드에서 실행된 SQL statement 를 세서 확인한다.
+ * MockMvc 요청과 서비스 호출은 같은 스레드에서 실행되므로 endpoint/메서드마다 기대하는 statement 수를 고정해 둘 수 있다.
+ */
+public class StatementAssertions {
+
+    public static StatementScope record(Executable action) throws Throwable {
+        try (StatementScope scope = StatementCounter.open("test")) {
+            action.execute();
+            return scope;
+        }
+    }
+
+    public static StatementScope assertStatementCount(int expected, Executable action) throws Throwable {
+        StatementScope scope = record(action);
+        Assertions.assertEquals(expected, scope.getCount(), () -> "unexpected statement count, repeated: " + scope.getRepeated(2));
+        return scope;
+    }
+
+    // 같은 SQL 이 threshold 번 이상 실행되지 않았는지 (N+1)
+    public static void assertNoRepeatedStatements(StatementScope scope, int threshold) {
+        Map<String, Integer> repeated = scope.getRepeated(threshold);
+        Assertions.assertTrue(repeated.isEmpty(), () -> "repeated statements: " + repeated);
+    }
+}
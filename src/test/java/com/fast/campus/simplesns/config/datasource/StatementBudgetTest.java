@@ -0,0 +1,51 @@
+package com.fast.campus.simplesns.config.datasource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class StatementBudgetTest {
+
+    private final StatementBudget statementBudget = new StatementBudget(10, 3, 3, StatementBudget.Action.FAIL);
+
+    @Test
+    void 값만_다른_같은_SQL_이_반복되면_N_plus_1_로_잡는다() {
+        // given
+        StatementScope scope = StatementCounter.open("GET /api/v1/posts");
+        for (int userId = 1; userId <= 3; userId++) {
+            StatementCounter.recordLiteral("select * from \"user\" where id=" + userId + " and name='user" + userId + "'");
+        }
+        scope.close();
+
+        // when
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class,
+                () -> statementBudget.check(scope, StatementBudget.Kind.REQUEST));
+
+        // then
+        Assertions.assertEquals(3, scope.getCount("select * from \"user\" where id=? and name=?"));
+        Assertions.assertTrue(e.getMessage().contains("possible N+1"));
+    }
+
+    @Test
+    void 안쪽_구간의_statement_는_바깥_구간에도_세고_한도를_넘으면_알린다() {
+        // given
+        StatementScope request = StatementCounter.open("POST /api/v1/posts");
+        StatementScope transaction = StatementCounter.open("PostService.create(..)");
+        StatementCounter.recordPrepared("select * from \"user\" where user_name=?");
+        StatementCounter.recordPrepared("insert into post values (?, ?)");
+        StatementCounter.recordPrepared("insert into timeline values (?, ?)");
+        StatementCounter.recordPrepared("update post set title=? where id=?");
+        transaction.close();
+        StatementCounter.recordPrepared("select count(*) from post");
+        request.close();
+
+        // when
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class,
+                () -> statementBudget.check(transaction, StatementBudget.Kind.TRANSACTION));
+
+        // then
+        Assertions.assertEquals(4, transaction.getCount());
+        Assertions.assertEquals(5, request.getCount());
+        Assertions.assertTrue(e.getMessage().contains("budget 3"));
+        Assertions.assertDoesNotThrow(() -> statementBudget.check(request, StatementBudget.Kind.REQUEST));
+    }
+}
@@ -0,0 +1,135 @@
+package com.fast.campus.simplesns.config.filter;
+
+import com.fast.campus.simplesns.fixture.UserEntityFixture;
+import com.fast.campus.simplesns.model.User;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.repository.InMemoryCredentialRevocationRepository;
+import com.fast.campus.simplesns.service.CredentialVersionCache;
+import com.fast.campus.simplesns.service.UserService;
+import com.fast.campus.simplesns.utils.JwtTokenUtils;
+import com.fast.campus.simplesns.utils.JwtTokenVerifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.mockito.Mockito.*;
+
+class JwtTokenFilterTest {
+
+	private static final String KEY = "fast-campus.simple_sns_2022_secret_key";
+
+	private final UserService userService = mock(UserService.class);
+	private final InMemoryCredentialRevocationRepository credentialRevocationRepository = new InMemoryCredentialRevocationRepository();
+	private final CredentialVersionCache credentialVersionCache = new CredentialVersionCache(credentialRevocationRepository, 100, 60_000L);
+	private final JwtTokenFilter filter = new JwtTokenFilter(new JwtTokenVerifier(KEY, 100), userService, credentialVersionCache, true);
+
+	@AfterEach
+	void clear() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void 토큰의_credential_version이_최신이면_DB를_조회하지_않는다() throws Exception {
+		// given
+		User user = User.fromEntity(UserEntityFixture.get("userName", "password", 1));
+		String token = JwtTokenUtils.generateToken(user, KEY, 60_000L);
+		when(userService.loadUserByUserName("userName")).thenReturn(user);
+
+		// when
+		authenticate(token);
+		SecurityContextHolder.clearContext();
+		Authentication authentication = authenticate(token);
+
+		// then
+		Assertions.assertEquals("userName", authentication.getName());
+		verify(userService, times(1)).loadUserByUserName("userName");
+	}
+
+	@Test
+	void 토큰의_credential_version이_바뀌었으면_인증하지_않는다() throws Exception {
+		// given
+		User user = User.fromEntity(UserEntityFixture.get("userName", "password", 1));
+		String token = JwtTokenUtils.generateToken(user, KEY, 60_000L);
+
+		UserEntity changed = UserEntityFixture.get("userName", "password", 1);
+		changed.setCredentialVersion(1);
+		when(userService.loadUserByUserName("userName")).thenReturn(User.fromEntity(changed));
+
+		// when
+		Authentication authentication = authenticate(token);
+
+		// then
+		Assertions.assertNull(authentication);
+	}
+
+	@Test
+	void 비밀번호_변경이_알려지면_캐시에_있던_이전_토큰도_거부한다() throws Exception {
+		// given
+		User user = User.fromEntity(UserEntityFixture.get("userName", "password", 1));
+		String token = JwtTokenUtils.generateToken(user, KEY, 60_000L);
+		when(userService.loadUserByUserName("userName")).thenReturn(user);
+		authenticate(token);
+		SecurityContextHolder.clearContext();
+
+		UserEntity changed = UserEntityFixture.get("userName", "changed", 1);
+		changed.setCredentialVersion(1);
+		when(userService.loadUserByUserName("userName")).thenReturn(User.fromEntity(changed));
+
+		// when
+		credentialRevocationRepository.revoke(1, 1);
+		Authentication authentication = authenticate(token);
+
+		// then
+		Assertions.assertNull(authentication);
+	}
+
+	@Test
+	void 변경_전에_읽은_version이_늦게_들어와도_새_version을_덮어쓰지_않는다() {
+		// given
+		credentialRevocationRepository.revoke(1, 2);
+
+		// when
+		credentialVersionCache.update(1, 1);
+
+		// then
+		Assertions.assertTrue(credentialVersionCache.isCurrent(1, 2));
+		Assertions.assertFalse(credentialVersionCache.isCurrent(1, 1));
+	}
+
+	@Test
+	void 알람_구독_경로에서는_query_parameter_토큰으로_인증한다() throws Exception {
+		// given
+		User user = User.fromEntity(UserEntityFixture.get("userName", "password", 1));
+		String token = JwtTokenUtils.generateToken(user, KEY, 60_000L);
+		when(userService.loadUserByUserName("userName")).thenReturn(user);
+
+		// when
+		Authentication subscribe = authenticateWithParameter("/api/v1/users/alarm/subscribe", token);
+		SecurityContextHolder.clearContext();
+		Authentication other = authenticateWithParameter("/api/v1/posts", token);
+
+		// then
+		Assertions.assertEquals("userName", subscribe.getName());
+		Assertions.assertNull(other);
+	}
+
+	private Authentication authenticateWithParameter(String uri, String token) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		request.setParameter("token", token);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+	private Authentication authenticate(String token) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+}
@@ -0,0 +1,74 @@
+package com.fast.campus.simplesns.consumer;
+
+import com.fast.campus.simplesns.controller.response.AlarmResponse;
+import com.fast.campus.simplesns.model.AlarmType;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.model.event.AlarmEvent;
+import com.fast.campus.simplesns.producer.AlarmProducer;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import com.fast.campus.simplesns.service.AlarmService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+// spring-kafka-test 의 내장 브로커로 producer -> kafka -> consumer -> DB 경로를 확인
+@SpringBootTest(properties = "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}")
+@EmbeddedKafka(partitions = 1, topics = "alarm")
+@ActiveProfiles("test")
+class AlarmConsumerTest {
+
+    @Autowired
+    private AlarmProducer alarmProducer;
+
+    @Autowired
+    private AlarmConsumer alarmConsumer;
+
+    @Autowired
+    private AlarmService alarmService;
+
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    @Test
+    void 알람은_kafka를_거쳐_저장된다() throws InterruptedException {
+        // given
+        UserEntity receiver = userEntityRepository.save(UserEntity.of("receiver", "password"));
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            alarmProducer.send(AlarmEvent.of(receiver.getId(), AlarmType.NEW_COMMENT_ON_POST, 2, i));
+        }
+
+        // then
+        Page<AlarmResponse> alarms = Page.empty();
+        for (int i = 0; i < 100 && alarms.getTotalElements() < 3; i++) {
+            Thread.sleep(100);
+            alarms = alarmService.alarmList("receiver", PageRequest.of(0, 10));
+        }
+        Assertions.assertEquals(3, alarms.getTotalElements());
+        Assertions.assertEquals("new comment!", alarms.getContent().get(0).getText());
+    }
+
+    @Test
+    void 다시_전달된_알람은_한번만_저장된다() {
+        // given
+        UserEntity receiver = userEntityRepository.save(UserEntity.of("redelivered-receiver", "password"));
+        List<AlarmEvent> events = List.of(
+                AlarmEvent.of(receiver.getId(), AlarmType.NEW_COMMENT_ON_POST, 2, 1),
+                AlarmEvent.of(receiver.getId(), AlarmType.NEW_LIKE_ON_POST, 2, 1));
+        alarmConsumer.consume(events);
+
+        // when (offset 을 커밋하기 전에 rebalance 가 일어나 같은 레코드를 다시 받았다)
+        alarmConsumer.consume(events);
+
+        // then
+        Assertions.assertEquals(2, alarmService.alarmList("redelivered-receiver", PageRequest.of(0, 10)).getTotalElements());
+    }
+}
@@ -0,0 +1,116 @@
+package com.fast.campus.simplesns.controller;
+
+import com.fast.campus.simplesns.controller.request.CommentCreateRequest;
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.CommentCursor;
+import com.fast.campus.simplesns.model.CursorPage;
+import com.fast.campus.simplesns.service.CommentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CommentControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@MockBean
+	private CommentService commentService;
+
+	@Test
+	@WithMockUser
+	void 댓글작성() throws Exception {
+
+		mockMvc.perform(post("/api/v1/posts/1/comments")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsBytes(new CommentCreateRequest("comment")))
+				).andDo(print())
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@WithMockUser
+	void 댓글작성시_포스트가_없는경우() throws Exception {
+		doThrow(new SnsApplicationException(ErrorCode.POST_NOT_FOUND)).when(commentService).create(eq(1), any(), eq("comment"));
+
+		mockMvc.perform(post("/api/v1/posts/1/comments")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsBytes(new CommentCreateRequest("comment")))
+				).andDo(print())
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	@WithAnonymousUser
+	void 댓글작성시_로그인하지_않은경우() throws Exception {
+
+		mockMvc.perform(post("/api/v1/posts/1/comments")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsBytes(new CommentCreateRequest("comment")))
+				).andDo(print())
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	@WithMockUser
+	void 댓글목록() throws Exception {
+		when(commentService.list(eq(1), any())).thenReturn(Page.empty());
+
+		mockMvc.perform(get("/api/v1/posts/1/comments")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@WithMockUser
+	void 댓글목록_커서모드() throws Exception {
+		CommentCursor after = new CommentCursor(Timestamp.from(Instant.now()), 10);
+		when(commentService.list(eq(1), argThat(cursor -> cursor.getId() == 10), anyInt())).thenReturn(new CursorPage<>(List.of(), null, false));
+
+		mockMvc.perform(get("/api/v1/posts/1/comments")
+						.param("mode", "cursor")
+						.param("after", after.encode())
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@WithMockUser
+	void 댓글목록_커서가_유효하지_않은경우() throws Exception {
+
+		mockMvc.perform(get("/api/v1/posts/1/comments")
+						.param("mode", "cursor")
+						.param("after", "abc")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isBadRequest());
+	}
+}
@@ -5,26 +5,63 @@ import com.fast.campus.simplesns.controller.request.PostModifyRequest;
 import com.fast.campus.simplesns.exception.ErrorCode;
 import com.fast.campus.simplesns.exception.SnsApplicationException;
 import com.fast.campus.simplesns.fixture.PostEntityFixture;
+import com.fast.campus.simplesns.model.CursorPage;
+import com.fast.campus.simplesns.model.ImportProgress;
 import com.fast.campus.simplesns.model.Post;
+import com.fast.campus.simplesns.model.PostExport;
+import com.fast.campus.simplesns.model.PostFields;
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fast.campus.simplesns.model.User;
+import com.fast.campus.simplesns.model.UserRole;
+import com.fast.campus.simplesns.service.LikeService;
+import com.fast.campus.simplesns.service.PostImportService;
+import com.fast.campus.simplesns.service.PostSearchService;
 import com.fast.campus.simplesns.service.PostService;
+import com.fast.campus.simplesns.service.PostVersionTracker;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -40,6 +77,18 @@ class PostControllerTest {
 	@MockBean
 	private PostService postService;
 
+	@MockBean
+	private LikeService likeService;
+
+	@MockBean
+	private PostImportService postImportService;
+
+	@MockBean
+	private PostSearchService postSearchService;
+
+	@Autowired
+	private PostVersionTracker postVersionTracker;
+
 	@Test
 	@WithMockUser
 	void 포스트작성() throws Exception {
@@ -234,6 +283,34 @@ class PostControllerTest {
 				.andExpect(status().isOk());
 	}
 
+	@Test
+	@WithMockUser
+	void 피드목록_slice모드() throws Exception {
+
+		when(postService.listSlice(any())).thenReturn(new SliceImpl<>(List.of()));
+
+		mockMvc.perform(get("/api/v1/posts")
+						.param("mode", "slice")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.hasNext").value(false));
+	}
+
+	@Test
+	@WithMockUser
+	void 내피드목록_slice모드() throws Exception {
+
+		when(postService.mySlice(any(), any())).thenReturn(new SliceImpl<>(List.of()));
+
+		mockMvc.perform(get("/api/v1/posts/my")
+						.param("mode", "slice")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.hasNext").value(false));
+	}
+
 	@Test
 	@WithAnonymousUser
 	void 내피드목록요청시_로그인하지_않은경우() throws Exception {
@@ -247,4 +324,360 @@ class PostControllerTest {
 				).andDo(print())
 				.andExpect(status().isUnauthorized());
 	}
+
+	@Test
+	@WithMockUser
+	void 커서피드목록() throws Exception {
+
+		when(postService.feed(isNull(), anyInt())).thenReturn(new CursorPage<>(List.of(), null, false));
+
+		mockMvc.perform(get("/api/v1/posts/feed")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@WithMockUser
+	void 커서피드목록요청시_커서가_유효하지_않은경우() throws Exception {
+
+		mockMvc.perform(get("/api/v1/posts/feed")
+						.param("after", "not-a-cursor")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	@WithAnonymousUser
+	void 커서피드목록요청시_로그인하지_않은경우() throws Exception {
+
+		mockMvc.perform(get("/api/v1/posts/feed")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void 좋아요() throws Exception {
+
+		mockMvc.perform(post("/api/v1/posts/1/likes")
+						.with(user(User.fromClaims(1, "userName", UserRole.USER, 0)))
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void 좋아요시_이미_좋아요한경우() throws Exception {
+		doThrow(new SnsApplicationException(ErrorCode.ALREADY_LIKED)).when(likeService).like(1, 1);
+
+		mockMvc.perform(post("/api/v1/posts/1/likes")
+						.with(user(User.fromClaims(1, "userName", UserRole.USER, 0)))
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isConflict());
+	}
+
+	@Test
+	@WithAnonymousUser
+	void 좋아요시_로그인하지_않은경우() throws Exception {
+
+		mockMvc.perform(post("/api/v1/posts/1/likes")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	@WithMockUser
+	void 좋아요수() throws Exception {
+		when(likeService.count(1)).thenReturn(3L);
+
+		mockMvc.perform(get("/api/v1/posts/1/likes")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result").value(3));
+	}
+
+	@Test
+	void 포스트_가져오기는_진행상황을_NDJSON_으로_내려준다() throws Exception {
+		// given
+		String lines = "{\"userName\":\"a\",\"title\":\"t\",\"body\":\"b\"}\n";
+		when(postImportService.importPosts(any(), any())).thenReturn(new ImportProgress());
+
+		// then
+		mockMvc.perform(post("/api/v1/posts/import")
+						.with(user(User.fromClaims(1, "admin", UserRole.ADMIN, 0)))
+						.contentType(MediaType.APPLICATION_NDJSON)
+						.content(lines)
+				).andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+		verify(postImportService).importPosts(any(), any());
+	}
+
+	@Test
+	void 포스트_가져오기는_ADMIN_이_아니면_실패() throws Exception {
+		// then
+		mockMvc.perform(post("/api/v1/posts/import")
+						.with(user(User.fromClaims(1, "userName", UserRole.USER, 0)))
+						.contentType(MediaType.APPLICATION_NDJSON)
+						.content("{}\n")
+				).andDo(print())
+				.andExpect(status().isUnauthorized());
+		verify(postImportService, never()).importPosts(any(), any());
+	}
+
+	@Test
+	@WithMockUser
+	void 포스트검색() throws Exception {
+		// given
+		when(postSearchService.search(eq("spring"), isNull(), eq(20))).thenReturn(new CursorPage<>(List.of(), null, false));
+
+		// then
+		mockMvc.perform(get("/api/v1/posts/search")
+						.param("q", "spring")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.hasNext").value(false));
+	}
+
+	@Test
+	@WithMockUser
+	void 포스트검색시_커서가_잘못된경우() throws Exception {
+		mockMvc.perform(get("/api/v1/posts/search")
+						.param("q", "spring")
+						.param("after", "!!!")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	@WithMockUser(username = "exporter")
+	void 내포스트_내보내기() throws Exception {
+		// given
+		doAnswer(invocation -> {
+			Consumer<PostExport> consumer = invocation.getArgument(1);
+			consumer.accept(new PostExport(1, "title1", "body1", (Timestamp) null, null));
+			consumer.accept(new PostExport(2, "title2", "body2", (Timestamp) null, null));
+			return null;
+		}).when(postService).export(eq("exporter"), any());
+
+		// when
+		MvcResult result = mockMvc.perform(get("/api/v1/posts/my/export"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		// then
+		String body = mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+		String[] lines = body.split("\n");
+		Assertions.assertEquals(2, lines.length);
+		Assertions.assertEquals(2, objectMapper.readTree(lines[1]).get("id").asInt());
+	}
+
+	@Test
+	@WithMockUser
+	void 포스트단건조회() throws Exception {
+		// given
+		when(postService.get(1)).thenReturn(new PostSummary(1, "title", "body", 1, "userName", null, null));
+
+		// then
+		mockMvc.perform(get("/api/v1/posts/1")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.title").value("title"));
+	}
+
+	@Test
+	@WithMockUser
+	void 포스트단건조회시_포스트가_없는경우() throws Exception {
+		// given
+		when(postService.get(1)).thenThrow(new SnsApplicationException(ErrorCode.POST_NOT_FOUND));
+
+		// then
+		mockMvc.perform(get("/api/v1/posts/1")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	@WithMockUser
+	void 포스트목록이_바뀌지_않았으면_조회없이_304() throws Exception {
+		// given
+		when(postService.list(any())).thenReturn(Page.empty());
+		String etag = listETag(get("/api/v1/posts").param("page", "0"));
+		clearInvocations(postService);
+
+		// then
+		mockMvc.perform(get("/api/v1/posts")
+						.param("page", "0")
+						.header(HttpHeaders.IF_NONE_MATCH, etag)
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+		verify(postService, never()).list(any());
+	}
+
+	@Test
+	@WithMockUser
+	void 포스트가_바뀐뒤에는_목록을_다시_내려준다() throws Exception {
+		// given
+		when(postService.list(any())).thenReturn(Page.empty());
+		String etag = listETag(get("/api/v1/posts"));
+
+		// when
+		postVersionTracker.changed(1);
+
+		// then
+		MvcResult result = mockMvc.perform(get("/api/v1/posts")
+						.header(HttpHeaders.IF_NONE_MATCH, etag)
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isOk())
+				.andReturn();
+		Assertions.assertNotEquals(etag, result.getResponse().getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	@WithMockUser
+	void 다른_페이지나_다른_응답형식은_같은_ETag로_304가_되지_않는다() throws Exception {
+		// given
+		when(postService.list(any())).thenReturn(Page.empty());
+		when(postService.list(any(), any(PostFields.class))).thenReturn(Page.empty());
+		String etag = listETag(get("/api/v1/posts").param("page", "0"));
+
+		// then
+		mockMvc.perform(get("/api/v1/posts")
+						.param("page", "1")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/v1/posts")
+						.param("page", "0")
+						.param("fields", "title")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/v1/posts")
+						.param("page", "0")
+						.accept("application/x-jackson-smile")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+	}
+
+	@Test
+	@WithMockUser(username = "other")
+	void 내_포스트목록은_다른_유저의_ETag로_304가_되지_않는다() throws Exception {
+		// given
+		when(postService.my(any(), any())).thenReturn(Page.empty());
+		String etag = listETag(get("/api/v1/posts/my").with(user("userName")));
+
+		// then
+		mockMvc.perform(get("/api/v1/posts/my")
+						.header(HttpHeaders.IF_NONE_MATCH, etag)
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.AUTHORIZATION)));
+	}
+
+	@Test
+	@WithMockUser(username = "userName")
+	void 내_포스트목록이_바뀌지_않았으면_304() throws Exception {
+		// given
+		when(postService.mySlice(any(), any())).thenReturn(new SliceImpl<>(List.of()));
+		String etag = listETag(get("/api/v1/posts/my").param("mode", "slice"));
+		clearInvocations(postService);
+
+		// then
+		mockMvc.perform(get("/api/v1/posts/my")
+						.param("mode", "slice")
+						.header(HttpHeaders.IF_NONE_MATCH, etag)
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isNotModified());
+		verify(postService, never()).mySlice(any(), any());
+	}
+
+	@Test
+	@WithMockUser
+	void 포스트단건이_바뀌지_않았으면_304() throws Exception {
+		// given
+		PostSummary post = new PostSummary(1, "title", "body", 1, "userName", new Timestamp(0), new Timestamp(1000));
+		when(postService.get(1)).thenReturn(post);
+
+		// then
+		mockMvc.perform(get("/api/v1/posts/1")
+						.header(HttpHeaders.IF_NONE_MATCH, PostVersionTracker.postETag(post))
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	@WithMockUser
+	void 포스트목록을_고른_필드와_본문_앞부분만_조회() throws Exception {
+		// given
+		when(postService.list(any(), any(PostFields.class)))
+				.thenReturn(new PageImpl<>(List.of(Map.of("id", 1, "title", "title"))));
+
+		// then
+		mockMvc.perform(get("/api/v1/posts")
+						.param("fields", "title,body")
+						.param("excerpt", "100")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.content[0].title").value("title"))
+				.andExpect(jsonPath("$.result.content[0].user").doesNotExist());
+		verify(postService, never()).list(any(Pageable.class));
+	}
+
+	@Test
+	@WithMockUser
+	void 포스트목록_필드가_잘못된경우() throws Exception {
+		mockMvc.perform(get("/api/v1/posts")
+						.param("fields", "title,password")
+						.contentType(MediaType.APPLICATION_JSON)
+				).andDo(print())
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	@WithMockUser
+	void 포스트단건을_smile_로_조회() throws Exception {
+		// given
+		when(postService.get(1)).thenReturn(new PostSummary(1, "title", "body", 1, "userName", new Timestamp(1000), null));
+
+		// when
+		byte[] body = mockMvc.perform(get("/api/v1/posts/1")
+						.accept("application/x-jackson-smile")
+				).andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith("application/x-jackson-smile"))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		// then (날짜는 epoch millis)
+		JsonNode response = new ObjectMapper(new SmileFactory()).readTree(body);
+		Assertions.assertEquals("title", response.at("/result/title").asText());
+		Assertions.assertEquals(1000L, response.at("/result/registeredAt").asLong());
+	}
+
+	// 첫 응답이 내려준 ETag
+	private String listETag(MockHttpServletRequestBuilder request) throws Exception {
+		String etag = mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		Assertions.assertNotNull(etag);
+		return etag;
+	}
 }
@@ -0,0 +1,145 @@
+package com.fast.campus.simplesns.controller;
+
+import com.fast.campus.simplesns.config.datasource.StatementBudget;
+import com.fast.campus.simplesns.config.datasource.StatementScope;
+import com.fast.campus.simplesns.controller.request.PostCreateRequest;
+import com.fast.campus.simplesns.model.User;
+import com.fast.campus.simplesns.model.entity.PostEntity;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.repository.PostEntityRepository;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.fast.campus.simplesns.config.datasource.StatementAssertions.assertNoRepeatedStatements;
+import static com.fast.campus.simplesns.config.datasource.StatementAssertions.assertStatementCount;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * endpoint 별 SQL statement 수를 고정해 둔다. 실제 서비스/repository 와 H2 로 실행하므로
+ * 연관 엔티티를 하나씩 읽는 N+1 이나 불필요한 조회가 추가되면 여기서 숫자가 바뀐다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PostStatementCountTest {
+
+	private static final int AUTHORS = 5;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private UserEntityRepository userEntityRepository;
+
+	@Autowired
+	private PostEntityRepository postEntityRepository;
+
+	@SpyBean
+	private StatementBudget statementBudget;
+
+	private List<UserEntity> authors;
+	private List<PostEntity> posts;
+
+	@BeforeEach
+	void setUp() {
+		authors = new ArrayList<>();
+		posts = new ArrayList<>();
+		for (int i = 0; i < AUTHORS; i++) {
+			UserEntity author = userEntityRepository.save(UserEntity.of("statement" + System.nanoTime(), "password", 4));
+			authors.add(author);
+			for (int j = 0; j < 4; j++) {
+				posts.add(postEntityRepository.save(PostEntity.of("title", "body", author)));
+			}
+		}
+	}
+
+	@Test
+	void 포스트목록은_작성자수와_관계없이_같은_수의_statement_로_조회된다() throws Throwable {
+		// when
+		// 이 테스트에서 만든 post 만 보이도록 최신순 (좋아요/댓글 수 캐시에 없는 post)
+		StatementScope scope = assertStatementCount(4, () -> mockMvc.perform(get("/api/v1/posts?size=20&sort=id,desc").with(as(authors.get(0))))
+				.andExpect(status().isOk()));
+
+		// then
+		assertNoRepeatedStatements(scope, 2);
+	}
+
+	@Test
+	void 내포스트목록() throws Throwable {
+		// when
+		StatementScope scope = assertStatementCount(4, () -> mockMvc.perform(get("/api/v1/posts/my?size=20").with(as(authors.get(0))))
+				.andExpect(status().isOk()));
+
+		// then
+		assertNoRepeatedStatements(scope, 2);
+	}
+
+	@Test
+	void 포스트단건조회() throws Throwable {
+		// when
+		StatementScope scope = assertStatementCount(3, () -> mockMvc.perform(get("/api/v1/posts/" + posts.get(0).getId()).with(as(authors.get(0))))
+				.andExpect(status().isOk()));
+
+		// then
+		assertNoRepeatedStatements(scope, 2);
+	}
+
+	@Test
+	void 포스트작성() throws Throwable {
+		// when
+		StatementScope scope = assertStatementCount(4, () -> mockMvc.perform(post("/api/v1/posts").with(as(authors.get(0)))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsBytes(new PostCreateRequest("title", "body"))))
+				.andExpect(status().isOk()));
+
+		// then
+		assertNoRepeatedStatements(scope, 2);
+	}
+
+	@Test
+	void 포스트삭제_트랜잭션은_커밋때_flush_되는_update_까지_센다() throws Throwable {
+		// when
+		mockMvc.perform(delete("/api/v1/posts/" + posts.get(0).getId()).with(as(authors.get(0))))
+				.andExpect(status().isOk());
+
+		// then
+		// user 조회, post 조회, 커밋 때 flush 되는 soft delete update
+		ArgumentCaptor<StatementScope> scopes = ArgumentCaptor.forClass(StatementScope.class);
+		verify(statementBudget, atLeastOnce()).check(scopes.capture(), eq(StatementBudget.Kind.TRANSACTION));
+		StatementScope transaction = scopes.getAllValues().stream()
+				.filter(scope -> scope.getName().equals("PostService.delete(..)"))
+				.findFirst().orElseThrow();
+		Assertions.assertEquals(3, transaction.getCount(), () -> "unexpected statement count, repeated: " + transaction.getRepeated(2));
+	}
+
+	private static RequestPostProcessor as(UserEntity entity) {
+		User user = User.fromEntity(entity);
+		return authentication(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+	}
+}
@@ -2,23 +2,38 @@ package com.fast.campus.simplesns.controller;
 
 import com.fast.campus.simplesns.controller.request.UserJoinRequest;
 import com.fast.campus.simplesns.controller.request.UserLoginRequest;
+import com.fast.campus.simplesns.controller.request.UserPasswordChangeRequest;
 import com.fast.campus.simplesns.exception.ErrorCode;
 import com.fast.campus.simplesns.exception.SnsApplicationException;
 import com.fast.campus.simplesns.model.User;
+import com.fast.campus.simplesns.service.AlarmService;
+import com.fast.campus.simplesns.service.FollowService;
+import com.fast.campus.simplesns.service.LoginAttemptLimiter;
 import com.fast.campus.simplesns.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,9 +47,23 @@ public class UserControllerTest {
     @MockBean
     UserService userService;
 
+    @MockBean
+    FollowService followService;
+
+    @MockBean
+    AlarmService alarmService;
+
+    @MockBean
+    LoginAttemptLimiter loginAttemptLimiter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void allowLoginAttempts() {
+        when(loginAttemptLimiter.tryAcquire(any(), any())).thenReturn(true);
+    }
+
     @Test
     @WithAnonymousUser
     public void 회원가입() throws Exception {
@@ -94,6 +123,57 @@ public class UserControllerTest {
                 .andExpect(status().is(ErrorCode.USER_NOT_FOUND.getStatus().value()));
     }
 
+    @Test
+    @WithAnonymousUser
+    public void 로그인시_해시_대기열이_가득차면_429() throws Exception {
+        String userName = "name";
+        String password = "password";
+
+        when(userService.login(userName, password)).thenThrow(new SnsApplicationException(ErrorCode.TOO_MANY_REQUESTS));
+
+        mockMvc.perform(post("/api/v1/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new UserLoginRequest("name", "password"))))
+                .andDo(print())
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @WithAnonymousUser
+    public void 로그인시_시도횟수를_넘기면_조회전에_429() throws Exception {
+        when(loginAttemptLimiter.tryAcquire(eq("name"), any())).thenReturn(false);
+
+        mockMvc.perform(post("/api/v1/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        // 신뢰하는 프록시를 거치지 않은 X-Forwarded-For 는 무시한다
+                        .header("X-Forwarded-For", "10.0.0.1, 10.0.0.2")
+                        .content(objectMapper.writeValueAsBytes(new UserLoginRequest("name", "password"))))
+                .andDo(print())
+                .andExpect(status().isTooManyRequests());
+
+        verify(loginAttemptLimiter).tryAcquire("name", "127.0.0.1");
+        verify(userService, never()).login(any(), any());
+    }
+
+    @Test
+    @WithAnonymousUser
+    public void 로그인시_이름이_없으면_시도횟수를_세기전에_400() throws Exception {
+        mockMvc.perform(post("/api/v1/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new UserLoginRequest(null, "password"))))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/v1/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new UserLoginRequest(" ", "password"))))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verify(loginAttemptLimiter, never()).tryAcquire(any(), any());
+        verify(userService, never()).login(any(), any());
+    }
+
     @Test
     @WithAnonymousUser
     public void 로그인시_비밀번호가_다르면_에러발생() throws Exception {
@@ -108,4 +188,85 @@ public class UserControllerTest {
                 .andDo(print())
                 .andExpect(status().is(ErrorCode.INVALID_PASSWORD.getStatus().value()));
     }
+
+    @Test
+    @WithMockUser(username = "name")
+    public void 비밀번호_변경() throws Exception {
+        when(userService.changePassword("name", "password", "newPassword")).thenReturn("new_token");
+
+        mockMvc.perform(put("/api/v1/users/password")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new UserPasswordChangeRequest("password", "newPassword"))))
+                .andDo(print())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithAnonymousUser
+    public void 비밀번호_변경시_로그인하지_않은경우() throws Exception {
+        mockMvc.perform(put("/api/v1/users/password")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new UserPasswordChangeRequest("password", "newPassword"))))
+                .andDo(print())
+                .andExpect(status().isUnauthorized());
+        verify(userService, never()).changePassword(any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "name")
+    public void 탈퇴() throws Exception {
+        mockMvc.perform(delete("/api/v1/users/me"))
+                .andDo(print())
+                .andExpect(status().isOk());
+        verify(userService).delete("name");
+    }
+
+    @Test
+    @WithMockUser
+    public void 팔로우() throws Exception {
+        mockMvc.perform(post("/api/v1/users/target/follow")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser
+    public void 팔로우시_이미_팔로우한_경우_에러발생() throws Exception {
+        doThrow(new SnsApplicationException(ErrorCode.ALREADY_FOLLOWED)).when(followService).follow(any(), eq("target"));
+
+        mockMvc.perform(post("/api/v1/users/target/follow")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().is(ErrorCode.ALREADY_FOLLOWED.getStatus().value()));
+    }
+
+    @Test
+    @WithAnonymousUser
+    public void 팔로우시_로그인하지_않은경우() throws Exception {
+        mockMvc.perform(post("/api/v1/users/target/follow")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser
+    public void 알람기능() throws Exception {
+        when(alarmService.alarmList(any(), any())).thenReturn(Page.empty());
+
+        mockMvc.perform(get("/api/v1/users/alarm")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithAnonymousUser
+    public void 알람리스트요청시_로그인하지_않은경우_에러발생() throws Exception {
+        mockMvc.perform(get("/api/v1/users/alarm")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isUnauthorized());
+    }
 }
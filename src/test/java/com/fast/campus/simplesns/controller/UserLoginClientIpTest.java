@@ -0,0 +1,56 @@
+package com.fast.campus.simplesns.controller;
+
+import com.fast.campus.simplesns.controller.request.UserLoginRequest;
+import com.fast.campus.simplesns.service.UserService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+// 실제 Tomcat 으로 띄워서 RemoteIpValve 가 X-Forwarded-For 를 처리하게 한다. 테스트 client (127.0.0.1) 를 신뢰하는 프록시로 둔다
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.remoteip.internal-proxies=127\\.0\\.0\\.1",
+        "sns.login-limit.ip.capacity=2",
+        "sns.login-limit.ip.refill-per-minute=1"
+})
+@ActiveProfiles("test")
+class UserLoginClientIpTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    private UserService userService;
+
+    @Test
+    void X_Forwarded_For_의_왼쪽을_바꿔도_ip_bucket_은_그대로다() {
+        // given (client 가 앞쪽에 임의의 주소를 넣고, 프록시가 실제 주소 203.0.113.7 을 붙였다)
+        HttpStatus first = login("user-a", "1.1.1.1, 203.0.113.7");
+        HttpStatus second = login("user-b", "2.2.2.2, 203.0.113.7");
+
+        // when
+        HttpStatus spoofed = login("user-c", "3.3.3.3, 203.0.113.7");
+
+        // then
+        Assertions.assertEquals(HttpStatus.OK, first);
+        Assertions.assertEquals(HttpStatus.OK, second);
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, spoofed);
+        // 다른 실제 주소는 따로 센다
+        Assertions.assertEquals(HttpStatus.OK, login("user-d", "3.3.3.3, 198.51.100.9"));
+    }
+
+    private HttpStatus login(String userName, String forwardedFor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", forwardedFor);
+        return restTemplate.postForEntity("/api/v1/users/login",
+                new HttpEntity<>(new UserLoginRequest(userName, "password"), headers), String.class).getStatusCode();
+    }
+}
@@ -0,0 +1,115 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.Comment;
+import com.fast.campus.simplesns.model.PostCount;
+import com.fast.campus.simplesns.model.entity.CommentEntity;
+import com.fast.campus.simplesns.model.entity.PostEntity;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class CommentEntityRepositoryTest {
+
+	private static final int COMMENTS = 5;
+
+	@Autowired
+	private CommentEntityRepository commentEntityRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private PostEntity commented;
+
+	private PostEntity other;
+
+	@BeforeEach
+	void setUp() {
+		UserEntity user = UserEntity.of("user", "password");
+		entityManager.persist(user);
+		commented = PostEntity.of("title", "body", user);
+		other = PostEntity.of("title", "body", user);
+		entityManager.persist(commented);
+		entityManager.persist(other);
+		for (int i = 0; i < COMMENTS; i++) {
+			entityManager.persist(CommentEntity.of(commented, user, "comment" + i));
+		}
+		entityManager.persist(CommentEntity.of(other, user, "other"));
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void 커서_다음의_댓글을_작성순서대로_조회한다() {
+		// given
+		Timestamp now = Timestamp.from(Instant.now());
+		List<Comment> first = commentEntityRepository.findCommentsAfter(
+				commented.getId(), new Timestamp(0), 0, now, PageRequest.of(0, 2));
+		Comment last = first.get(first.size() - 1);
+		Statistics statistics = statistics();
+
+		// when
+		List<Comment> next = commentEntityRepository.findCommentsAfter(
+				commented.getId(), last.getRegisteredAt(), last.getId(), now, PageRequest.of(0, 2));
+
+		// then (작성자 이름까지 select 한 번)
+		Assertions.assertEquals(List.of("comment0", "comment1"), first.stream().map(Comment::getComment).collect(Collectors.toList()));
+		Assertions.assertEquals(List.of("comment2", "comment3"), next.stream().map(Comment::getComment).collect(Collectors.toList()));
+		Assertions.assertEquals("user", next.get(0).getUserName());
+		Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void 조회_지연보다_최근에_작성된_댓글은_다음_조회로_미룬다() {
+		// given (커밋 중일 수 있는 댓글)
+		Timestamp visibleBefore = Timestamp.from(Instant.now().minusSeconds(60));
+
+		// when
+		List<Comment> comments = commentEntityRepository.findCommentsAfter(
+				commented.getId(), new Timestamp(0), 0, visibleBefore, PageRequest.of(0, COMMENTS));
+
+		// then
+		Assertions.assertTrue(comments.isEmpty());
+	}
+
+	@Test
+	void 여러_포스트의_댓글수를_쿼리_한번에_조회한다() {
+		// given
+		Statistics statistics = statistics();
+
+		// when
+		Map<Integer, Long> counts = commentEntityRepository.countByPostIdIn(List.of(commented.getId(), other.getId())).stream()
+				.collect(Collectors.toMap(PostCount::getPostId, PostCount::getCount));
+
+		// then
+		Assertions.assertEquals(COMMENTS, counts.get(commented.getId()));
+		Assertions.assertEquals(1L, counts.get(other.getId()));
+		Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+		return statistics;
+	}
+}
@@ -0,0 +1,109 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.SearchCursor;
+import com.fast.campus.simplesns.model.SearchHit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class InMemoryPostSearchRepositoryTest {
+
+	private final InMemoryPostSearchRepository repository = new InMemoryPostSearchRepository(null, false);
+
+	@Test
+	void 모든_단어가_들어간_post_만_관련도_순으로_찾는다() {
+		// given
+		repository.index(1, "spring boot", "jpa batch insert");
+		repository.index(2, "kafka", "spring consumer with jpa");
+		repository.index(3, "spring jpa", "jpa jpa");
+		repository.index(4, "redis", "cache only");
+
+		// when
+		List<Integer> found = postIds(repository.search("Spring JPA", null, 10));
+
+		// then (제목에 두 단어가 다 있는 3 이 먼저, 본문에만 있는 2 가 마지막)
+		Assertions.assertEquals(List.of(3, 1, 2), found);
+		Assertions.assertTrue(repository.search("spring redis", null, 10).isEmpty());
+		Assertions.assertTrue(repository.search("nothing", null, 10).isEmpty());
+	}
+
+	@Test
+	void 조사가_붙은_한국어_단어도_찾는다() {
+		// given
+		repository.index(1, "오늘의 일기", "스프링부트를 공부했다");
+		repository.index(2, "점심", "부트캠프 첫날");
+
+		// when
+		List<Integer> found = postIds(repository.search("스프링부트", null, 10));
+
+		// then
+		Assertions.assertEquals(List.of(1), found);
+	}
+
+	@Test
+	void 수정하면_이전_단어로는_찾을_수_없고_삭제하면_빠진다() {
+		// given
+		repository.index(1, "old title", "old body");
+		repository.index(2, "other", "old");
+
+		// when
+		repository.index(1, "new title", "new body");
+		repository.remove(2);
+
+		// then
+		Assertions.assertTrue(repository.search("old", null, 10).isEmpty());
+		Assertions.assertEquals(List.of(1), postIds(repository.search("new", null, 10)));
+	}
+
+	@Test
+	void 커서로_이어서_읽으면_빠지거나_겹치는_결과가_없다() {
+		// given
+		for (int postId = 1; postId <= 95; postId++) {
+			repository.index(postId, "post " + postId, "word ".repeat(postId % 7 + 1));
+		}
+
+		// when
+		List<Integer> read = new ArrayList<>();
+		SearchCursor cursor = null;
+		List<SearchHit> page;
+		do {
+			page = repository.search("word", cursor, 10);
+			read.addAll(postIds(page));
+			cursor = page.isEmpty() ? null : page.get(page.size() - 1).toCursor();
+		} while (page.size() == 10);
+
+		// then
+		Assertions.assertEquals(95, read.size());
+		Assertions.assertEquals(95, new HashSet<>(read).size());
+	}
+
+	@Test
+	void 죽은_slot_을_정리한_뒤에도_결과가_같다() {
+		// given
+		for (int postId = 1; postId <= 3000; postId++) {
+			repository.index(postId, "title", postId % 2 == 0 ? "even number" : "odd number");
+		}
+
+		// when (절반 이상을 다시 색인해서 정리가 일어나게 한다)
+		for (int postId = 1; postId <= 2000; postId++) {
+			repository.index(postId, "title", postId % 2 == 0 ? "even changed" : "odd number");
+		}
+
+		// then
+		Set<Integer> changed = new HashSet<>(postIds(repository.search("changed", null, 5000)));
+		Set<Integer> number = new HashSet<>(postIds(repository.search("number", null, 5000)));
+		Assertions.assertEquals(1000, changed.size());
+		Assertions.assertTrue(changed.stream().allMatch(postId -> postId % 2 == 0 && postId <= 2000));
+		Assertions.assertEquals(2000, number.size());
+		Assertions.assertTrue(number.stream().noneMatch(changed::contains));
+	}
+
+	private static List<Integer> postIds(List<SearchHit> hits) {
+		return hits.stream().map(SearchHit::getPostId).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,170 @@
+package com.fast.campus.simplesns.repository;
+
+import com.fast.campus.simplesns.model.PostExport;
+import com.fast.campus.simplesns.model.PostFields;
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fast.campus.simplesns.model.entity.PostEntity;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class PostEntityRepositoryTest {
+
+	private static final int AUTHORS = 10;
+	private static final int POSTS_PER_AUTHOR = 2;
+
+	@Autowired
+	private PostEntityRepository postEntityRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private UserEntity firstAuthor;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < AUTHORS; i++) {
+			UserEntity user = UserEntity.of("user" + i, "password");
+			entityManager.persist(user);
+			if (i == 0) {
+				firstAuthor = user;
+			}
+			for (int j = 0; j < POSTS_PER_AUTHOR; j++) {
+				entityManager.persist(PostEntity.of("title" + j, "body" + j, user));
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void 여러_작성자의_피드목록을_조회해도_쿼리수는_고정된다() {
+		// given
+		Statistics statistics = statistics();
+
+		// when
+		Page<PostSummary> page = postEntityRepository.findAllPostSummaries(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+
+		// then (목록 select 1번 + count 1번, 작성자별 select 없음)
+		Assertions.assertEquals(10, page.getContent().size());
+		Assertions.assertEquals(AUTHORS * POSTS_PER_AUTHOR, page.getTotalElements());
+		Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+		Assertions.assertEquals(0, statistics.getEntityLoadCount());
+		Assertions.assertNotNull(page.getContent().get(0).getUserName());
+	}
+
+	@Test
+	void 내_피드목록을_조회해도_작성자를_다시_조회하지_않는다() {
+		// given
+		Statistics statistics = statistics();
+
+		// when
+		Page<PostSummary> page = postEntityRepository.findAllPostSummariesByUserId(firstAuthor.getId(), PageRequest.of(0, 1));
+
+		// then
+		Assertions.assertEquals(1, page.getContent().size());
+		Assertions.assertEquals(POSTS_PER_AUTHOR, page.getTotalElements());
+		Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+		Assertions.assertEquals(firstAuthor.getId(), page.getContent().get(0).getUserId());
+	}
+
+	@Test
+	void slice로_조회하면_count_쿼리를_실행하지_않는다() {
+		// given
+		Statistics statistics = statistics();
+
+		// when
+		Slice<PostSummary> slice = postEntityRepository.findPostSummarySlice(PageRequest.of(0, 10));
+
+		// then
+		Assertions.assertEquals(10, slice.getContent().size());
+		Assertions.assertTrue(slice.hasNext());
+		Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void 커서피드목록은_count_쿼리_없이_한번에_조회한다() {
+		// given
+		Statistics statistics = statistics();
+
+		// when
+		postEntityRepository.findFeed(PageRequest.of(0, 11));
+
+		// then
+		Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void 내보내기는_엔티티를_영속성_컨텍스트에_올리지_않고_id_순으로_읽는다() {
+		// given
+		Statistics statistics = statistics();
+
+		// when
+		List<Integer> ids;
+		try (Stream<PostExport> posts = postEntityRepository.streamExportByUserId(firstAuthor.getId())) {
+			ids = posts.map(PostExport::getId).collect(Collectors.toList());
+		}
+
+		// then
+		Assertions.assertEquals(POSTS_PER_AUTHOR, ids.size());
+		Assertions.assertTrue(ids.get(0) < ids.get(1));
+		Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+		Assertions.assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void 고른_필드만_조회하고_본문은_앞부분만_가져온다() {
+		// given
+		Statistics statistics = statistics();
+
+		// when
+		List<Map<String, Object>> rows = postEntityRepository.findPostFields(PostFields.of("title,body", 3),
+				firstAuthor.getId(), 0, 10, Sort.by("id"));
+
+		// then
+		Assertions.assertEquals(POSTS_PER_AUTHOR, rows.size());
+		Assertions.assertEquals(List.of("id", "title", "body"), List.copyOf(rows.get(0).keySet()));
+		Assertions.assertEquals("bod", rows.get(0).get("body"));
+		Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+		Assertions.assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void 고른_필드의_피드는_커서용_registeredAt_을_함께_가져온다() {
+		// when
+		List<Map<String, Object>> rows = postEntityRepository.findFeedFields(PostFields.of("user", null), null, 5);
+
+		// then
+		Assertions.assertEquals(5, rows.size());
+		Assertions.assertEquals(List.of("id", "user", "registeredAt"), List.copyOf(rows.get(0).keySet()));
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+		return statistics;
+	}
+}
@@ -0,0 +1,174 @@
+package com.fast.campus.simplesns.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class AlarmEmitterRegistryTest {
+
+	private final AlarmEmitterRegistry registry = new AlarmEmitterRegistry(4, 60_000L, 60_000L, 60_000L, 16, 1, 100);
+
+	@AfterEach
+	void close() {
+		registry.close();
+	}
+
+	@Test
+	void 구독한_유저에게만_알람이_전달된다() throws Exception {
+		// given
+		RecordingEmitter subscriber = new RecordingEmitter();
+		RecordingEmitter other = new RecordingEmitter();
+		registry.register(1, subscriber);
+		registry.register(2, other);
+
+		// when
+		registry.send(1, "alarm");
+
+		// then
+		Assertions.assertTrue(subscriber.received.await(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(1, other.received.getCount());
+	}
+
+	@Test
+	void 전송에_실패한_연결은_목록에서_빠진다() throws Exception {
+		// given
+		registry.register(1, new SseEmitter() {
+			@Override
+			public void send(SseEventBuilder builder) throws IOException {
+				throw new IOException("broken pipe");
+			}
+		});
+
+		// when
+		registry.send(1, "alarm");
+
+		// then
+		for (int i = 0; i < 50 && registry.size() > 0; i++) {
+			Thread.sleep(100);
+		}
+		Assertions.assertEquals(0, registry.size());
+	}
+
+	@Test
+	void 쓰기가_끝나지_않는_연결은_heartbeat_때_빠지고_다른_연결에는_계속_전달된다() throws Exception {
+		// given (heartbeat 100ms, 쓰기 timeout 200ms, fan-out 스레드 2개)
+		AlarmEmitterRegistry limited = new AlarmEmitterRegistry(1, 60_000L, 100L, 200L, 16, 2, 100);
+		CountDownLatch released = new CountDownLatch(1);
+		RecordingEmitter other = new RecordingEmitter();
+		try {
+			limited.register(1, new SseEmitter() {
+				@Override
+				public void send(SseEventBuilder builder) {
+					// 받지 않는 클라이언트라 소켓 쓰기가 막혀 있다
+					try {
+						released.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+			limited.register(2, other);
+
+			// when
+			limited.send(1, "alarm");
+			for (int i = 0; i < 50 && limited.size() > 1; i++) {
+				Thread.sleep(100);
+			}
+			limited.send(2, "alarm");
+
+			// then
+			Assertions.assertEquals(1, limited.size());
+			Assertions.assertTrue(other.received.await(5, TimeUnit.SECONDS));
+		} finally {
+			released.countDown();
+			limited.close();
+		}
+	}
+
+	@Test
+	void 받지_못한_event_가_쌓인_연결은_빠진다() {
+		// given
+		AlarmEmitterRegistry limited = new AlarmEmitterRegistry(1, 60_000L, 60_000L, 60_000L, 2, 1, 100);
+		CountDownLatch released = new CountDownLatch(1);
+		try {
+			limited.register(1, new SseEmitter() {
+				@Override
+				public void send(SseEventBuilder builder) {
+					try {
+						released.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+
+			// when (첫 event 의 쓰기가 막혀 있는 동안 더 보낸다)
+			for (int i = 0; i < 4; i++) {
+				limited.send(1, "alarm");
+			}
+
+			// then
+			Assertions.assertEquals(0, limited.size());
+		} finally {
+			released.countDown();
+			limited.close();
+		}
+	}
+
+	@Test
+	void 전송이_밀려_drain_이_없는_연결도_빠질_때_응답을_끝낸다() {
+		// given (fan-out 스레드 1개, 대기열 1개)
+		AlarmEmitterRegistry limited = new AlarmEmitterRegistry(1, 60_000L, 60_000L, 60_000L, 2, 1, 1);
+		CountDownLatch released = new CountDownLatch(1);
+		CountDownLatch completed = new CountDownLatch(1);
+		try {
+			for (int userId = 1; userId <= 2; userId++) {
+				limited.register(userId, new SseEmitter() {
+					@Override
+					public void send(SseEventBuilder builder) {
+						try {
+							released.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				});
+			}
+			limited.register(3, new SseEmitter() {
+				@Override
+				public synchronized void complete() {
+					completed.countDown();
+				}
+			});
+			// 1 의 쓰기가 스레드를 잡고, 2 의 drain 이 대기열을 채운다
+			limited.send(1, "alarm");
+			limited.send(2, "alarm");
+
+			// when (3 의 drain 은 거절되어 event 만 쌓인다)
+			for (int i = 0; i < 3; i++) {
+				limited.send(3, "alarm");
+			}
+
+			// then
+			Assertions.assertEquals(0, completed.getCount());
+			Assertions.assertEquals(2, limited.size());
+		} finally {
+			released.countDown();
+			limited.close();
+		}
+	}
+
+	private static class RecordingEmitter extends SseEmitter {
+		private final CountDownLatch received = new CountDownLatch(1);
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			received.countDown();
+		}
+	}
+}
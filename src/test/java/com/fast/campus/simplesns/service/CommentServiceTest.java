@@ -0,0 +1,117 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.fixture.PostEntityFixture;
+import com.fast.campus.simplesns.fixture.UserEntityFixture;
+import com.fast.campus.simplesns.model.entity.CommentEntity;
+import com.fast.campus.simplesns.model.entity.PostEntity;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.repository.CommentEntityRepository;
+import com.fast.campus.simplesns.repository.PostEntityRepository;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class CommentServiceTest {
+
+	@Autowired
+	private CommentService commentService;
+
+	@MockBean
+	private CommentEntityRepository commentEntityRepository;
+
+	@MockBean
+	private PostEntityRepository postEntityRepository;
+
+	@MockBean
+	private UserEntityRepository userEntityRepository;
+
+	@Autowired
+	private PostVersionTracker postVersionTracker;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void 댓글작성이_성공한경우() {
+		// given
+		UserEntity user = UserEntityFixture.get("userName", "password", 1);
+		PostEntity post = PostEntityFixture.get("userName", 1, 1);
+
+		// when
+		when(userEntityRepository.findByUserName("userName")).thenReturn(Optional.of(user));
+		when(postEntityRepository.findById(1)).thenReturn(Optional.of(post));
+		when(commentEntityRepository.save(any())).thenReturn(mock(CommentEntity.class));
+
+		// then
+		Assertions.assertDoesNotThrow(() -> commentService.create(1, "userName", "comment"));
+	}
+
+	@Test
+	void 댓글_수_변경은_커밋된_뒤에_목록_버전에_반영된다() {
+		// given
+		UserEntity user = UserEntityFixture.get("userName", "password", 1);
+		PostEntity post = PostEntityFixture.get("userName", 1, 1);
+		when(userEntityRepository.findByUserName("userName")).thenReturn(Optional.of(user));
+		when(postEntityRepository.findById(1)).thenReturn(Optional.of(post));
+		when(commentEntityRepository.save(any())).thenReturn(mock(CommentEntity.class));
+		OptionalLong version = postVersionTracker.listVersion();
+
+		// when
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			commentService.create(1, "userName", "comment");
+			// 커밋 전에는 다른 요청이 바뀌기 전 목록을 새 버전으로 가져가지 않도록 그대로다
+			Assertions.assertEquals(version, postVersionTracker.listVersion());
+		});
+
+		// then
+		Assertions.assertNotEquals(version, postVersionTracker.listVersion());
+	}
+
+	@Test
+	void 댓글작성시_포스트가_존재하지않는_경우() {
+		// given
+		UserEntity user = UserEntityFixture.get("userName", "password", 1);
+
+		// when
+		when(userEntityRepository.findByUserName("userName")).thenReturn(Optional.of(user));
+		when(postEntityRepository.findById(1)).thenReturn(Optional.empty());
+
+		// then
+		SnsApplicationException exception = Assertions.assertThrows(SnsApplicationException.class,
+				() -> commentService.create(1, "userName", "comment"));
+		Assertions.assertEquals(ErrorCode.POST_NOT_FOUND, exception.getErrorCode());
+	}
+
+	@Test
+	void 댓글삭제시_본인이_작성한_댓글이_아닌경우() {
+		// given
+		UserEntity writer = UserEntityFixture.get("writer", "password", 1);
+		UserEntity other = UserEntityFixture.get("other", "password", 2);
+		CommentEntity comment = CommentEntity.of(PostEntityFixture.get("writer", 1, 1), writer, "comment");
+		comment.setId(10);
+
+		// when
+		when(userEntityRepository.findByUserName("other")).thenReturn(Optional.of(other));
+		when(commentEntityRepository.findById(10)).thenReturn(Optional.of(comment));
+
+		// then
+		SnsApplicationException exception = Assertions.assertThrows(SnsApplicationException.class,
+				() -> commentService.delete(1, 10, "other"));
+		Assertions.assertEquals(ErrorCode.INVALID_PERMISSION, exception.getErrorCode());
+	}
+}
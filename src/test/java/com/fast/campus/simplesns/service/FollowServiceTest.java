@@ -0,0 +1,107 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.repository.FollowEntityRepository;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Optional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FollowServiceTest {
+
+	@Autowired
+	private FollowService followService;
+
+	@Autowired
+	private UserEntityRepository userEntityRepository;
+
+	@Autowired
+	private FollowEntityRepository followEntityRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void 팔로우와_언팔로우는_팔로워_수를_같이_바꾼다() {
+		// given
+		UserEntity celebrity = save("follow-celebrity");
+		UserEntity first = save("follow-first");
+		UserEntity second = save("follow-second");
+
+		// when
+		followService.follow(first.getUserName(), celebrity.getUserName());
+		followService.follow(second.getUserName(), celebrity.getUserName());
+		followService.unfollow(second.getUserName(), celebrity.getUserName());
+
+		// then
+		Assertions.assertEquals(Optional.of(1L), userEntityRepository.findFollowerCountById(celebrity.getId()));
+		Assertions.assertEquals(List.of(celebrity.getId()), followEntityRepository.findCelebrityFollowingIds(first.getId(), 1));
+		Assertions.assertEquals(List.of(), followEntityRepository.findCelebrityFollowingIds(first.getId(), 2));
+	}
+
+	@Test
+	void 언팔로우_후_다시_팔로우하면_삭제된_row_를_되살린다() {
+		// given
+		UserEntity following = save("follow-again");
+		UserEntity follower = save("follow-again-follower");
+		followService.follow(follower.getUserName(), following.getUserName());
+		followService.unfollow(follower.getUserName(), following.getUserName());
+
+		// when
+		followService.follow(follower.getUserName(), following.getUserName());
+
+		// then
+		Assertions.assertEquals(Optional.of(1L), userEntityRepository.findFollowerCountById(following.getId()));
+		Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"follow\" WHERE follower_id = ? AND following_id = ?",
+				Integer.class, follower.getId(), following.getId()));
+		SnsApplicationException exception = Assertions.assertThrows(SnsApplicationException.class,
+				() -> followService.follow(follower.getUserName(), following.getUserName()));
+		Assertions.assertEquals(ErrorCode.ALREADY_FOLLOWED, exception.getErrorCode());
+	}
+
+	@Test
+	void 이미_언팔로우한_유저를_다시_언팔로우하면_팔로워_수를_바꾸지_않는다() {
+		// given
+		UserEntity following = save("unfollow-twice");
+		UserEntity follower = save("unfollow-twice-follower");
+		followService.follow(follower.getUserName(), following.getUserName());
+		followService.unfollow(follower.getUserName(), following.getUserName());
+
+		// when
+		SnsApplicationException exception = Assertions.assertThrows(SnsApplicationException.class,
+				() -> followService.unfollow(follower.getUserName(), following.getUserName()));
+
+		// then
+		Assertions.assertEquals(ErrorCode.FOLLOW_NOT_FOUND, exception.getErrorCode());
+		Assertions.assertEquals(Optional.of(0L), userEntityRepository.findFollowerCountById(following.getId()));
+	}
+
+	@Test
+	void 팔로워_수가_비어있는_예전_유저는_팔로우_테이블에서_센다() {
+		// given
+		UserEntity following = save("follow-legacy");
+		UserEntity follower = save("follow-legacy-follower");
+		followService.follow(follower.getUserName(), following.getUserName());
+		jdbcTemplate.update("UPDATE \"user\" SET follower_count = NULL WHERE id = ?", following.getId());
+
+		// when
+		followService.backfillFollowerCounts();
+
+		// then
+		Assertions.assertEquals(Optional.of(1L), userEntityRepository.findFollowerCountById(following.getId()));
+	}
+
+	private UserEntity save(String userName) {
+		return userEntityRepository.save(UserEntity.of(userName + System.nanoTime(), "password", 4));
+	}
+}
@@ -0,0 +1,51 @@
+package com.fast.campus.simplesns.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class InMemoryLoginAttemptLimiterTest {
+
+	@Test
+	void 유저별_시도횟수를_넘기면_막는다() {
+		// given (user 3 번, ip 100 번)
+		InMemoryLoginAttemptLimiter limiter = new InMemoryLoginAttemptLimiter(3, 3, 100, 100);
+
+		// when
+		for (int i = 0; i < 3; i++) {
+			Assertions.assertTrue(limiter.tryAcquire("user", "1.1.1.1"));
+		}
+
+		// then (같은 유저는 다른 ip 로도 막히고, 다른 유저는 통과)
+		Assertions.assertFalse(limiter.tryAcquire("user", "2.2.2.2"));
+		Assertions.assertTrue(limiter.tryAcquire("other", "1.1.1.1"));
+	}
+
+	@Test
+	void ip별_시도횟수를_넘기면_막는다() {
+		// given (user 100 번, ip 2 번)
+		InMemoryLoginAttemptLimiter limiter = new InMemoryLoginAttemptLimiter(100, 100, 2, 2);
+
+		// when
+		Assertions.assertTrue(limiter.tryAcquire("user1", "1.1.1.1"));
+		Assertions.assertTrue(limiter.tryAcquire("user2", "1.1.1.1"));
+
+		// then
+		Assertions.assertFalse(limiter.tryAcquire("user3", "1.1.1.1"));
+		Assertions.assertTrue(limiter.tryAcquire("user3", "2.2.2.2"));
+	}
+
+	@Test
+	void 다른_유저로_많이_시도해도_막힌_bucket_은_다시_채워지지_않는다() {
+		// given
+		InMemoryLoginAttemptLimiter limiter = new InMemoryLoginAttemptLimiter(1, 1, 1_000_000, 1_000_000);
+		Assertions.assertTrue(limiter.tryAcquire("victim", "1.1.1.1"));
+
+		// when
+		for (int i = 0; i < 200_000; i++) {
+			limiter.tryAcquire("user" + i, "1.1.1.1");
+		}
+
+		// then
+		Assertions.assertFalse(limiter.tryAcquire("victim", "1.1.1.1"));
+	}
+}
@@ -0,0 +1,58 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.model.entity.PostEntity;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.repository.PostEntityRepository;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+@SpringBootTest(properties = "sns.like.flush-interval-ms=3600000")
+@ActiveProfiles("test")
+class LikeServiceFlushTest {
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private UserEntityRepository userEntityRepository;
+
+	@Autowired
+	private PostEntityRepository postEntityRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void 다른_노드가_먼저_저장한_좋아요가_있어도_batch_의_나머지_좋아요는_저장된다() {
+		// given
+		UserEntity writer = userEntityRepository.save(UserEntity.of("like-writer" + System.nanoTime(), "password", 4));
+		UserEntity first = userEntityRepository.save(UserEntity.of("like-first" + System.nanoTime(), "password", 4));
+		UserEntity second = userEntityRepository.save(UserEntity.of("like-second" + System.nanoTime(), "password", 4));
+		UserEntity third = userEntityRepository.save(UserEntity.of("like-third" + System.nanoTime(), "password", 4));
+		Integer postId = postEntityRepository.save(PostEntity.of("title", "body", writer)).getId();
+		likeService.like(postId, first.getId());
+		likeService.like(postId, second.getId());
+		likeService.like(postId, third.getId());
+		// 이 노드가 second 의 좋아요를 받은 뒤, flush 하기 전에 다른 노드가 같은 좋아요를 저장했다
+		jdbcTemplate.update("INSERT INTO \"like\" (post_id, user_id, registered_at) VALUES (?, ?, ?)",
+				postId, second.getId(), Timestamp.from(Instant.now()));
+
+		// when
+		likeService.flush();
+
+		// then
+		List<Integer> userIds = jdbcTemplate.queryForList(
+				"SELECT user_id FROM \"like\" WHERE post_id = ? ORDER BY user_id", Integer.class, postId);
+		Assertions.assertEquals(List.of(first.getId(), second.getId(), third.getId()), userIds);
+		Assertions.assertEquals(3L, likeService.count(postId));
+	}
+}
@@ -0,0 +1,257 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.PostCount;
+import com.fast.campus.simplesns.repository.LikeEntityRepository;
+import com.fast.campus.simplesns.repository.PostCacheRepository;
+import com.fast.campus.simplesns.repository.PostEntityRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// 스케줄러가 테스트 도중 flush 하지 않도록 주기를 길게 둔다
+@SpringBootTest(properties = "sns.like.flush-interval-ms=3600000")
+class LikeServiceTest {
+
+	@Autowired
+	private LikeService likeService;
+
+	@MockBean
+	private PostEntityRepository postEntityRepository;
+
+	@MockBean
+	private LikeEntityRepository likeEntityRepository;
+
+	@MockBean
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PostCacheRepository postCacheRepository;
+
+	@Autowired
+	private PostVersionTracker postVersionTracker;
+
+	// batch 의 모든 row 가 바뀐 것으로 답한다
+	@BeforeEach
+	void setUp() {
+		when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+				.thenAnswer(invocation -> IntStream.range(0, invocation.<List<?>>getArgument(1).size()).map(i -> 1).toArray());
+	}
+
+	@Test
+	void 좋아요는_메모리_카운터에_바로_반영된다() {
+		// given
+		when(postEntityRepository.findUserIdById(10)).thenReturn(Optional.of(99));
+		when(likeEntityRepository.countByPostIdIn(anyCollection())).thenReturn(List.of(postCount(10, 1L)));
+
+		// when
+		likeService.like(10, 2);
+		likeService.like(10, 3);
+
+		// then
+		Assertions.assertEquals(3L, likeService.count(10));
+		// 누른 (post, user) 를 DB 에서 확인하지 않는다 (커밋된 수만 읽는다)
+		verify(likeEntityRepository, only()).countByPostIdIn(anyCollection());
+	}
+
+	@Test
+	void 이미_좋아요한_유저가_다시_좋아요하는경우() {
+		// given
+		when(postEntityRepository.findUserIdById(20)).thenReturn(Optional.of(99));
+		when(likeEntityRepository.countByPostIdIn(anyCollection())).thenReturn(List.of(postCount(20, 0L)));
+		likeService.like(20, 1);
+
+		// when
+		SnsApplicationException exception = Assertions.assertThrows(SnsApplicationException.class, () -> likeService.like(20, 1));
+
+		// then
+		Assertions.assertEquals(ErrorCode.ALREADY_LIKED, exception.getErrorCode());
+		Assertions.assertEquals(1L, likeService.count(20));
+	}
+
+	@Test
+	void 좋아요하지_않은_포스트를_취소하는경우() {
+		// given
+		when(postEntityRepository.findUserIdById(30)).thenReturn(Optional.of(99));
+		likeService.like(30, 1);
+		likeService.unlike(30, 1);
+
+		// when
+		SnsApplicationException exception = Assertions.assertThrows(SnsApplicationException.class, () -> likeService.unlike(30, 1));
+
+		// then
+		Assertions.assertEquals(ErrorCode.LIKE_NOT_FOUND, exception.getErrorCode());
+	}
+
+	@Test
+	void 이노드가_모르는_좋아요를_다시_누르면_받아들이고_flush_에서_DB_가_건너뛴다() {
+		// given (다른 노드에서 이미 좋아요해 DB 에 row 가 있다)
+		likeService.flush();
+		when(postEntityRepository.findUserIdById(35)).thenReturn(Optional.of(99));
+		when(likeEntityRepository.countByPostIdIn(anyCollection())).thenReturn(List.of(postCount(35, 1L)));
+		when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyList())).thenReturn(new int[]{0});
+		likeService.like(35, 1);
+		Assertions.assertEquals(2L, likeService.count(35));
+		OptionalLong version = postVersionTracker.listVersion();
+
+		// when
+		likeService.flush();
+
+		// then (row 가 바뀌지 않았으므로 커밋된 수와 목록 버전은 그대로다)
+		Assertions.assertEquals(1L, likeService.count(35));
+		Assertions.assertEquals(version, postVersionTracker.listVersion());
+		Assertions.assertThrows(SnsApplicationException.class, () -> likeService.like(35, 1));
+	}
+
+	@Test
+	void 포스트가_없는경우() {
+		// given
+		when(postEntityRepository.findUserIdById(40)).thenReturn(Optional.empty());
+
+		// when
+		SnsApplicationException exception = Assertions.assertThrows(SnsApplicationException.class, () -> likeService.like(40, 1));
+
+		// then
+		Assertions.assertEquals(ErrorCode.POST_NOT_FOUND, exception.getErrorCode());
+	}
+
+	@Test
+	void flush_시_같은_유저의_좋아요후_취소는_마지막_상태만_batch로_저장된다() {
+		// given
+		// 다른 테스트에서 쌓인 변경은 먼저 비운다
+		likeService.flush();
+		clearInvocations(jdbcTemplate);
+		when(postEntityRepository.findUserIdById(50)).thenReturn(Optional.of(99));
+		likeService.like(50, 1);
+		likeService.like(50, 2);
+		likeService.unlike(50, 1);
+
+		// when
+		likeService.flush();
+
+		// then
+		verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), argThat((List<Object[]> rows) ->
+				rows.size() == 1 && rows.get(0)[0].equals(50) && rows.get(0)[1].equals(2)));
+		// user 1 의 좋아요가 이 노드가 받기 전부터 DB 에 있었을 수 있으므로 delete 로 쓴다
+		verify(jdbcTemplate).batchUpdate(startsWith("DELETE"), argThat((List<Object[]> rows) ->
+				rows.size() == 1 && rows.get(0)[0].equals(50) && rows.get(0)[1].equals(1)));
+	}
+
+	@Test
+	void batch_가_제약에_걸리면_한건씩_다시_쓰고_충돌한_row_만_건너뛴다() {
+		// given
+		likeService.flush();
+		clearInvocations(jdbcTemplate);
+		when(postEntityRepository.findUserIdById(60)).thenReturn(Optional.of(99));
+		when(likeEntityRepository.countByPostIdIn(anyCollection())).thenReturn(List.of(postCount(60, 3L)));
+		likeService.like(60, 1);
+		likeService.like(60, 2);
+		likeService.like(60, 3);
+		// 다른 노드가 user 1 의 좋아요를 동시에 넣어 batch 가 unique 제약에 걸린 경우
+		when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyList())).thenThrow(new DuplicateKeyException("like_post_id_user_id_key"));
+		List<Object> written = new ArrayList<>();
+		when(jdbcTemplate.update(startsWith("INSERT"), (Object[]) any())).thenAnswer(invocation -> {
+			Object userId = invocation.getArguments()[2];
+			if (userId.equals(1)) {
+				throw new DuplicateKeyException("like_post_id_user_id_key");
+			}
+			written.add(userId);
+			return 1;
+		});
+
+		// when
+		likeService.flush();
+
+		// then
+		Assertions.assertEquals(List.of(2, 3), written);
+		Assertions.assertEquals(3L, likeService.count(60));
+	}
+
+	@Test
+	void DB_오류로_쓰지_못한_좋아요는_버리지_않고_다음_flush_에_다시_쓴다() {
+		// given
+		likeService.flush();
+		when(postEntityRepository.findUserIdById(65)).thenReturn(Optional.of(99));
+		likeService.like(65, 1);
+		when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyList()))
+				.thenThrow(new DataAccessResourceFailureException("connection refused"))
+				.thenReturn(new int[]{1});
+		likeService.flush();
+		// 아직 커밋되지 않았으므로 이 노드의 카운트에 남아 있다
+		Assertions.assertEquals(1L, likeService.count(65));
+		clearInvocations(jdbcTemplate);
+
+		// when (재시도 간격이 지났다)
+		ReflectionTestUtils.setField(likeService, "retryAt", 0L);
+		likeService.flush();
+
+		// then
+		verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), argThat((List<Object[]> rows) ->
+				rows.size() == 1 && rows.get(0)[0].equals(65) && rows.get(0)[1].equals(1)));
+	}
+
+	@Test
+	void flush_가_커밋되면_목록_버전이_바뀐다() {
+		// given
+		likeService.flush();
+		when(postEntityRepository.findUserIdById(70)).thenReturn(Optional.of(99));
+		likeService.like(70, 1);
+		OptionalLong version = postVersionTracker.listVersion();
+
+		// when
+		likeService.flush();
+
+		// then
+		Assertions.assertNotEquals(version, postVersionTracker.listVersion());
+	}
+
+	@Test
+	void 다른_노드의_좋아요가_커밋되었다는_메시지를_받으면_커밋된_수를_다시_센다() {
+		// given
+		when(postEntityRepository.findUserIdById(80)).thenReturn(Optional.of(99));
+		when(likeEntityRepository.countByPostIdIn(anyCollection()))
+				.thenReturn(List.of(postCount(80, 1L))).thenReturn(List.of(postCount(80, 2L)));
+		likeService.like(80, 3);
+		Assertions.assertEquals(2L, likeService.count(80));
+		OptionalLong version = postVersionTracker.listVersion();
+
+		// when (다른 노드가 user 2 의 좋아요를 커밋하고 알렸다)
+		postCacheRepository.evict(80);
+
+		// then (아직 DB 에 쓰지 않은 이 노드의 좋아요도 유지된다)
+		Assertions.assertEquals(3L, likeService.count(80));
+		Assertions.assertNotEquals(version, postVersionTracker.listVersion());
+		verify(likeEntityRepository, times(2)).countByPostIdIn(anyCollection());
+	}
+
+	private static PostCount postCount(Integer postId, Long count) {
+		return new PostCount() {
+			@Override
+			public Integer getPostId() {
+				return postId;
+			}
+
+			@Override
+			public Long getCount() {
+				return count;
+			}
+		};
+	}
+}
@@ -0,0 +1,66 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordHasherTest {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@AfterEach
+	void release() {
+		release.countDown();
+	}
+
+	@Test
+	void 해시_대기열이_가득차면_TOO_MANY_REQUESTS() {
+		// given (스레드 1개, 대기열 1개)
+		BCryptPasswordEncoder encoder = mock(BCryptPasswordEncoder.class);
+		when(encoder.encode("slow")).thenAnswer(invocation -> {
+			release.await();
+			return "hash";
+		});
+		PasswordHasher hasher = new PasswordHasher(encoder, 10, 1, 1, 3000);
+		hasher.encodeLater("slow");
+		hasher.encodeLater("slow");
+
+		// when
+		SnsApplicationException exception = Assertions.assertThrows(SnsApplicationException.class, () -> hasher.encode("password"));
+
+		// then
+		Assertions.assertEquals(ErrorCode.TOO_MANY_REQUESTS, exception.getErrorCode());
+	}
+
+	@Test
+	void 없는_유저와_비교할_해시는_시작할_때_한번만_만든다() {
+		// given
+		BCryptPasswordEncoder encoder = mock(BCryptPasswordEncoder.class);
+		when(encoder.encode("dummy-password")).thenReturn("dummy_hash");
+		PasswordHasher hasher = new PasswordHasher(encoder, 10, 1, 1, 3000);
+
+		// when
+		hasher.matchesDummy("password");
+		hasher.matchesDummy("password");
+
+		// then
+		verify(encoder, times(1)).encode("dummy-password");
+		verify(encoder, times(2)).matches("password", "dummy_hash");
+	}
+
+	@Test
+	void 해시에서_cost를_읽는다() {
+		Assertions.assertEquals(12, PasswordHasher.costOf(new BCryptPasswordEncoder(12).encode("password")));
+		Assertions.assertNull(PasswordHasher.costOf("plain"));
+	}
+}
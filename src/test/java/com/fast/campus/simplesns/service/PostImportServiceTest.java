@@ -0,0 +1,67 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.model.ImportProgress;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "sns.post.import.chunk-size=2")
+@ActiveProfiles("test")
+class PostImportServiceTest {
+
+	@Autowired
+	private PostImportService postImportService;
+
+	@SpyBean
+	private UserEntityRepository userEntityRepository;
+
+	@Test
+	void NDJSON_을_chunk_단위로_저장하고_잘못된_줄은_건너뛴다() throws Exception {
+		// given
+		String author = "importer" + System.nanoTime();
+		userEntityRepository.save(UserEntity.of(author, "password", 10));
+		String lines = String.join("\n",
+				line(author, "title1"),
+				line(author, "title2"),
+				"{not json",
+				line("nobody" + System.nanoTime(), "title3"),
+				"",
+				line(author, "title4"),
+				line(author, "title5"),
+				line(author, "title6")) + "\n";
+		List<Long> reported = new ArrayList<>();
+
+		// when
+		ImportProgress progress = postImportService.importPosts(
+				new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)), it -> reported.add(it.getImported()));
+
+		// then
+		Assertions.assertTrue(progress.isDone());
+		Assertions.assertNull(progress.getError());
+		Assertions.assertEquals(7, progress.getLines());
+		Assertions.assertEquals(5, progress.getImported());
+		Assertions.assertEquals(2, progress.getFailed());
+		Assertions.assertEquals(4, progress.getLastFailedLine());
+		// chunk 마다 한 번 + 마지막 chunk + 종료
+		Assertions.assertEquals(List.of(2L, 4L, 5L, 5L), reported);
+		// 작성자 이름마다 한 번만 조회
+		verify(userEntityRepository, times(1)).findIdByUserName(author);
+	}
+
+	private static String line(String userName, String title) {
+		return String.format("{\"userName\":\"%s\",\"title\":\"%s\",\"body\":\"body\"}", userName, title);
+	}
+}
@@ -0,0 +1,179 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.config.datasource.ReadYourWritesTracker;
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.model.event.PostCreatedEvent;
+import com.fast.campus.simplesns.repository.PostEntityRepository;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {"sns.post.ingestion.mode=write-behind", "sns.post.ingestion.linger-ms=50"})
+@ActiveProfiles("test")
+class PostIngestionQueueTest {
+
+	private static final int POSTS = 120;
+
+	@Autowired
+	private PostIngestionQueue postIngestionQueue;
+
+	@Autowired
+	private PostEntityRepository postEntityRepository;
+
+	@Autowired
+	private UserEntityRepository userEntityRepository;
+
+	@SpyBean
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PostService postService;
+
+	// 커밋 후 fan-out 조회가 statement 수에 섞이지 않도록
+	@MockBean
+	private TimelineService timelineService;
+
+	// routing datasource 를 켠 것처럼
+	@MockBean
+	private ReadYourWritesTracker readYourWritesTracker;
+
+	private String userName;
+
+	private Integer userId;
+
+	@BeforeEach
+	void setUp() {
+		userName = "ingestion" + System.nanoTime();
+		userId = userEntityRepository.save(UserEntity.of(userName, "password", 10)).getId();
+	}
+
+	@Test
+	void 동시에_들어온_포스트는_batch_로_저장되고_각자_id_를_받는다() {
+		// when
+		List<CompletableFuture<Integer>> saved = IntStream.range(0, POSTS)
+				.mapToObj(i -> postIngestionQueue.submit("title" + i, "body" + i, userId))
+				.collect(Collectors.toList());
+		Set<Integer> ids = saved.stream().map(CompletableFuture::join).collect(Collectors.toSet());
+
+		// then
+		Assertions.assertEquals(POSTS, ids.size());
+		// insert 는 batch 마다 한 번의 executeBatch 로 묶인다
+		verify(jdbcTemplate, atMost(POSTS / 4)).execute(any(ConnectionCallback.class));
+		// 각자 받은 id 가 자기 post 의 id 다
+		for (int i = 0; i < POSTS; i++) {
+			Assertions.assertEquals("title" + i, postEntityRepository.findById(saved.get(i).join()).orElseThrow().getTitle());
+		}
+	}
+
+	@Test
+	void 저장_스레드에서_커밋된_포스트도_작성자를_read_your_writes_로_기록한다() {
+		// when
+		Integer postId = postService.create("title", "body", userName);
+
+		// then (응답하기 전에 기록해서 바로 이어지는 조회가 primary 로 간다)
+		Assertions.assertTrue(postEntityRepository.findById(postId).isPresent());
+		verify(readYourWritesTracker).recordWrite(userName);
+	}
+
+	@Test
+	void batch_중_하나가_실패해도_나머지는_저장된다() {
+		// when
+		CompletableFuture<Integer> before = postIngestionQueue.submit("title", "body", userId);
+		CompletableFuture<Integer> broken = postIngestionQueue.submit("title", "body", Integer.MAX_VALUE);
+		CompletableFuture<Integer> after = postIngestionQueue.submit("title", "body", userId);
+
+		// then
+		Assertions.assertTrue(postEntityRepository.findById(before.join()).isPresent());
+		Assertions.assertTrue(postEntityRepository.findById(after.join()).isPresent());
+		Assertions.assertThrows(ExecutionException.class, broken::get);
+	}
+
+	@Test
+	void 커밋을_기다리다_시간을_넘기면_503() throws Exception {
+		// given (저장 스레드가 트랜잭션을 시작하지 못하고 멈춰 있다)
+		CountDownLatch release = new CountDownLatch(1);
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+			release.await();
+			return new SimpleTransactionStatus();
+		});
+		PostIngestionQueue queue = new PostIngestionQueue(mock(JdbcTemplate.class), mock(ApplicationEventPublisher.class),
+				transactionManager, 1, 0, 10, 1, 50);
+
+		try {
+			// when
+			SnsApplicationException exception = Assertions.assertThrows(SnsApplicationException.class,
+					() -> queue.save("title", "body", userId));
+
+			// then
+			Assertions.assertEquals(ErrorCode.SERVICE_UNAVAILABLE, exception.getErrorCode());
+		} finally {
+			release.countDown();
+			queue.shutdown();
+		}
+	}
+
+	@Test
+	void 작성_이벤트는_id를_돌려준_뒤에_트랜잭션_밖에서_처리한다() throws Exception {
+		// given
+		CountDownLatch submitted = new CountDownLatch(1);
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+			submitted.await();
+			return new SimpleTransactionStatus();
+		});
+		AtomicReference<CompletableFuture<Integer>> saved = new AtomicReference<>();
+		List<Boolean> completedBeforeEvent = new CopyOnWriteArrayList<>();
+		ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+		doAnswer(invocation -> completedBeforeEvent.add(saved.get().isDone()))
+				.when(eventPublisher).publishEvent(any(PostCreatedEvent.class));
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(List.of(1));
+		PostIngestionQueue queue = new PostIngestionQueue(jdbcTemplate, eventPublisher,
+				transactionManager, 1, 0, 10, 1, 3000);
+
+		try {
+			// when
+			saved.set(queue.submit("title", "body", userId));
+			submitted.countDown();
+
+			// then
+			verify(eventPublisher, timeout(1000)).publishEvent(any(PostCreatedEvent.class));
+			Assertions.assertEquals(List.of(true), completedBeforeEvent);
+			verify(transactionManager, timeout(1000)).commit(any());
+		} finally {
+			queue.shutdown();
+		}
+	}
+}
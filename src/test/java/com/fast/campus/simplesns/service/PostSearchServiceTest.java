@@ -0,0 +1,66 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.exception.ErrorCode;
+import com.fast.campus.simplesns.exception.SnsApplicationException;
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PostSearchServiceTest {
+
+	@Autowired
+	private PostSearchService postSearchService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private UserEntityRepository userEntityRepository;
+
+	@Test
+	void 작성_수정_삭제가_커밋되면_검색_결과에_반영된다() {
+		// given
+		String userName = "searcher" + System.nanoTime();
+		userEntityRepository.save(UserEntity.of(userName, "password", 10));
+		String word = "zebra" + System.nanoTime();
+
+		// when
+		Integer first = postService.create("first " + word, "body", userName);
+		Integer second = postService.create("second", "about " + word, userName);
+		List<Integer> created = search(word);
+
+		postService.modify("second", "changed", userName, second);
+		List<Integer> modified = search(word);
+
+		postService.delete(userName, first);
+		List<Integer> deleted = search(word);
+
+		// then
+		Assertions.assertEquals(List.of(first, second), created);
+		Assertions.assertEquals(List.of(first), modified);
+		Assertions.assertEquals(List.of(), deleted);
+	}
+
+	@Test
+	void 검색어가_비어있으면_에러를_반환한다() {
+		SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class,
+				() -> postSearchService.search(" ", null, 10));
+		Assertions.assertEquals(ErrorCode.INVALID_SEARCH_QUERY, e.getErrorCode());
+	}
+
+	private List<Integer> search(String query) {
+		return postSearchService.search(query, null, 10).getContent().stream()
+				.map(PostSummary::getId)
+				.collect(Collectors.toList());
+	}
+}
@@ -4,8 +4,12 @@ import com.fast.campus.simplesns.exception.ErrorCode;
 import com.fast.campus.simplesns.exception.SnsApplicationException;
 import com.fast.campus.simplesns.fixture.PostEntityFixture;
 import com.fast.campus.simplesns.fixture.UserEntityFixture;
+import com.fast.campus.simplesns.model.CursorPage;
+import com.fast.campus.simplesns.model.PostCursor;
+import com.fast.campus.simplesns.model.PostSummary;
 import com.fast.campus.simplesns.model.entity.PostEntity;
 import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.model.event.PostModifiedEvent;
 import com.fast.campus.simplesns.repository.PostEntityRepository;
 import com.fast.campus.simplesns.repository.UserEntityRepository;
 import org.junit.jupiter.api.Assertions;
@@ -13,14 +17,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -35,21 +49,24 @@ class PostServiceTest {
 	@MockBean
 	private UserEntityRepository userEntityRepository;
 
-//	@Test
-//	void 포스트작성이_성공한경우() {
-//		// given
-//		String title = "title";
-//		String body = "body";
-//		String userName = "userName";
-//
-//		// when
-//		when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(mock(UserEntity.class)));
-//		when(postEntityRepository.save(any())).thenReturn(mock(PostEntity.class));
-//
-//		Assertions.assertDoesNotThrow(() -> postService.create(title, body, userName));
-//
-//		// then
-//	}
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Test
+	void 포스트작성이_성공한경우() {
+		// given
+		String title = "title";
+		String body = "body";
+		String userName = "userName";
+
+		// when
+		when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(mock(UserEntity.class)));
+		when(postEntityRepository.save(any())).thenReturn(mock(PostEntity.class));
+
+		Assertions.assertDoesNotThrow(() -> postService.create(title, body, userName));
+
+		// then
+	}
 
 	@Test
 	void 포스트작성시_요청한유저가_존재하지않는경우() {
@@ -194,7 +211,7 @@ class PostServiceTest {
 
 		// when
 		Pageable pageable = mock(Pageable.class);
-		when(postEntityRepository.findAll(pageable)).thenReturn(Page.empty());
+		when(postEntityRepository.findAllPostSummaries(pageable)).thenReturn(Page.empty());
 
 		// then
 		Assertions.assertDoesNotThrow(() -> postService.list(pageable));
@@ -209,10 +226,95 @@ class PostServiceTest {
 
 		// when
 		when(userEntityRepository.findByUserName(any())).thenReturn(Optional.of(user));
-		when(postEntityRepository.findAllByUser(eq(user), eq(pageable))).thenReturn(Page.empty());
+		when(postEntityRepository.findAllPostSummariesByUserId(any(), eq(pageable))).thenReturn(Page.empty());
 
 		// then
 		Assertions.assertDoesNotThrow(() -> postService.my("", pageable));
 	}
 
+	@Test
+	void 커서피드_다음페이지가_있는경우_커서를_돌려준다() {
+		// given
+		Timestamp registeredAt = Timestamp.from(Instant.now());
+		PostSummary first = new PostSummary(3, "title", "body", 1, "userName", registeredAt, null);
+		PostSummary second = new PostSummary(2, "title", "body", 1, "userName", registeredAt, null);
+		PostSummary third = new PostSummary(1, "title", "body", 1, "userName", registeredAt, null);
+
+		// when
+		when(postEntityRepository.findFeed(any())).thenReturn(List.of(first, second, third));
+		CursorPage<PostSummary> page = postService.feed(null, 2);
+
+		// then
+		Assertions.assertEquals(2, page.getContent().size());
+		Assertions.assertTrue(page.isHasNext());
+		PostCursor cursor = PostCursor.decode(page.getNextCursor());
+		Assertions.assertEquals(2, cursor.getId());
+		Assertions.assertEquals(registeredAt, cursor.getRegisteredAt());
+	}
+
+	@Test
+	void 커서피드_커서가_주어지면_커서_이후를_조회한다() {
+		// given
+		PostCursor after = new PostCursor(Timestamp.from(Instant.now()), 10);
+
+		// when
+		when(postEntityRepository.findFeedAfter(eq(after.getRegisteredAt()), eq(10), any())).thenReturn(List.of());
+		CursorPage<PostSummary> page = postService.feed(after, 20);
+
+		// then
+		Assertions.assertFalse(page.isHasNext());
+		Assertions.assertNull(page.getNextCursor());
+	}
+
+
+	@Test
+	void 단건조회에_동시에_miss_가_나도_DB_는_한번만_읽는다() throws Exception {
+		// given
+		Integer postId = 9001;
+		when(postEntityRepository.findPostSummariesByIdIn(List.of(postId))).thenAnswer(invocation -> {
+			Thread.sleep(200);
+			return List.of(postSummary(postId));
+		});
+
+		// when
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<PostSummary>> results = executor.invokeAll(
+				Collections.nCopies(8, () -> postService.get(postId)));
+		executor.shutdown();
+
+		// then
+		for (Future<PostSummary> result : results) {
+			Assertions.assertEquals(postId, result.get().getId());
+		}
+		verify(postEntityRepository, times(1)).findPostSummariesByIdIn(List.of(postId));
+	}
+
+	@Test
+	void 포스트가_수정되면_단건조회_캐시가_지워진다() {
+		// given
+		Integer postId = 9002;
+		when(postEntityRepository.findPostSummariesByIdIn(List.of(postId))).thenReturn(List.of(postSummary(postId)));
+		postService.get(postId);
+
+		// when
+		eventPublisher.publishEvent(new PostModifiedEvent(postId, "title", "body"));
+		postService.get(postId);
+
+		// then
+		verify(postEntityRepository, times(2)).findPostSummariesByIdIn(List.of(postId));
+	}
+
+	@Test
+	void 단건조회시_포스트가_없는경우() {
+		// given
+		when(postEntityRepository.findPostSummariesByIdIn(List.of(9003))).thenReturn(List.of());
+
+		// then
+		SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class, () -> postService.get(9003));
+		Assertions.assertEquals(ErrorCode.POST_NOT_FOUND, e.getErrorCode());
+	}
+
+	private static PostSummary postSummary(Integer postId) {
+		return new PostSummary(postId, "title", "body", 1, "userName", new Timestamp(0), new Timestamp(0));
+	}
 }
@@ -0,0 +1,100 @@
+package com.fast.campus.simplesns.service;
+
+import com.fast.campus.simplesns.fixture.UserEntityFixture;
+import com.fast.campus.simplesns.model.CursorPage;
+import com.fast.campus.simplesns.model.PostSummary;
+import com.fast.campus.simplesns.model.entity.UserEntity;
+import com.fast.campus.simplesns.model.event.PostCreatedEvent;
+import com.fast.campus.simplesns.repository.FollowEntityRepository;
+import com.fast.campus.simplesns.repository.PostEntityRepository;
+import com.fast.campus.simplesns.repository.UserEntityRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {"sns.timeline.store=memory", "sns.timeline.celebrity-threshold=3"})
+class TimelineServiceTest {
+
+	@Autowired
+	private TimelineService timelineService;
+
+	@MockBean
+	private FollowEntityRepository followEntityRepository;
+
+	@MockBean
+	private PostEntityRepository postEntityRepository;
+
+	@MockBean
+	private UserEntityRepository userEntityRepository;
+
+	@Test
+	void 새_포스트는_팔로워의_타임라인에_들어간다() {
+		// given
+		Integer authorId = 100;
+		UserEntity follower = UserEntityFixture.get("follower", "password", 101);
+		when(userEntityRepository.findFollowerCountById(authorId)).thenReturn(Optional.of(1L));
+		when(followEntityRepository.findFollowerIds(authorId)).thenReturn(List.of(follower.getId()));
+		when(userEntityRepository.findByUserName("follower")).thenReturn(Optional.of(follower));
+		when(followEntityRepository.findCelebrityFollowingIds(eq(follower.getId()), anyLong())).thenReturn(List.of());
+		when(postEntityRepository.findPostSummariesByIdIn(anyCollection())).thenAnswer(invocation -> posts(invocation.getArgument(0)));
+
+		// when
+		timelineService.fanOut(new PostCreatedEvent(1, authorId, "title", "body"));
+		timelineService.fanOut(new PostCreatedEvent(2, authorId, "title", "body"));
+		timelineService.fanOut(new PostCreatedEvent(3, authorId, "title", "body"));
+		CursorPage<PostSummary> first = timelineService.home("follower", null, 2);
+		CursorPage<PostSummary> second = timelineService.home("follower", Integer.valueOf(first.getNextCursor()), 2);
+
+		// then
+		Assertions.assertEquals(List.of(3, 2), ids(first));
+		Assertions.assertTrue(first.isHasNext());
+		Assertions.assertEquals(List.of(1), ids(second));
+		Assertions.assertFalse(second.isHasNext());
+	}
+
+	@Test
+	void 팔로워가_많은_작성자의_포스트는_읽을때_합친다() {
+		// given
+		Integer celebrityId = 200;
+		Integer authorId = 201;
+		UserEntity follower = UserEntityFixture.get("reader", "password", 202);
+		when(userEntityRepository.findFollowerCountById(celebrityId)).thenReturn(Optional.of(3L));
+		when(userEntityRepository.findFollowerCountById(authorId)).thenReturn(Optional.of(1L));
+		when(followEntityRepository.findFollowerIds(authorId)).thenReturn(List.of(follower.getId()));
+		when(userEntityRepository.findByUserName("reader")).thenReturn(Optional.of(follower));
+		when(followEntityRepository.findCelebrityFollowingIds(eq(follower.getId()), anyLong())).thenReturn(List.of(celebrityId));
+		when(postEntityRepository.findIdsByUserIdIn(eq(List.of(celebrityId)), anyInt(), any())).thenReturn(List.of(12, 10));
+		when(postEntityRepository.findPostSummariesByIdIn(anyCollection())).thenAnswer(invocation -> posts(invocation.getArgument(0)));
+
+		// when
+		timelineService.fanOut(new PostCreatedEvent(12, celebrityId, "title", "body"));
+		timelineService.fanOut(new PostCreatedEvent(11, authorId, "title", "body"));
+		CursorPage<PostSummary> page = timelineService.home("reader", null, 10);
+
+		// then
+		verify(followEntityRepository, never()).findFollowerIds(celebrityId);
+		Assertions.assertEquals(List.of(12, 11, 10), ids(page));
+	}
+
+	private static List<PostSummary> posts(Collection<Integer> ids) {
+		return ids.stream()
+				.map(id -> new PostSummary(id, "title", "body", 1, "userName", null, null))
+				.collect(Collectors.toList());
+	}
+
+	private static List<Integer> ids(CursorPage<PostSummary> page) {
+		return page.getContent().stream().map(PostSummary::getId).collect(Collectors.toList());
+	}
+}
@@ -5,6 +5,7 @@ import com.fast.campus.simplesns.exception.SnsApplicationException;
 import com.fast.campus.simplesns.fixture.UserEntityFixture;
 import com.fast.campus.simplesns.model.entity.UserEntity;
 import com.fast.campus.simplesns.repository.UserEntityRepository;
+import com.fast.campus.simplesns.utils.JwtTokenVerifier;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,12 +13,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -33,6 +39,12 @@ public class UserServiceTest {
 	@MockBean
 	private BCryptPasswordEncoder encoder;
 
+	@Autowired
+	private CredentialVersionCache credentialVersionCache;
+
+	@Autowired
+	private JwtTokenVerifier jwtTokenVerifier;
+
 
 	@Test
 	void 회원가입이_정상적으로_동작하는_경우() {
@@ -50,6 +62,44 @@ public class UserServiceTest {
 
 	}
 
+	@Test
+	void 회원가입시_비밀번호_해시는_트랜잭션_밖에서_만든다() {
+		// given
+		String username = "userName";
+		String password = "passWord";
+		AtomicBoolean hashedInTransaction = new AtomicBoolean(true);
+
+		// when(mocking)
+		when(userEntityRepository.findByUserName(username)).thenReturn(Optional.empty());
+		when(encoder.encode(password)).thenAnswer(invocation -> {
+			hashedInTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+			return "encrypt_password";
+		});
+		when(userEntityRepository.save(any())).thenReturn((UserEntityFixture.get(username, password, 1)));
+		userService.join(username, password);
+
+		// then
+		Assertions.assertFalse(hashedInTransaction.get());
+	}
+
+	@Test
+	void 회원가입시_해시하는_사이에_같은_이름으로_가입한_경우() {
+		// given
+		String username = "userName";
+		String password = "passWord";
+
+		// when(mocking)
+		when(userEntityRepository.findByUserName(username))
+				.thenReturn(Optional.empty())
+				.thenReturn(Optional.of(UserEntityFixture.get(username, password, 1)));
+		when(encoder.encode(password)).thenReturn("encrypt_password");
+
+		// then
+		SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class, () -> userService.join(username, password));
+		assertEquals(ErrorCode.DUPLICATED_USER_NAME, e.getErrorCode());
+		verify(userEntityRepository, never()).save(any());
+	}
+
 	@Test
 	void 회원가입시_userName으로_회원가입한_유저가_이미_있는경우() {
 		// given
@@ -115,4 +165,75 @@ public class UserServiceTest {
 		// then
 		Assertions.assertThrows(SnsApplicationException.class, () -> userService.login(username, wrongPassword));
 	}
+
+	@Test
+	void 로그인시_해시의_cost가_설정과_다르면_다시_해시한다() {
+		// given
+		String username = "userName";
+		String password = "passWord";
+		String previous = "$2a$04$abcdefghijklmnopqrstuuA7v5hE0cqNcBMy6nYZ1lJvYzJtZHz6O";
+
+		UserEntity fixture = UserEntityFixture.get(username, previous, 1);
+
+		// when(mocking)
+		when(userEntityRepository.findByUserName(username)).thenReturn(Optional.of(fixture));
+		when(encoder.matches(password, previous)).thenReturn(true);
+		when(encoder.encode(password)).thenReturn("rehashed_password");
+		userService.login(username, password);
+
+		// then (응답과 별개로 비동기로 저장)
+		verify(userEntityRepository, timeout(1000)).updatePasswordHash(1, previous, "rehashed_password", 10);
+	}
+
+	@Test
+	void 비밀번호를_바꾸면_credential_version을_올리고_모든_노드에_알린다() {
+		// given
+		String username = "userName";
+		String password = "passWord";
+		UserEntity fixture = UserEntityFixture.get(username, password, 1);
+
+		// when(mocking)
+		when(userEntityRepository.findByUserName(username)).thenReturn(Optional.of(fixture));
+		when(encoder.matches(password, password)).thenReturn(true);
+		when(encoder.encode("newPassWord")).thenReturn("encrypt_new_password");
+		when(userEntityRepository.changePassword(1, password, "encrypt_new_password", 10)).thenReturn(1);
+		String token = userService.changePassword(username, password, "newPassWord");
+
+		// then
+		assertEquals(1, jwtTokenVerifier.verify(token).getCredentialVersion());
+		Assertions.assertTrue(credentialVersionCache.isCurrent(1, 1));
+		Assertions.assertFalse(credentialVersionCache.isCurrent(1, 0));
+	}
+
+	@Test
+	void 비밀번호_변경시_현재_비밀번호가_틀린_경우() {
+		// given
+		String username = "userName";
+		UserEntity fixture = UserEntityFixture.get(username, "passWord", 1);
+
+		// when(mocking)
+		when(userEntityRepository.findByUserName(username)).thenReturn(Optional.of(fixture));
+
+		// then
+		SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class,
+				() -> userService.changePassword(username, "wrongPassword", "newPassWord"));
+		assertEquals(ErrorCode.INVALID_PASSWORD, e.getErrorCode());
+		verify(userEntityRepository, never()).changePassword(any(), any(), any(), any());
+	}
+
+	@Test
+	void 탈퇴하면_credential_version을_올리고_모든_노드에_알린다() {
+		// given
+		String username = "userName";
+		UserEntity fixture = UserEntityFixture.get(username, "passWord", 2);
+
+		// when(mocking)
+		when(userEntityRepository.findByUserName(username)).thenReturn(Optional.of(fixture));
+		when(userEntityRepository.softDelete(2)).thenReturn(1);
+		credentialVersionCache.update(2, 0);
+		userService.delete(username);
+
+		// then
+		Assertions.assertFalse(credentialVersionCache.isCurrent(2, 0));
+	}
 }
@@ -0,0 +1,63 @@
+package com.fast.campus.simplesns.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+class JwtTokenVerifierTest {
+
+	private static final String KEY = "fast-campus.simple_sns_2022_secret_key";
+
+	private final JwtTokenVerifier verifier = new JwtTokenVerifier(KEY, 100);
+
+	@Test
+	void 캐시된_토큰도_exp_가_지나면_ExpiredJwtException() throws Exception {
+		// given
+		String token = JwtTokenUtils.generateToken("userName", KEY, 1_500L);
+		JwtClaims claims = verifier.verify(token);
+
+		// when
+		Thread.sleep(Math.max(0, claims.getExpiredAtMs() - System.currentTimeMillis()) + 10);
+
+		// then
+		Assertions.assertThrows(ExpiredJwtException.class, () -> verifier.verify(token));
+	}
+
+	@Test
+	void 같은_claim_이_다른_토큰으로_캐시되어_있어도_서명이_바뀐_토큰은_거부한다() {
+		// given
+		String token = JwtTokenUtils.generateToken("userName", KEY, 60_000L);
+		verifier.verify(token);
+		int signatureStart = token.lastIndexOf('.') + 1;
+		// 마지막 글자는 padding bit 만 바뀔 수 있으므로 서명의 첫 글자를 바꾼다
+		char replaced = token.charAt(signatureStart) == 'A' ? 'B' : 'A';
+		String tampered = token.substring(0, signatureStart) + replaced + token.substring(signatureStart + 1);
+
+		// when & then
+		Assertions.assertThrows(SignatureException.class, () -> verifier.verify(tampered));
+		Assertions.assertEquals("userName", verifier.verify(token).getUserName());
+	}
+
+	@Test
+	void 캐시_키는_토큰_전체의_SHA_256_이다() throws Exception {
+		// given
+		String token = JwtTokenUtils.generateToken("userName", KEY, 60_000L);
+
+		// when
+		verifier.verify(token);
+
+		// then
+		@SuppressWarnings("unchecked")
+		Cache<ByteBuffer, JwtClaims> verified = (Cache<ByteBuffer, JwtClaims>) ReflectionTestUtils.getField(verifier, "verified");
+		ByteBuffer expected = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+		Assertions.assertEquals(1, verified.asMap().size());
+		Assertions.assertTrue(verified.asMap().containsKey(expected));
+	}
+}